@@ -0,0 +1,14 @@
+package com.blockscore.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Exception thrown when a call is rejected because its bulkhead has no free permit.
+ */
+public class BulkheadFullException extends RuntimeException {
+  private static final long serialVersionUID = 0L;
+
+  public BulkheadFullException(@NotNull final String message) {
+    super(message);
+  }
+}
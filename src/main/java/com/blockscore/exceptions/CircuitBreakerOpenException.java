@@ -0,0 +1,27 @@
+package com.blockscore.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Exception thrown without calling the API while the circuit breaker of an operation is open,
+ * because too many recent calls of that operation failed or were slow.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+  private static final long serialVersionUID = 0L;
+
+  private final long retryAfterMillis;
+
+  public CircuitBreakerOpenException(@NotNull final String message, final long retryAfterMillis) {
+    super(message);
+    this.retryAfterMillis = retryAfterMillis;
+  }
+
+  /**
+   * Gets how long until the circuit breaker lets probe calls through again.
+   *
+   * @return the wait in milliseconds, or 0 if probes are already being made
+   */
+  public long getRetryAfterMillis() {
+    return retryAfterMillis;
+  }
+}
@@ -0,0 +1,15 @@
+package com.blockscore.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Exception thrown when a call is rejected because too many calls of the same operation are in
+ * flight and it could not be queued.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+  private static final long serialVersionUID = 0L;
+
+  public ConcurrencyLimitExceededException(@NotNull final String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,19 @@
+package com.blockscore.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Exception thrown when an API call does not complete within its deadline or timeout budget.
+ */
+public class DeadlineExceededException extends RuntimeException {
+  private static final long serialVersionUID = 0L;
+
+  public DeadlineExceededException(@NotNull final String message) {
+    super(message);
+  }
+
+  public DeadlineExceededException(@NotNull final String message, @Nullable final Throwable cause) {
+    super(message, cause);
+  }
+}
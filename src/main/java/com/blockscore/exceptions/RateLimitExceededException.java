@@ -0,0 +1,27 @@
+package com.blockscore.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Exception thrown when the API rejects a call for exceeding the account's rate limit (HTTP 429), or
+ * when the client's own rate limit does not allow a call within the time it may wait.
+ */
+public class RateLimitExceededException extends RuntimeException {
+  private static final long serialVersionUID = 0L;
+
+  private final long retryAfterMillis;
+
+  public RateLimitExceededException(@NotNull final String message, final long retryAfterMillis) {
+    super(message);
+    this.retryAfterMillis = retryAfterMillis;
+  }
+
+  /**
+   * Gets how long to wait before calling again.
+   *
+   * @return the wait in milliseconds, or -1 if unknown
+   */
+  public long getRetryAfterMillis() {
+    return retryAfterMillis;
+  }
+}
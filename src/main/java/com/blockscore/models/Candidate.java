@@ -3,17 +3,19 @@ package com.blockscore.models;
 import com.blockscore.models.base.BasicResponse;
 import com.blockscore.net.BlockscoreApiClient;
 import com.blockscore.net.BlockscoreRestAdapter;
+import com.blockscore.net.ListingPublisher;
+import com.blockscore.net.PageFetcher;
+import com.blockscore.net.PagingIterable;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
 
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The candidate model.
@@ -119,6 +121,46 @@ public class Candidate extends BasicResponse {
     return restAdapter.getCandidateHits(getId());
   }
 
+  /**
+   * Retrieve one page of the historical watchlist hits for this candidate.
+   * @param page  the page to fetch
+   * @return the page of historical watchlist hits
+   */
+  public PaginatedResult<WatchlistHit> getPastHits(@NotNull final PageRequest page) {
+    return restAdapter.getCandidateHits(getId(), page.getCount(), page.getOffset());
+  }
+
+  /**
+   * Iterates over all historical watchlist hits for this candidate. Pages are fetched as the
+   * iteration reaches them, and only the current page is held in memory unless
+   * {@link PagingIterable#withPrefetch(int, long)} is used.
+   * @return the lazy iterable of historical watchlist hits
+   */
+  @NotNull
+  public PagingIterable<WatchlistHit> iteratePastHits() {
+    return new PagingIterable<WatchlistHit>(new PageFetcher<WatchlistHit>() {
+      @Override
+      public PaginatedResult<WatchlistHit> fetchPage(final int count, final int offset) {
+        return getPastHits(new PageRequest(count, offset));
+      }
+    });
+  }
+
+  /**
+   * Publishes all historical watchlist hits for this candidate, fetching pages as the subscriber
+   * requests them.
+   * @return the publisher of historical watchlist hits
+   */
+  @NotNull
+  public Publisher<WatchlistHit> publishPastHits() {
+    return new ListingPublisher<WatchlistHit>(new PageFetcher<WatchlistHit>() {
+      @Override
+      public PaginatedResult<WatchlistHit> fetchPage(final int count, final int offset) {
+        return getPastHits(new PageRequest(count, offset));
+      }
+    });
+  }
+
   /**
    * Performs a watchlist search for this candidate with default search options.
    * Results may be of entities or individuals.
@@ -159,18 +201,8 @@ public class Candidate extends BasicResponse {
    * @return the paginated watchlist hit results
    */
   public PaginatedResult<WatchlistHit> searchWatchlists(EntityType entityType, Double similarityThreshold) {
-    Map<String, String> queryOptions = new HashMap<String, String>();
-    queryOptions.put("candidate_id", getId());
-
-    if (entityType != null) {
-      queryOptions.put("match_type", String.valueOf(entityType));
-    }
-
-    if (similarityThreshold != null) {
-      queryOptions.put("similarity_threshold", String.valueOf(similarityThreshold));
-    }
-
-    WatchlistSearchResults results = restAdapter.searchWatchlists(queryOptions);
+    WatchlistSearch search = new WatchlistSearch(getId(), entityType, similarityThreshold);
+    WatchlistSearchResults results = restAdapter.searchWatchlists(search);
 
     //wrap the result's data with PaginatedResult to make v5.0 transition simpler
     return new PaginatedResult<WatchlistHit>(results.getMatches(), results.getCount(), false);
@@ -11,8 +11,6 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * The company model.
@@ -295,11 +293,11 @@ public class Company extends BasicResponse {
    */
   public static class Builder {
     private BlockscoreRestAdapter restAdapter;
-    private Map<String, String> queryOptions;
+    private Company company;
 
     public Builder(BlockscoreApiClient client) {
       this.restAdapter = client.getAdapter();
-      queryOptions = new HashMap<String, String>();
+      company = new Company();
     }
 
     /**
@@ -310,7 +308,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setEntityName(@NotNull final String entityName) {
-      queryOptions.put("entity_name", entityName);
+      company.entityName = entityName;
       return this;
     }
 
@@ -323,7 +321,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setTaxId(@NotNull final String taxId) {
-      queryOptions.put("tax_id", taxId);
+      company.taxId = taxId;
       return this;
     }
 
@@ -335,7 +333,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setIncorporationState(@Nullable final String incorporationState) {
-      queryOptions.put("incorporation_state", incorporationState);
+      company.incorporationState = incorporationState;
       return this;
     }
 
@@ -347,7 +345,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setIncorporationCountryCode(@NotNull final String incorporationCountryCode) {
-      queryOptions.put("incorporation_country_code", incorporationCountryCode);
+      company.incorporationCountryCode = incorporationCountryCode;
       return this;
     }
 
@@ -358,7 +356,7 @@ public class Company extends BasicResponse {
      * @return this
      */
     public Builder setIncorporationType(@NotNull final CorporationType incorporationType) {
-      queryOptions.put("incorporation_type", String.valueOf(incorporationType));
+      company.incorporationType = String.valueOf(incorporationType);
       return this;
     }
 
@@ -377,9 +375,9 @@ public class Company extends BasicResponse {
       Calendar calendar = new GregorianCalendar();
       calendar.setTime(incorporationDate);
 
-      queryOptions.put("incorporation_day", String.valueOf(calendar.get(Calendar.DAY_OF_MONTH)));
-      queryOptions.put("incorporation_month", String.valueOf(calendar.get(Calendar.MONTH) + 1)); // Months begin at 0
-      queryOptions.put("incorporation_year", String.valueOf(calendar.get(Calendar.YEAR)));
+      company.incorporationDay = calendar.get(Calendar.DAY_OF_MONTH);
+      company.incorporationMonth = calendar.get(Calendar.MONTH) + 1; // Months begin at 0
+      company.incorporationYear = calendar.get(Calendar.YEAR);
 
       return this;
     }
@@ -390,7 +388,7 @@ public class Company extends BasicResponse {
      * @return this.
      */
     public Builder setDbas(@Nullable final String dbas) {
-      queryOptions.put("dbas", dbas);
+      company.dbas = dbas;
       return this;
     }
 
@@ -402,7 +400,7 @@ public class Company extends BasicResponse {
      * @return this
      */
     public Builder setRegistrationNumber(@Nullable final String registrationNumber) {
-      queryOptions.put("registration_number", registrationNumber);
+      company.registrationNumber = registrationNumber;
       return this;
     }
 
@@ -413,7 +411,7 @@ public class Company extends BasicResponse {
      * @return this
      */
     public Builder setEmail(@Nullable final String email) {
-      queryOptions.put("email", email);
+      company.email = email;
       return this;
     }
     
@@ -425,7 +423,7 @@ public class Company extends BasicResponse {
      * @return this
      */
     public Builder setUrl(@Nullable final String url) {
-      queryOptions.put("url", url);
+      company.url = url;
       return this;
     }
     
@@ -438,7 +436,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setPhoneNumber(@Nullable final String phoneNumber) {
-      queryOptions.put("phone_number", phoneNumber);
+      company.phoneNumber = phoneNumber;
       return this;
     }
 
@@ -450,7 +448,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setIpAddress(@Nullable final String ipAddress) {
-      queryOptions.put("ip_address", ipAddress);
+      company.ipAddress = ipAddress;
       return this;
     }
 
@@ -463,7 +461,7 @@ public class Company extends BasicResponse {
      */
     @NotNull
     public Builder setNote(@Nullable final String note) {
-      queryOptions.put("note", note);
+      company.note = note;
       return this;
     }
 
@@ -474,12 +472,12 @@ public class Company extends BasicResponse {
      * @return this
      */
     public Builder setAddress(@NotNull final Address address) {
-      queryOptions.put("address_street1", address.getStreet1());
-      queryOptions.put("address_street2", address.getStreet2());
-      queryOptions.put("address_city", address.getCity());
-      queryOptions.put("address_subdivision", address.getSubdivision());
-      queryOptions.put("address_postal_code", address.getPostalCode());
-      queryOptions.put("address_country_code", address.getCountryCode());
+      company.addressStreet1 = address.getStreet1();
+      company.addressStreet2 = address.getStreet2();
+      company.addressCity = address.getCity();
+      company.addressSubdivision = address.getSubdivision();
+      company.addressPostalCode = address.getPostalCode();
+      company.addressCountryCode = address.getCountryCode();
       return this;
     }
 
@@ -489,8 +487,7 @@ public class Company extends BasicResponse {
      * @return the new company
      */
     public Company create() {
-      Company company = restAdapter.createCompany(queryOptions);
-      return company;
+      return restAdapter.createCompany(company);
     }
   }
 }
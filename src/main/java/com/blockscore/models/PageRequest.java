@@ -0,0 +1,86 @@
+package com.blockscore.models;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Which page of a listing to fetch: how many items, starting after how many.
+ */
+public final class PageRequest {
+  private final int count;
+  private final int offset;
+
+  /**
+   * Creates a PageRequest. The API returns at most 100 items per page.
+   *
+   * @param count  the maximum number of items on the page
+   * @param offset  the number of items to skip
+   */
+  public PageRequest(final int count, final int offset) {
+    if (count < 1) {
+      throw new IllegalArgumentException("count < 1");
+    }
+    if (offset < 0) {
+      throw new IllegalArgumentException("offset < 0");
+    }
+    this.count = count;
+    this.offset = offset;
+  }
+
+  /**
+   * Creates a request for the first page.
+   *
+   * @param count  the maximum number of items on the page
+   * @return the page request
+   */
+  @NotNull
+  public static PageRequest first(final int count) {
+    return new PageRequest(count, 0);
+  }
+
+  /**
+   * Gets the maximum number of items on the page.
+   *
+   * @return the page size
+   */
+  public int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the number of items skipped before the page.
+   *
+   * @return the offset
+   */
+  public int getOffset() {
+    return offset;
+  }
+
+  /**
+   * Gets the request for the page after this one, of the same size.
+   *
+   * @return the next page request
+   */
+  @NotNull
+  public PageRequest next() {
+    return new PageRequest(count, offset + count);
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (!(other instanceof PageRequest)) {
+      return false;
+    }
+    PageRequest request = (PageRequest) other;
+    return count == request.count && offset == request.offset;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * count + offset;
+  }
+
+  @Override
+  public String toString() {
+    return "PageRequest{count=" + count + ", offset=" + offset + "}";
+  }
+}
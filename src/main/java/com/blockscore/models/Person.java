@@ -13,9 +13,7 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * The person model.
@@ -136,11 +134,7 @@ public class Person extends BasicResponse {
    * @return the new question set
    */
   public QuestionSet createQuestionSet(long timeLimit) {
-    Map<String, String> queryOptions = new HashMap<String, String>();
-    queryOptions.put("person_id", getId());
-    queryOptions.put("time_limit", String.valueOf(timeLimit));
-
-    QuestionSet questionSet = restAdapter.createQuestionSet(queryOptions);
+    QuestionSet questionSet = restAdapter.createQuestionSet(new QuestionSet(getId(), timeLimit));
     questionSet.setAdapter(restAdapter);
     return questionSet;
   }
@@ -300,11 +294,11 @@ public class Person extends BasicResponse {
    */
   public static class Builder {
     private BlockscoreRestAdapter restAdapter;
-    private Map<String, String> queryOptions;
+    private Person person;
 
     public Builder(BlockscoreApiClient client) {
       this.restAdapter = client.getAdapter();
-      queryOptions = new HashMap<String, String>();
+      person = new Person();
     }
 
     /**
@@ -315,7 +309,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setFirstName(@NotNull final String firstName) {
-      queryOptions.put("name_first", firstName);
+      person.firstName = firstName;
       return this;
     }
 
@@ -327,7 +321,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setMiddleName(@Nullable final String middleName) {
-      queryOptions.put("name_middle", middleName);
+      person.middleName = middleName;
       return this;
     }
 
@@ -339,7 +333,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setLastName(@NotNull final String lastName) {
-      queryOptions.put("name_last", lastName);
+      person.lastName = lastName;
       return this;
     }
 
@@ -351,7 +345,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setDocumentType(@NotNull final String documentType) {
-      queryOptions.put("document_type", documentType);
+      person.documentType = documentType;
       return this;
     }
 
@@ -363,7 +357,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setDocumentValue(@NotNull final String documentValue) {
-      queryOptions.put("document_value", documentValue);
+      person.documentValue = documentValue;
       return this;
     }
 
@@ -378,9 +372,9 @@ public class Person extends BasicResponse {
       Calendar calendar = new GregorianCalendar();
       calendar.setTime(dateOfBirth);
 
-      queryOptions.put("birth_day", String.valueOf(calendar.get(Calendar.DAY_OF_MONTH)));
-      queryOptions.put("birth_month", String.valueOf(calendar.get(Calendar.MONTH) + 1)); // Months begin at 0
-      queryOptions.put("birth_year", String.valueOf(calendar.get(Calendar.YEAR)));
+      person.birthDay = calendar.get(Calendar.DAY_OF_MONTH);
+      person.birthMonth = calendar.get(Calendar.MONTH) + 1; // Months begin at 0
+      person.birthYear = calendar.get(Calendar.YEAR);
 
       return this;
     }
@@ -393,12 +387,12 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setAddress(@NotNull final Address address) {
-      queryOptions.put("address_street1", address.getStreet1());
-      queryOptions.put("address_street2", address.getStreet2());
-      queryOptions.put("address_city", address.getCity());
-      queryOptions.put("address_subdivision", address.getSubdivision());
-      queryOptions.put("address_postal_code", address.getPostalCode());
-      queryOptions.put("address_country_code", address.getCountryCode());
+      person.addressStreet1 = address.getStreet1();
+      person.addressStreet2 = address.getStreet2();
+      person.addressCity = address.getCity();
+      person.addressSubdivision = address.getSubdivision();
+      person.addressPostalCode = address.getPostalCode();
+      person.addressCountryCode = address.getCountryCode();
       return this;
     }
 
@@ -415,7 +409,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setPhoneNumber(@Nullable final String phoneNumber) {
-      queryOptions.put("phone_number", phoneNumber);
+      person.phoneNumber = phoneNumber;
       return this;
     }
 
@@ -433,7 +427,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setIpAddress(@Nullable final String ipAddress) {
-      queryOptions.put("ip_address", ipAddress);
+      person.ipAddress = ipAddress;
       return this;
     }
 
@@ -446,7 +440,7 @@ public class Person extends BasicResponse {
      */
     @NotNull
     public Builder setNote(@Nullable final String note) {
-      queryOptions.put("note", note);
+      person.note = note;
       return this;
     }
 
@@ -456,9 +450,9 @@ public class Person extends BasicResponse {
      * @return the new person
      */
     public Person create() {
-      Person person = restAdapter.createPerson(queryOptions);
-      person.setAdapter(restAdapter);
-      return person;
+      Person createdPerson = restAdapter.createPerson(person);
+      createdPerson.setAdapter(restAdapter);
+      return createdPerson;
     }
   }
 }
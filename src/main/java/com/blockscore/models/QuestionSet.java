@@ -3,6 +3,7 @@ package com.blockscore.models;
 import com.blockscore.models.base.BasicResponse;
 import com.blockscore.net.BlockscoreRestAdapter;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.jetbrains.annotations.NotNull;
 
@@ -30,8 +31,24 @@ public class QuestionSet extends BasicResponse {
   @JsonProperty("questions")
   private List<Question> questions;
 
+  @JsonIgnore
   private BlockscoreRestAdapter restAdapter;
 
+  private QuestionSet() {
+    // do nothing. No argument constructor is necessary for Retrofit.
+  }
+
+  /**
+   * Creates the request body for a new question set.
+   *
+   * @param personId  the ID of the person the questions are for
+   * @param timeLimit  the time limit in seconds, or 0 for none
+   */
+  QuestionSet(@NotNull final String personId, final long timeLimit) {
+    this.personId = personId;
+    this.timeLimit = timeLimit;
+  }
+
   /**
    * Scores a question set.
    *
@@ -0,0 +1,64 @@
+package com.blockscore.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The request body for a watchlist search.
+ */
+public class WatchlistSearch {
+  @NotNull
+  @JsonProperty("candidate_id")
+  private String candidateId;
+
+  @Nullable
+  @JsonProperty("match_type")
+  private String matchType;
+
+  @Nullable
+  @JsonProperty("similarity_threshold")
+  private Double similarityThreshold;
+
+  private WatchlistSearch() {
+    // do nothing. No argument constructor is necessary for Jackson.
+  }
+
+  WatchlistSearch(@NotNull final String candidateId,
+                  @Nullable final EntityType entityType,
+                  @Nullable final Double similarityThreshold) {
+    this.candidateId = candidateId;
+    this.matchType = entityType == null ? null : String.valueOf(entityType);
+    this.similarityThreshold = similarityThreshold;
+  }
+
+  /**
+   * Gets the ID of the candidate being searched for.
+   *
+   * @return the candidate ID
+   */
+  @NotNull
+  public String getCandidateId() {
+    return candidateId;
+  }
+
+  /**
+   * Gets the type of entity to match against, if restricted.
+   *
+   * @return the match type
+   */
+  @Nullable
+  public String getMatchType() {
+    return matchType;
+  }
+
+  /**
+   * Gets the accepted threshold of similarity, if set.
+   *
+   * @return the similarity threshold
+   */
+  @Nullable
+  public Double getSimilarityThreshold() {
+    return similarityThreshold;
+  }
+}
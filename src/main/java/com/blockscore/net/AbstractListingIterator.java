@@ -0,0 +1,89 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * The part of a {@link ListingIterator} shared by the iterators fetching pages in the background:
+ * handing out the items of the current page, closing, and waiting for a page being fetched.
+ *
+ * <p>
+ * A failed fetch is thrown from {@link #hasNext()} and leaves the iterator open, so that calling
+ * {@link #hasNext()} again fetches the failed page once more. Being interrupted while waiting
+ * closes the iterator.
+ *
+ * @param <T>  the type of the listed items
+ */
+abstract class AbstractListingIterator<T> implements ListingIterator<T> {
+  List<T> page = Collections.emptyList();
+  int position;
+  boolean exhausted;
+
+  /**
+   * Cancels the page fetches still in flight and discards their pages.
+   */
+  abstract void cancelPending();
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return page.get(position++);
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Listings are read-only");
+  }
+
+  @Override
+  public void close() {
+    exhausted = true;
+    page = Collections.emptyList();
+    position = 0;
+    cancelPending();
+  }
+
+  /**
+   * Waits for a page being fetched.
+   *
+   * @param future  the fetch
+   * @param <V>  the type of the page
+   * @return the page
+   */
+  <V> V await(@NotNull final BlockscoreFuture<V> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      throw interrupted(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  /**
+   * Closes the iterator after the current thread was interrupted while waiting for a page.
+   *
+   * @param e  the interrupt
+   * @return the exception to throw
+   */
+  @NotNull
+  IllegalStateException interrupted(@NotNull final InterruptedException e) {
+    close();
+    Thread.currentThread().interrupt();
+    return new IllegalStateException("Interrupted while waiting for a page", e);
+  }
+}
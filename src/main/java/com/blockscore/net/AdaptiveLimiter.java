@@ -0,0 +1,174 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An AIMD limit on the calls in flight for one operation.
+ *
+ * <p>
+ * The smoothed round trip of recent calls is compared against a baseline, the fastest round trip
+ * seen over the last few hundred calls, so the baseline follows the API when its normal latency
+ * changes. The limit is reduced at most once per round trip, so a burst of slow responses to calls
+ * sent at the same time only counts once.
+ */
+class AdaptiveLimiter {
+  private static final int RTT_WINDOW = 256;
+
+  /**
+   * What a completed call says about the API's load.
+   */
+  enum Sample {
+    /** The call completed; its round trip is measured. */
+    SUCCESS,
+    /** The call timed out or failed on the network, a sign of overload. */
+    DROPPED,
+    /** The call failed in a way unrelated to load, e.g. a validation error. */
+    IGNORED
+  }
+
+  private final ConcurrencyLimitPolicy policy;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition slotFreed = lock.newCondition();
+  private final AtomicLong rejections = new AtomicLong();
+
+  private double limit;
+  private int inFlight;
+  private int waiting;
+  private long smoothedRttNanos;
+  private long baselineRttNanos = Long.MAX_VALUE;
+  private long windowMinRttNanos = Long.MAX_VALUE;
+  private int windowSamples;
+  private long lastDecreaseNanos;
+
+  AdaptiveLimiter(@NotNull final ConcurrencyLimitPolicy policy) {
+    this.policy = policy;
+    this.limit = policy.getInitialLimit();
+    this.lastDecreaseNanos = System.nanoTime();
+  }
+
+  /**
+   * Takes a slot, waiting for one to free up if the limit is reached and the queue has room.
+   *
+   * @param maxWaitNanos  the longest to wait for a slot
+   * @return true if a slot was taken, false if the call is rejected
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean acquire(final long maxWaitNanos) throws InterruptedException {
+    lock.lock();
+    try {
+      if (inFlight < (int) limit) {
+        inFlight++;
+        return true;
+      }
+      if (waiting >= policy.getMaxQueueSize() || maxWaitNanos <= 0) {
+        rejections.incrementAndGet();
+        return false;
+      }
+
+      waiting++;
+      try {
+        long remainingNanos = maxWaitNanos;
+        while (inFlight >= (int) limit) {
+          if (remainingNanos <= 0) {
+            rejections.incrementAndGet();
+            return false;
+          }
+          remainingNanos = slotFreed.awaitNanos(remainingNanos);
+        }
+        inFlight++;
+        return true;
+      } finally {
+        waiting--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gives back a slot and adjusts the limit to what the call says about the API's load.
+   *
+   * @param rttNanos  the round trip of the call
+   * @param sample  how the call completed
+   */
+  void release(final long rttNanos, @NotNull final Sample sample) {
+    lock.lock();
+    try {
+      boolean saturated = inFlight * 2 >= limit;
+      inFlight--;
+      int previousLimit = (int) limit;
+
+      if (sample == Sample.SUCCESS) {
+        updateRtt(rttNanos);
+      }
+      boolean congested = sample == Sample.DROPPED
+          || (sample == Sample.SUCCESS && smoothedRttNanos > baselineRttNanos * policy.getRttTolerance());
+      if (congested) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos >= smoothedRttNanos) {
+          limit = Math.max(policy.getMinLimit(), limit * policy.getBackoffRatio());
+          lastDecreaseNanos = now;
+        }
+      } else if (sample == Sample.SUCCESS && saturated) {
+        // Only grow while the limit is actually in use, so idle periods do not inflate it.
+        limit = Math.min(policy.getMaxLimit(), limit + 1 / limit);
+      }
+
+      if ((int) limit > previousLimit) {
+        slotFreed.signalAll();
+      } else {
+        slotFreed.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void updateRtt(final long rttNanos) {
+    // Smoothed like TCP's SRTT, so a single slow response does not cut the limit.
+    smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos : smoothedRttNanos + (rttNanos - smoothedRttNanos) / 8;
+    windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+    baselineRttNanos = Math.min(baselineRttNanos, rttNanos);
+    if (++windowSamples >= RTT_WINDOW) {
+      baselineRttNanos = windowMinRttNanos;
+      windowMinRttNanos = Long.MAX_VALUE;
+      windowSamples = 0;
+    }
+  }
+
+  int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long getRejections() {
+    return rejections.get();
+  }
+
+  long getBaselineRtt(@NotNull final TimeUnit unit) {
+    lock.lock();
+    try {
+      return baselineRttNanos == Long.MAX_VALUE ? 0 : unit.convert(baselineRttNanos, TimeUnit.NANOSECONDS);
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The operations of the Blockscore API, one per {@link BlockscoreRestAdapter} method. Used to
+ * configure per-operation behaviour such as timeouts.
+ */
+public enum ApiOperation {
+  CREATE_PERSON("createPerson", false, OperationGroup.VERIFICATION),
+  RETRIEVE_PERSON("retrievePerson", true, OperationGroup.RETRIEVAL),
+  LIST_PEOPLE("listPeople", true, OperationGroup.LISTING),
+  CREATE_QUESTION_SET("createQuestionSet", false, OperationGroup.VERIFICATION),
+  SCORE_QUESTION_SET("scoreQuestionSet", false, OperationGroup.VERIFICATION),
+  RETRIEVE_QUESTION_SET("retrieveQuestionSet", true, OperationGroup.RETRIEVAL),
+  CREATE_COMPANY("createCompany", false, OperationGroup.VERIFICATION),
+  RETRIEVE_COMPANY("retrieveCompany", true, OperationGroup.RETRIEVAL),
+  LIST_COMPANIES("listCompanies", true, OperationGroup.LISTING),
+  CREATE_CANDIDATE("createCandidate", false, OperationGroup.WATCHLIST),
+  RETRIEVE_CANDIDATE("retrieveCandidate", true, OperationGroup.RETRIEVAL),
+  UPDATE_CANDIDATE("updateCandidate", false, OperationGroup.WATCHLIST),
+  DELETE_CANDIDATE("deleteCandidate", false, OperationGroup.WATCHLIST),
+  LIST_CANDIDATES("listCandidates", true, OperationGroup.LISTING),
+  GET_CANDIDATE_HISTORY("getCandidateHistory", true, OperationGroup.WATCHLIST),
+  GET_CANDIDATE_HITS("getCandidateHits", true, OperationGroup.WATCHLIST),
+  SEARCH_WATCHLISTS("searchWatchlists", false, OperationGroup.WATCHLIST);
+
+  private static final Map<String, ApiOperation> BY_METHOD_NAME = new HashMap<String, ApiOperation>();
+
+  static {
+    for (ApiOperation operation : values()) {
+      BY_METHOD_NAME.put(operation.methodName, operation);
+    }
+  }
+
+  private final String methodName;
+  private final boolean readOnly;
+  private final OperationGroup group;
+
+  ApiOperation(@NotNull final String methodName, final boolean readOnly, @NotNull final OperationGroup group) {
+    this.methodName = methodName;
+    this.readOnly = readOnly;
+    this.group = group;
+  }
+
+  /**
+   * Whether or not the operation only reads data (an HTTP GET), and so is safe to send more than once.
+   *
+   * @return true for read-only operations
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Gets the kind of traffic the operation belongs to.
+   *
+   * @return the operation group
+   */
+  @NotNull
+  public OperationGroup getGroup() {
+    return group;
+  }
+
+  /**
+   * Gets the operation performed by a {@link BlockscoreRestAdapter} method.
+   *
+   * @param methodName  the name of the adapter method
+   * @return the operation, or null if the method is not an API operation
+   */
+  @Nullable
+  static ApiOperation forMethodName(@NotNull final String methodName) {
+    return BY_METHOD_NAME.get(methodName);
+  }
+}
@@ -0,0 +1,93 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.InvalidRequestException;
+import com.blockscore.models.error.ValidationErrorType;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of one item of a batch run by a {@link BatchVerifier}.
+ *
+ * @param <T>  the type of the result
+ */
+public final class BatchItem<T> {
+  private final int index;
+  private final T result;
+  private final Throwable failure;
+  private final long latencyNanos;
+
+  BatchItem(final int index, @Nullable final T result, @Nullable final Throwable failure, final long latencyNanos) {
+    this.index = index;
+    this.result = result;
+    this.failure = failure;
+    this.latencyNanos = latencyNanos;
+  }
+
+  /**
+   * Gets the position of the item in the batch's input.
+   *
+   * @return the index, starting at 0
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Whether or not the item succeeded.
+   *
+   * @return true if the item has a result
+   */
+  public boolean isSuccess() {
+    return failure == null;
+  }
+
+  /**
+   * Gets the result of the item.
+   *
+   * @return the result, or null if the item failed
+   */
+  @Nullable
+  public T getResult() {
+    return result;
+  }
+
+  /**
+   * Gets the exception the item failed with, e.g. an {@link InvalidRequestException} for a bad row.
+   *
+   * @return the failure, or null if the item succeeded
+   */
+  @Nullable
+  public Throwable getFailure() {
+    return failure;
+  }
+
+  /**
+   * Gets why the API rejected the item, if it failed validation.
+   *
+   * @return the validation error type, or null if the item did not fail validation
+   */
+  @Nullable
+  public ValidationErrorType getValidationErrorType() {
+    if (failure instanceof InvalidRequestException) {
+      return ((InvalidRequestException) failure).getValidationErrorCode();
+    }
+    return null;
+  }
+
+  /**
+   * Gets how long the item took, from the start of its call until it completed.
+   *
+   * @param unit  the unit of the result
+   * @return the latency
+   */
+  public long getLatency(@NotNull final TimeUnit unit) {
+    return unit.convert(latencyNanos, TimeUnit.NANOSECONDS);
+  }
+
+  long getLatencyNanos() {
+    return latencyNanos;
+  }
+}
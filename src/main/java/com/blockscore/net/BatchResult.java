@@ -0,0 +1,115 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcomes of a batch run by a {@link BatchVerifier}, in input order, with its throughput and
+ * latency percentiles.
+ *
+ * @param <T>  the type of the results
+ */
+public final class BatchResult<T> {
+  private final List<BatchItem<T>> items;
+  private final List<BatchItem<T>> failures;
+  private final long elapsedNanos;
+  private final long[] sortedLatencies;
+
+  BatchResult(@NotNull final List<BatchItem<T>> items, final long elapsedNanos) {
+    this.items = Collections.unmodifiableList(items);
+    this.elapsedNanos = elapsedNanos;
+
+    List<BatchItem<T>> failed = new ArrayList<BatchItem<T>>();
+    sortedLatencies = new long[items.size()];
+    for (int i = 0; i < sortedLatencies.length; i++) {
+      BatchItem<T> item = items.get(i);
+      sortedLatencies[i] = item.getLatencyNanos();
+      if (!item.isSuccess()) {
+        failed.add(item);
+      }
+    }
+    Arrays.sort(sortedLatencies);
+    failures = Collections.unmodifiableList(failed);
+  }
+
+  /**
+   * Gets the outcome of every item, in the order of the batch's input.
+   *
+   * @return the items
+   */
+  @NotNull
+  public List<BatchItem<T>> getItems() {
+    return items;
+  }
+
+  /**
+   * Gets the items that failed, in the order of the batch's input.
+   *
+   * @return the failed items
+   */
+  @NotNull
+  public List<BatchItem<T>> getFailures() {
+    return failures;
+  }
+
+  /**
+   * Gets the number of items that succeeded.
+   *
+   * @return the number of successes
+   */
+  public int getSuccessCount() {
+    return items.size() - failures.size();
+  }
+
+  /**
+   * Gets the number of items that failed.
+   *
+   * @return the number of failures
+   */
+  public int getFailureCount() {
+    return failures.size();
+  }
+
+  /**
+   * Gets how long the whole batch took.
+   *
+   * @param unit  the unit of the result
+   * @return the elapsed time
+   */
+  public long getElapsed(@NotNull final TimeUnit unit) {
+    return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gets the number of items completed per second, successful or not.
+   *
+   * @return the throughput
+   */
+  public double getThroughput() {
+    return elapsedNanos == 0 ? 0 : items.size() * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Gets a percentile of the item latencies, e.g. 50 for the median or 99 for the tail.
+   *
+   * @param percentile  the percentile, between 0 and 100
+   * @param unit  the unit of the result
+   * @return the latency at the percentile, or 0 for an empty batch
+   */
+  public long getLatencyPercentile(final double percentile, @NotNull final TimeUnit unit) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    if (sortedLatencies.length == 0) {
+      return 0;
+    }
+    // Nearest rank.
+    int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+    return unit.convert(sortedLatencies[Math.max(0, rank - 1)], TimeUnit.NANOSECONDS);
+  }
+}
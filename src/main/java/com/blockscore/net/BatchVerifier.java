@@ -0,0 +1,236 @@
+package com.blockscore.net;
+
+import com.blockscore.models.Company;
+import com.blockscore.models.Person;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Creates people or companies in bulk with bounded parallelism.
+ *
+ * <p>
+ * Input is consumed lazily, so a batch may come from an iterator over a file or a query and no
+ * more than the parallelism of items are in flight at once. Every item runs to completion; one
+ * that fails (e.g. a row rejected by the API) is reported with its failure rather than aborting the
+ * batch. Items run with the {@link Deadline} of the thread running the batch.
+ */
+public final class BatchVerifier {
+  private final int parallelism;
+  private final Executor executor;
+
+  private BatchVerifier(@NotNull final Builder builder) {
+    parallelism = builder.parallelism;
+    executor = builder.executor;
+  }
+
+  /**
+   * Creates every person in the batch.
+   *
+   * @param builders  the people to create
+   * @return the outcome of each person, in input order
+   */
+  @NotNull
+  public BatchResult<Person> verifyPeople(@NotNull final Iterable<Person.Builder> builders) {
+    return run(new CreateCalls<Person.Builder, Person>(builders.iterator()) {
+      @Override
+      Person create(@NotNull final Person.Builder builder) {
+        return builder.create();
+      }
+    });
+  }
+
+  /**
+   * Creates every company in the batch.
+   *
+   * @param builders  the companies to create
+   * @return the outcome of each company, in input order
+   */
+  @NotNull
+  public BatchResult<Company> verifyCompanies(@NotNull final Iterable<Company.Builder> builders) {
+    return run(new CreateCalls<Company.Builder, Company>(builders.iterator()) {
+      @Override
+      Company create(@NotNull final Company.Builder builder) {
+        return builder.create();
+      }
+    });
+  }
+
+  /**
+   * Runs any blocking calls as a batch, e.g. multi-step verification flows.
+   *
+   * @param calls  the calls, consumed as capacity frees up
+   * @param <T>  the type of the results
+   * @return the outcome of each call, in input order
+   * @throws RuntimeException  if reading the calls fails, after cancelling the calls already started
+   */
+  @NotNull
+  public <T> BatchResult<T> run(@NotNull final Iterator<? extends Callable<T>> calls) {
+    final Semaphore permits = new Semaphore(parallelism);
+    final List<Slot<T>> slots = new ArrayList<Slot<T>>();
+    List<BlockscoreFuture<T>> futures = new ArrayList<BlockscoreFuture<T>>();
+    long startNanos = System.nanoTime();
+
+    try {
+      while (calls.hasNext()) {
+        permits.acquire();
+        final Slot<T> slot = new Slot<T>(slots.size(), calls.next());
+        slots.add(slot);
+        BlockscoreFuture<T> future = new BlockscoreFuture<T>(slot);
+        future.addCallback(new BlockscoreCallback<T>() {
+          @Override
+          public void onSuccess(final T result) {
+            slot.complete(result, null);
+            permits.release();
+          }
+
+          @Override
+          public void onFailure(@NotNull final Throwable failure) {
+            slot.complete(null, failure);
+            permits.release();
+          }
+        });
+        futures.add(future.start(executor));
+      }
+      // Every permit is back once every item has completed.
+      permits.acquire(parallelism);
+    } catch (InterruptedException e) {
+      cancelAll(futures);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while running a batch", e);
+    } catch (RuntimeException | Error e) {
+      // The input failed, and the items already started must not outlive the batch.
+      cancelAll(futures);
+      throw e;
+    }
+
+    long elapsedNanos = System.nanoTime() - startNanos;
+    List<BatchItem<T>> items = new ArrayList<BatchItem<T>>(slots.size());
+    for (Slot<T> slot : slots) {
+      items.add(slot.item);
+    }
+    return new BatchResult<T>(items, elapsedNanos);
+  }
+
+  private static <T> void cancelAll(@NotNull final List<BlockscoreFuture<T>> futures) {
+    for (BlockscoreFuture<T> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Turns model builders into calls creating the models, one at a time as they are consumed.
+   */
+  private abstract static class CreateCalls<B, T> implements Iterator<Callable<T>> {
+    private final Iterator<B> builders;
+
+    CreateCalls(@NotNull final Iterator<B> builders) {
+      this.builders = builders;
+    }
+
+    abstract T create(@NotNull B builder);
+
+    @Override
+    public boolean hasNext() {
+      return builders.hasNext();
+    }
+
+    @Override
+    public Callable<T> next() {
+      final B builder = builders.next();
+      return new Callable<T>() {
+        @Override
+        public T call() {
+          return create(builder);
+        }
+      };
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * One item of a batch, timing its call and holding its outcome once complete.
+   */
+  private static final class Slot<T> implements Callable<T> {
+    private final int index;
+    private final Callable<T> call;
+    private long startNanos;
+    private BatchItem<T> item;
+
+    Slot(final int index, @NotNull final Callable<T> call) {
+      this.index = index;
+      this.call = call;
+    }
+
+    @Override
+    public T call() throws Exception {
+      startNanos = System.nanoTime();
+      return call.call();
+    }
+
+    void complete(final T result, final Throwable failure) {
+      // A call that never started (e.g. rejected by the executor) took no time.
+      long latencyNanos = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+      // Published to the batch thread by the permit released afterwards.
+      item = new BatchItem<T>(index, result, failure, latencyNanos);
+    }
+  }
+
+  /**
+   * The builder used for constructing a {@link BatchVerifier}.
+   */
+  public static class Builder {
+    private static final int DEFAULT_PARALLELISM = 8;
+
+    private int parallelism = DEFAULT_PARALLELISM;
+    private Executor executor = BlockscoreExecutors.DEFAULT_EXECUTOR;
+
+    /**
+     * Sets the maximum number of items in flight at once. Defaults to 8.
+     *
+     * @param parallelism  the maximum number of concurrent items
+     * @return this
+     */
+    @NotNull
+    public Builder setParallelism(final int parallelism) {
+      if (parallelism < 1) {
+        throw new IllegalArgumentException("parallelism < 1");
+      }
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * Sets the executor items run on. Defaults to a shared pool of daemon threads.
+     *
+     * @param executor  the executor
+     * @return this
+     * @see BlockscoreExecutors#newVirtualThreadPerTaskExecutor()
+     */
+    @NotNull
+    public Builder setExecutor(@NotNull final Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Creates a new {@link BatchVerifier}.
+     *
+     * @return the new batch verifier
+     */
+    @NotNull
+    public BatchVerifier build() {
+      return new BatchVerifier(this);
+    }
+  }
+}
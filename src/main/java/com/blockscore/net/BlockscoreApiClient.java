@@ -3,6 +3,7 @@ package com.blockscore.net;
 import com.blockscore.common.Constants;
 import com.blockscore.models.Candidate;
 import com.blockscore.models.Company;
+import com.blockscore.models.PageRequest;
 import com.blockscore.models.PaginatedResult;
 import com.blockscore.models.Person;
 
@@ -10,12 +11,13 @@ import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.squareup.okhttp.Headers;
 import org.jetbrains.annotations.NotNull;
-import retrofit.RequestInterceptor;
+import org.reactivestreams.Publisher;
 import retrofit.RestAdapter;
-import retrofit.converter.JacksonConverter;
 
 import java.io.UnsupportedEncodingException;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.DatatypeConverter;
 
@@ -24,9 +26,10 @@ import javax.xml.bind.DatatypeConverter;
  */
 public class BlockscoreApiClient {
   private static RestAdapter.LogLevel logLevel = RestAdapter.LogLevel.NONE;
-  private String apiKey;
 
   private final BlockscoreRestAdapter restAdapter;
+  private final ClientConfig config;
+  private final String[] staticHeaders;
 
   /**
    * Turns on/off logging. Must be set before creating API client to take effect.
@@ -47,16 +50,63 @@ public class BlockscoreApiClient {
    * @param apiKey  the valid Blockscore API key
    */
   public BlockscoreApiClient(@NotNull final String apiKey) {
-    this.apiKey = apiKey + ":";
+    this(apiKey, ClientConfig.getDefault());
+  }
+
+  /**
+   * Creates a BlockscoreApiClient using the given transport configuration. API clients built
+   * with the same config share its connection pool.
+   *
+   * @param apiKey  the valid Blockscore API key
+   * @param config  the transport configuration
+   */
+  public BlockscoreApiClient(@NotNull final String apiKey, @NotNull final ClientConfig config) {
+    this.config = config;
+    this.staticHeaders = getStaticHeaders(apiKey);
 
-    RestAdapter.Builder restBuilder = new RestAdapter.Builder().setClient(new BlockscoreHttpClient())
-                                                               .setEndpoint(Constants.BLOCKSCORE_DOMAIN);
-    restBuilder.setConverter(getDefaultConverter());
-    restBuilder.setRequestInterceptor(getDefaultRequestInterceptor());
+    RestAdapter.Builder restBuilder = new RestAdapter.Builder().setClient(new BlockscoreHttpClient(config))
+                                                               .setEndpoint(config.getEndpoint());
+    ObjectMapper mapper = getDefaultMapper();
+    restBuilder.setConverter(new BlockscoreJacksonConverter(mapper));
+    restBuilder.setRequestInterceptor(new RequestInterceptorChain(staticHeaders, config.getRequestInterceptors(),
+                                                                  config.getIdempotencyKeyHeader()));
     restBuilder.setErrorHandler(new BlockscoreErrorHandler());
     restBuilder.setLogLevel(logLevel);
 
-    restAdapter = restBuilder.build().create(BlockscoreRestAdapter.class);
+    BlockscoreRestAdapter target = restBuilder.build().create(BlockscoreRestAdapter.class);
+    if (config.getRequestEncoding() == RequestEncoding.QUERY_PARAMETERS) {
+      target = QueryParameterAdapter.wrap(target, mapper);
+    }
+    restAdapter = InterceptingAdapter.wrap(target, config.getInvocationInterceptors());
+  }
+
+  /**
+   * Resolves the API host and opens pooled connections to it ahead of time, so the first calls do not
+   * pay for DNS, TCP and TLS setup. Blocks until the connections are established. If the config has a
+   * health check interval, the connections are kept alive in the background afterwards.
+   *
+   * <p>
+   * The connections are opened in the config's pool and in the pool of each bulkhead, up to the
+   * bulkhead's size. They are shared by every client using the same {@link ClientConfig}, and at
+   * most the config's max idle connections are kept in its pool. The host's addresses are left in
+   * the JVM's DNS cache, for as long as its {@code networkaddress.cache.ttl} allows.
+   *
+   * @param connections  the number of connections to open in each pool
+   * @return the number of distinct connections established, e.g. 1 per pool with HTTP/2
+   */
+  public int warmUp(final int connections) {
+    return config.getConnectionWarmer().warmUp(connections, Headers.of(staticHeaders));
+  }
+
+  /**
+   * Same as {@link #warmUp(int)}, but opens the connections in the background.
+   *
+   * @param connections  the number of connections to open in each pool
+   * @return a future holding the number of distinct connections established
+   */
+  @NotNull
+  public Future<Integer> warmUpAsync(final int connections) {
+    return config.getConnectionWarmer().warmUpAsync(connections, Headers.of(staticHeaders));
   }
 
   /**
@@ -91,6 +141,58 @@ public class BlockscoreApiClient {
     return result;
   }
 
+  /**
+   * Lists one page of the people you have verified, newest first.
+   *
+   * @param page  the page to fetch
+   * @return the page of people, not null
+   */
+  @NotNull
+  public PaginatedResult<Person> listPeople(@NotNull final PageRequest page) {
+    PaginatedResult<Person> result = restAdapter.listPeople(page.getCount(), page.getOffset());
+
+    for (Person person : result.getData()) {
+      person.setAdapter(restAdapter);
+    }
+
+    return result;
+  }
+
+  /**
+   * Iterates over every person you have verified, newest first. Pages are fetched as the
+   * iteration reaches them, and only the current page is held in memory unless
+   * {@link PagingIterable#withPrefetch(int, long)} is used.
+   *
+   * @return the lazy iterable of people, not null
+   */
+  @NotNull
+  public PagingIterable<Person> iteratePeople() {
+    return new PagingIterable<Person>(peopleFetcher());
+  }
+
+  /**
+   * Scans every person you have verified, fetching up to {@code parallelism} pages at once. Items are
+   * delivered newest first, or as their pages arrive once {@link PartitionedListing#unordered()}
+   * is used.
+   *
+   * @param parallelism  the maximum number of pages to fetch at once
+   * @return the concurrent scan of people, not null
+   */
+  @NotNull
+  public PartitionedListing<Person> scanPeople(final int parallelism) {
+    return new PartitionedListing<Person>(peopleFetcher(), parallelism);
+  }
+
+  /**
+   * Publishes every person you have verified, fetching pages as the subscriber requests them.
+   *
+   * @return the publisher of people, not null
+   */
+  @NotNull
+  public Publisher<Person> publishPeople() {
+    return new ListingPublisher<Person>(peopleFetcher());
+  }
+
   /**
    * Gets a single company exactly as it was when you created it.
    * This route is useful for auditing purposes as you can provide proof that a company verification took place
@@ -115,6 +217,52 @@ public class BlockscoreApiClient {
     return restAdapter.listCompanies();
   }
 
+  /**
+   * Lists one page of the companies you have verified, newest first.
+   *
+   * @param page  the page to fetch
+   * @return the page of companies, not null
+   */
+  @NotNull
+  public PaginatedResult<Company> listCompanies(@NotNull final PageRequest page) {
+    return restAdapter.listCompanies(page.getCount(), page.getOffset());
+  }
+
+  /**
+   * Iterates over every company you have verified, newest first. Pages are fetched as the
+   * iteration reaches them, and only the current page is held in memory unless
+   * {@link PagingIterable#withPrefetch(int, long)} is used.
+   *
+   * @return the lazy iterable of companies, not null
+   */
+  @NotNull
+  public PagingIterable<Company> iterateCompanies() {
+    return new PagingIterable<Company>(companiesFetcher());
+  }
+
+  /**
+   * Scans every company you have verified, fetching up to {@code parallelism} pages at once. Items are
+   * delivered newest first, or as their pages arrive once {@link PartitionedListing#unordered()}
+   * is used.
+   *
+   * @param parallelism  the maximum number of pages to fetch at once
+   * @return the concurrent scan of companies, not null
+   */
+  @NotNull
+  public PartitionedListing<Company> scanCompanies(final int parallelism) {
+    return new PartitionedListing<Company>(companiesFetcher(), parallelism);
+  }
+
+  /**
+   * Publishes every company you have verified, fetching pages as the subscriber requests them.
+   *
+   * @return the publisher of companies, not null
+   */
+  @NotNull
+  public Publisher<Company> publishCompanies() {
+    return new ListingPublisher<Company>(companiesFetcher());
+  }
+
   /**
    * Retrieves a candidate.
    *
@@ -145,40 +293,119 @@ public class BlockscoreApiClient {
     return result;
   }
 
+  /**
+   * Lists one page of the candidates you have created, newest first.
+   *
+   * @param page  the page to fetch
+   * @return the page of candidates, not null
+   */
+  @NotNull
+  public PaginatedResult<Candidate> listCandidates(@NotNull final PageRequest page) {
+    PaginatedResult<Candidate> result = restAdapter.listCandidates(page.getCount(), page.getOffset());
+
+    for (Candidate candidate : result.getData()) {
+      candidate.setAdapter(restAdapter);
+    }
+
+    return result;
+  }
+
+  /**
+   * Iterates over every candidate you have created, newest first. Pages are fetched as the
+   * iteration reaches them, and only the current page is held in memory unless
+   * {@link PagingIterable#withPrefetch(int, long)} is used.
+   *
+   * @return the lazy iterable of candidates, not null
+   */
+  @NotNull
+  public PagingIterable<Candidate> iterateCandidates() {
+    return new PagingIterable<Candidate>(candidatesFetcher());
+  }
+
+  /**
+   * Scans every candidate you have created, fetching up to {@code parallelism} pages at once. Items are
+   * delivered newest first, or as their pages arrive once {@link PartitionedListing#unordered()}
+   * is used.
+   *
+   * @param parallelism  the maximum number of pages to fetch at once
+   * @return the concurrent scan of candidates, not null
+   */
+  @NotNull
+  public PartitionedListing<Candidate> scanCandidates(final int parallelism) {
+    return new PartitionedListing<Candidate>(candidatesFetcher(), parallelism);
+  }
+
+  /**
+   * Publishes every candidate you have created, fetching pages as the subscriber requests them.
+   *
+   * @return the publisher of candidates, not null
+   */
+  @NotNull
+  public Publisher<Candidate> publishCandidates() {
+    return new ListingPublisher<Candidate>(candidatesFetcher());
+  }
+
+  private PageFetcher<Person> peopleFetcher() {
+    return new PageFetcher<Person>() {
+      @Override
+      public PaginatedResult<Person> fetchPage(final int count, final int offset) {
+        return listPeople(new PageRequest(count, offset));
+      }
+    };
+  }
+
+  private PageFetcher<Company> companiesFetcher() {
+    return new PageFetcher<Company>() {
+      @Override
+      public PaginatedResult<Company> fetchPage(final int count, final int offset) {
+        return listCompanies(new PageRequest(count, offset));
+      }
+    };
+  }
+
+  private PageFetcher<Candidate> candidatesFetcher() {
+    return new PageFetcher<Candidate>() {
+      @Override
+      public PaginatedResult<Candidate> fetchPage(final int count, final int offset) {
+        return listCandidates(new PageRequest(count, offset));
+      }
+    };
+  }
+
   /**
    * Encodes the API key for Basic authentication.
    *
+   * @param apiKey  the API key
    * @return the API key with Base 64 encoding
    */
   @NotNull
-  private String getEncodedAuthorization() {
+  private static String getEncodedAuthorization(@NotNull final String apiKey) {
     try {
-      return "Basic " + DatatypeConverter.printBase64Binary(apiKey.getBytes("UTF-8"));
+      return "Basic " + DatatypeConverter.printBase64Binary((apiKey + ":").getBytes("UTF-8"));
     } catch (UnsupportedEncodingException e) {
       throw new RuntimeException(e);
     }
   }
 
-  private JacksonConverter getDefaultConverter() {
+  private static ObjectMapper getDefaultMapper() {
     ObjectMapper mapper = new ObjectMapper();
     mapper.setVisibilityChecker(mapper.getSerializationConfig()
                                         .getDefaultVisibilityChecker()
                                         .withFieldVisibility(JsonAutoDetect.Visibility.ANY)
                                         .withGetterVisibility(JsonAutoDetect.Visibility.NONE)
+                                        .withIsGetterVisibility(JsonAutoDetect.Visibility.NONE)
                                         .withSetterVisibility(JsonAutoDetect.Visibility.NONE)
                                         .withCreatorVisibility(JsonAutoDetect.Visibility.NONE));
     mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     mapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
-    return new JacksonConverter(mapper);
+    return mapper;
   }
 
-  private RequestInterceptor getDefaultRequestInterceptor() {
-    return new RequestInterceptor() {
-      @Override
-      public void intercept(RequestFacade request) {
-        request.addHeader(Constants.AUTHORIZATION_HEADER, getEncodedAuthorization());
-        request.addHeader(Constants.ACCEPT_HEADER, Constants.getAcceptHeaders());
-      }
+  private static String[] getStaticHeaders(@NotNull final String apiKey) {
+    return new String[] {
+      Constants.AUTHORIZATION_HEADER, getEncodedAuthorization(apiKey),
+      Constants.ACCEPT_HEADER, Constants.getAcceptHeaders(),
+      Constants.USER_AGENT_HEADER, Constants.USER_AGENT
     };
   }
 
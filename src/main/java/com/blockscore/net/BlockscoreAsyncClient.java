@@ -0,0 +1,438 @@
+package com.blockscore.net;
+
+import com.blockscore.models.AnswerSet;
+import com.blockscore.models.Candidate;
+import com.blockscore.models.Company;
+import com.blockscore.models.EntityType;
+import com.blockscore.models.PageRequest;
+import com.blockscore.models.PaginatedResult;
+import com.blockscore.models.Person;
+import com.blockscore.models.QuestionSet;
+import com.blockscore.models.WatchlistHit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * The non-blocking counterpart of {@link BlockscoreApiClient}.
+ *
+ * <p>
+ * Every method returns straight away with a {@link BlockscoreFuture}, and the call runs on the
+ * client's executor through the same transport, limits and retries as a blocking call. Cancelling
+ * the future cancels the HTTP call in flight.
+ */
+public class BlockscoreAsyncClient {
+  private final BlockscoreApiClient client;
+  private final Executor executor;
+
+  /**
+   * Creates a BlockscoreAsyncClient running calls on a shared pool of daemon threads.
+   *
+   * @param apiKey  the valid Blockscore API key
+   */
+  public BlockscoreAsyncClient(@NotNull final String apiKey) {
+    this(new BlockscoreApiClient(apiKey), BlockscoreExecutors.DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * Creates a BlockscoreAsyncClient using the given transport configuration, running calls on a
+   * shared pool of daemon threads.
+   *
+   * @param apiKey  the valid Blockscore API key
+   * @param config  the transport configuration
+   */
+  public BlockscoreAsyncClient(@NotNull final String apiKey, @NotNull final ClientConfig config) {
+    this(new BlockscoreApiClient(apiKey, config), BlockscoreExecutors.DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * Creates a BlockscoreAsyncClient making its calls through the given client.
+   *
+   * @param client  the blocking client to make calls with
+   * @param executor  the executor the calls run on
+   * @see BlockscoreExecutors#newVirtualThreadPerTaskExecutor()
+   */
+  public BlockscoreAsyncClient(@NotNull final BlockscoreApiClient client, @NotNull final Executor executor) {
+    this.client = client;
+    this.executor = executor;
+  }
+
+  /**
+   * Gets the blocking client the calls are made with, e.g. to create model builders.
+   *
+   * @return the blocking client
+   */
+  @NotNull
+  public BlockscoreApiClient getClient() {
+    return client;
+  }
+
+  /**
+   * Runs any blocking call, e.g. a sequence of model actions, on the client's executor.
+   *
+   * @param call  the blocking call
+   * @param <T>  the type of the result
+   * @return the pending result
+   */
+  @NotNull
+  public <T> BlockscoreFuture<T> submit(@NotNull final Callable<T> call) {
+    return new BlockscoreFuture<T>(call).start(executor);
+  }
+
+  /**
+   * Asynchronously gets a single person.
+   *
+   * @param id  ID of Person.
+   * @return the pending person
+   * @see BlockscoreApiClient#retrievePerson(String)
+   */
+  @NotNull
+  public BlockscoreFuture<Person> retrievePerson(@NotNull final String id) {
+    return submit(new Callable<Person>() {
+      @Override
+      public Person call() {
+        return client.retrievePerson(id);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously lists the people you have verified.
+   *
+   * @return the pending listing
+   * @see BlockscoreApiClient#listPeople()
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<Person>> listPeople() {
+    return submit(new Callable<PaginatedResult<Person>>() {
+      @Override
+      public PaginatedResult<Person> call() {
+        return client.listPeople();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously lists one page of the people you have verified.
+   *
+   * @param page  the page to fetch
+   * @return the pending page
+   * @see BlockscoreApiClient#listPeople(PageRequest)
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<Person>> listPeople(@NotNull final PageRequest page) {
+    return submit(new Callable<PaginatedResult<Person>>() {
+      @Override
+      public PaginatedResult<Person> call() {
+        return client.listPeople(page);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously gets a single company.
+   *
+   * @param id  ID of the Company.
+   * @return the pending company
+   * @see BlockscoreApiClient#retrieveCompany(String)
+   */
+  @NotNull
+  public BlockscoreFuture<Company> retrieveCompany(@NotNull final String id) {
+    return submit(new Callable<Company>() {
+      @Override
+      public Company call() {
+        return client.retrieveCompany(id);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously lists the companies you have verified.
+   *
+   * @return the pending listing
+   * @see BlockscoreApiClient#listCompanies()
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<Company>> listCompanies() {
+    return submit(new Callable<PaginatedResult<Company>>() {
+      @Override
+      public PaginatedResult<Company> call() {
+        return client.listCompanies();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously lists one page of the companies you have verified.
+   *
+   * @param page  the page to fetch
+   * @return the pending page
+   * @see BlockscoreApiClient#listCompanies(PageRequest)
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<Company>> listCompanies(@NotNull final PageRequest page) {
+    return submit(new Callable<PaginatedResult<Company>>() {
+      @Override
+      public PaginatedResult<Company> call() {
+        return client.listCompanies(page);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously gets a single candidate.
+   *
+   * @param id  ID of the candidate.
+   * @return the pending candidate
+   * @see BlockscoreApiClient#retrieveCandidate(String)
+   */
+  @NotNull
+  public BlockscoreFuture<Candidate> retrieveCandidate(@NotNull final String id) {
+    return submit(new Callable<Candidate>() {
+      @Override
+      public Candidate call() {
+        return client.retrieveCandidate(id);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously lists the candidates you have created.
+   *
+   * @return the pending listing
+   * @see BlockscoreApiClient#listCandidates()
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<Candidate>> listCandidates() {
+    return submit(new Callable<PaginatedResult<Candidate>>() {
+      @Override
+      public PaginatedResult<Candidate> call() {
+        return client.listCandidates();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously lists one page of the candidates you have created.
+   *
+   * @param page  the page to fetch
+   * @return the pending page
+   * @see BlockscoreApiClient#listCandidates(PageRequest)
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<Candidate>> listCandidates(@NotNull final PageRequest page) {
+    return submit(new Callable<PaginatedResult<Candidate>>() {
+      @Override
+      public PaginatedResult<Candidate> call() {
+        return client.listCandidates(page);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously creates the person described by a builder.
+   *
+   * @param builder  the person builder, which must not be changed until the call completes
+   * @return the pending person
+   * @see Person.Builder#create()
+   */
+  @NotNull
+  public BlockscoreFuture<Person> create(@NotNull final Person.Builder builder) {
+    return submit(new Callable<Person>() {
+      @Override
+      public Person call() {
+        return builder.create();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously creates the company described by a builder.
+   *
+   * @param builder  the company builder, which must not be changed until the call completes
+   * @return the pending company
+   * @see Company.Builder#create()
+   */
+  @NotNull
+  public BlockscoreFuture<Company> create(@NotNull final Company.Builder builder) {
+    return submit(new Callable<Company>() {
+      @Override
+      public Company call() {
+        return builder.create();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously creates the candidate described by a builder.
+   *
+   * @param builder  the candidate builder, which must not be changed until the call completes
+   * @return the pending candidate
+   * @see Candidate.Builder#create()
+   */
+  @NotNull
+  public BlockscoreFuture<Candidate> create(@NotNull final Candidate.Builder builder) {
+    return submit(new Callable<Candidate>() {
+      @Override
+      public Candidate call() {
+        return builder.create();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously saves the changes made to a candidate.
+   *
+   * @param candidate  the candidate, which must not be changed until the call completes
+   * @return the pending candidate
+   * @see Candidate#save()
+   */
+  @NotNull
+  public BlockscoreFuture<Candidate> save(@NotNull final Candidate candidate) {
+    return submit(new Callable<Candidate>() {
+      @Override
+      public Candidate call() {
+        return candidate.save();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously deletes a candidate.
+   *
+   * @param candidate  the candidate
+   * @return the pending deletion, holding the deleted candidate
+   * @see Candidate#delete()
+   */
+  @NotNull
+  public BlockscoreFuture<Candidate> delete(@NotNull final Candidate candidate) {
+    return submit(new Callable<Candidate>() {
+      @Override
+      public Candidate call() {
+        candidate.delete();
+        return candidate;
+      }
+    });
+  }
+
+  /**
+   * Asynchronously gets the revision history of a candidate.
+   *
+   * @param candidate  the candidate
+   * @return the pending revision history
+   * @see Candidate#getRevisionHistory()
+   */
+  @NotNull
+  public BlockscoreFuture<List<Candidate>> getRevisionHistory(@NotNull final Candidate candidate) {
+    return submit(new Callable<List<Candidate>>() {
+      @Override
+      public List<Candidate> call() {
+        return candidate.getRevisionHistory();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously gets the past watchlist hits of a candidate.
+   *
+   * @param candidate  the candidate
+   * @return the pending hits
+   * @see Candidate#getPastHits()
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<WatchlistHit>> getPastHits(@NotNull final Candidate candidate) {
+    return submit(new Callable<PaginatedResult<WatchlistHit>>() {
+      @Override
+      public PaginatedResult<WatchlistHit> call() {
+        return candidate.getPastHits();
+      }
+    });
+  }
+
+  /**
+   * Asynchronously performs a watchlist search for a candidate with default search options.
+   *
+   * @param candidate  the candidate
+   * @return the pending watchlist hits
+   * @see Candidate#searchWatchlists()
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<WatchlistHit>> searchWatchlists(@NotNull final Candidate candidate) {
+    return searchWatchlists(candidate, null, null);
+  }
+
+  /**
+   * Asynchronously performs a watchlist search for a candidate.
+   *
+   * @param candidate  the candidate
+   * @param entityType  the type of entity, or null for any
+   * @param similarityThreshold  the accepted threshold of similarity, or null for the default
+   * @return the pending watchlist hits
+   * @see Candidate#searchWatchlists(EntityType, Double)
+   */
+  @NotNull
+  public BlockscoreFuture<PaginatedResult<WatchlistHit>> searchWatchlists(@NotNull final Candidate candidate,
+                                                                          @Nullable final EntityType entityType,
+                                                                          @Nullable final Double similarityThreshold) {
+    return submit(new Callable<PaginatedResult<WatchlistHit>>() {
+      @Override
+      public PaginatedResult<WatchlistHit> call() {
+        return candidate.searchWatchlists(entityType, similarityThreshold);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously creates a question set with no time limit for a person.
+   *
+   * @param person  the person
+   * @return the pending question set
+   * @see Person#createQuestionSet()
+   */
+  @NotNull
+  public BlockscoreFuture<QuestionSet> createQuestionSet(@NotNull final Person person) {
+    return createQuestionSet(person, 0L);
+  }
+
+  /**
+   * Asynchronously creates a question set with a time limit for a person.
+   *
+   * @param person  the person
+   * @param timeLimit  the time limit in seconds
+   * @return the pending question set
+   * @see Person#createQuestionSet(long)
+   */
+  @NotNull
+  public BlockscoreFuture<QuestionSet> createQuestionSet(@NotNull final Person person, final long timeLimit) {
+    return submit(new Callable<QuestionSet>() {
+      @Override
+      public QuestionSet call() {
+        return person.createQuestionSet(timeLimit);
+      }
+    });
+  }
+
+  /**
+   * Asynchronously scores a question set.
+   *
+   * @param questionSet  the question set, which holds the score once the call completes
+   * @param answers  the answers to the question set
+   * @return the pending scored question set
+   * @see QuestionSet#score(AnswerSet)
+   */
+  @NotNull
+  public BlockscoreFuture<QuestionSet> score(@NotNull final QuestionSet questionSet,
+                                             @NotNull final AnswerSet answers) {
+    return submit(new Callable<QuestionSet>() {
+      @Override
+      public QuestionSet call() {
+        questionSet.score(answers);
+        return questionSet;
+      }
+    });
+  }
+}
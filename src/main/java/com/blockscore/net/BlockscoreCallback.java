@@ -0,0 +1,25 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the outcome of a {@link BlockscoreFuture}.
+ *
+ * @param <T>  the type of the result
+ */
+public interface BlockscoreCallback<T> {
+  /**
+   * Called once the call has completed successfully.
+   *
+   * @param result  the result of the call
+   */
+  void onSuccess(T result);
+
+  /**
+   * Called once the call has failed or was cancelled.
+   *
+   * @param failure  the exception the call failed with, or a
+   *                 {@link java.util.concurrent.CancellationException} if it was cancelled
+   */
+  void onFailure(@NotNull Throwable failure);
+}
@@ -2,31 +2,47 @@ package com.blockscore.net;
 
 import com.blockscore.exceptions.ApiException;
 import com.blockscore.exceptions.InvalidRequestException;
+import com.blockscore.exceptions.RateLimitExceededException;
 import com.blockscore.models.error.BlockscoreError;
 import com.blockscore.models.error.BlockscoreErrorType;
 import com.blockscore.models.error.RequestError;
 
 import retrofit.ErrorHandler;
 import retrofit.RetrofitError;
+import retrofit.client.Response;
 
 class BlockscoreErrorHandler implements ErrorHandler {
   @Override
   public Throwable handleError(RetrofitError cause) {
-    Object rawError = cause.getBodyAs(BlockscoreError.class);
-    
+    Response response = cause.getResponse();
+    if (response != null && response.getStatus() == RateLimitHeaders.TOO_MANY_REQUESTS) {
+      String retryAfter = RateLimitHeaders.getHeader(response, RateLimitHeaders.RETRY_AFTER);
+      long retryAfterMillis = RateLimitHeaders.parseRetryAfter(retryAfter, System.currentTimeMillis());
+      return new RateLimitExceededException("Rate limit exceeded", retryAfterMillis).initCause(cause);
+    }
+
+    Object rawError;
+    try {
+      rawError = cause.getBodyAs(BlockscoreError.class);
+    } catch (RuntimeException e) {
+      // Not a Blockscore error body, e.g. an HTML page from a proxy in front of the API.
+      return cause;
+    }
+
+    // The API exceptions keep the Retrofit error as their cause, so the HTTP status stays available.
     if (rawError instanceof BlockscoreError) {
       BlockscoreError error = (BlockscoreError) rawError;
       RequestError requestError = error.getError();
 
       if (requestError.getErrorType() == BlockscoreErrorType.INVALID) {
-        return new InvalidRequestException(error);
+        return new InvalidRequestException(error).initCause(cause);
       } else if (requestError.getErrorType() == BlockscoreErrorType.API) {
-        return new ApiException(error);
+        return new ApiException(error).initCause(cause);
       } else {
         //Theoretically, this should never happen, unless the API has changed to break something.
         String msg = String.format("An unknown error has occurred. Please contact support. Error type: %s",
                        requestError.getErrorType().toString());
-        return new RuntimeException(msg);
+        return new RuntimeException(msg, cause);
       }
     }
     return cause;
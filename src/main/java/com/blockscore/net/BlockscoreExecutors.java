@@ -0,0 +1,86 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executors for {@link BlockscoreAsyncClient}, {@link ListingPublisher} and {@link CallScope}.
+ *
+ * <p>
+ * The library keeps its Java 7 baseline, so virtual threads are looked up at runtime. The library's
+ * own code never waits while holding a monitor: permits, rate limit slots and hedged responses are
+ * waited for with {@code java.util.concurrent} semaphores, locks and latches, so its calls do not
+ * pin virtual threads to their carriers. Blocking inside the HTTP client itself is outside of its
+ * control: OkHttp waits for HTTP/2 streams on monitors, so virtual threads are not supported with
+ * {@link ClientConfig.Builder#setHttp2Enabled(boolean) HTTP/2}.
+ */
+public final class BlockscoreExecutors {
+  /**
+   * The shared pool of daemon threads that asynchronous calls, listings and batches run on unless
+   * they are given an executor.
+   */
+  static final ExecutorService DEFAULT_EXECUTOR = newDaemonThreadPool();
+
+  private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+  private BlockscoreExecutors() {
+    // not instantiable
+  }
+
+  /**
+   * Whether or not the running JVM supports virtual threads (Java 21 and later).
+   *
+   * @return true if virtual threads are supported
+   */
+  public static boolean isVirtualThreadSupported() {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each task.
+   *
+   * @return the executor
+   * @throws UnsupportedOperationException if the running JVM has no virtual threads
+   */
+  @NotNull
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+      throw new UnsupportedOperationException("Virtual threads require Java 21 or later");
+    }
+    try {
+      return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new UnsupportedOperationException("Could not create a virtual thread executor", e);
+    }
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each task when the running JVM supports
+   * them, or a cached pool of daemon threads otherwise.
+   *
+   * @return the executor
+   */
+  @NotNull
+  public static ExecutorService newThreadPerTaskExecutor() {
+    if (isVirtualThreadSupported()) {
+      return newVirtualThreadPerTaskExecutor();
+    }
+    return newDaemonThreadPool();
+  }
+
+  private static ExecutorService newDaemonThreadPool() {
+    return Executors.newCachedThreadPool(new DaemonThreadFactory("blockscore-async"));
+  }
+
+  private static Method findVirtualThreadFactoryMethod() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The pending result of an API call made through {@link BlockscoreAsyncClient}.
+ *
+ * <p>
+ * The call runs with the {@link Deadline} of the thread that started it. Cancelling the future
+ * cancels the HTTP call in flight, and any request the call would still have sent is cancelled
+ * before it goes out.
+ *
+ * @param <T>  the type of the result
+ */
+public final class BlockscoreFuture<T> implements Future<T> {
+  private static final Logger LOGGER = Logger.getLogger(BlockscoreFuture.class.getName());
+
+  private final CallContext context = new CallContext();
+  private final Queue<BlockscoreCallback<? super T>> callbacks =
+      new ConcurrentLinkedQueue<BlockscoreCallback<? super T>>();
+  private final Task task;
+
+  BlockscoreFuture(@NotNull final Callable<T> callable) {
+    this.task = new Task(callable, Deadline.current());
+  }
+
+  /**
+   * Starts the call on the given executor.
+   *
+   * @param executor  the executor to run the call on
+   * @return this
+   */
+  @NotNull
+  BlockscoreFuture<T> start(@NotNull final Executor executor) {
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      task.fail(e);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a callback to run once the call completes. Callbacks run on the thread that completes the
+   * call, or straight away on the current thread if the call has already completed. Exceptions
+   * thrown by a callback are logged and do not reach the thread running it.
+   *
+   * @param callback  the callback
+   * @return this
+   */
+  @NotNull
+  public BlockscoreFuture<T> addCallback(@NotNull final BlockscoreCallback<? super T> callback) {
+    callbacks.add(callback);
+    if (task.isDone()) {
+      runCallbacks();
+    }
+    return this;
+  }
+
+  @Override
+  public boolean cancel(final boolean mayInterruptIfRunning) {
+    if (!task.cancel(mayInterruptIfRunning)) {
+      return false;
+    }
+    context.cancel();
+    return true;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return task.isCancelled();
+  }
+
+  @Override
+  public boolean isDone() {
+    return task.isDone();
+  }
+
+  @Override
+  public T get() throws InterruptedException, ExecutionException {
+    return task.get();
+  }
+
+  @Override
+  public T get(final long timeout, @NotNull final TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return task.get(timeout, unit);
+  }
+
+  private void runCallbacks() {
+    T result = null;
+    Throwable failure = null;
+    try {
+      result = task.get();
+    } catch (ExecutionException e) {
+      failure = e.getCause();
+    } catch (CancellationException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      // Unreachable, the task has completed.
+      Thread.currentThread().interrupt();
+      failure = e;
+    }
+
+    // Polling hands each callback to exactly one of the threads running callbacks.
+    BlockscoreCallback<? super T> callback;
+    while ((callback = callbacks.poll()) != null) {
+      try {
+        if (failure == null) {
+          callback.onSuccess(result);
+        } else {
+          callback.onFailure(failure);
+        }
+      } catch (RuntimeException e) {
+        // One failing callback must not keep the others from running, nor break the executor's thread.
+        LOGGER.log(Level.WARNING, "Callback of an API call threw an exception", e);
+      }
+    }
+  }
+
+  /**
+   * Runs the call with the future's context and the caller's deadline attached.
+   */
+  private final class Task extends FutureTask<T> {
+    @Nullable
+    private final Deadline deadline;
+
+    Task(@NotNull final Callable<T> callable, @Nullable final Deadline deadline) {
+      super(callable);
+      this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+      Deadline.Scope scope = deadline == null ? null : deadline.attach();
+      CallContext previous = CallContext.attach(context);
+      try {
+        super.run();
+      } finally {
+        CallContext.attach(previous);
+        if (scope != null) {
+          scope.close();
+        }
+      }
+    }
+
+    void fail(@NotNull final Throwable failure) {
+      setException(failure);
+    }
+
+    @Override
+    protected void done() {
+      runCallbacks();
+    }
+  }
+}
@@ -1,42 +1,242 @@
 package com.blockscore.net;
 
-import com.blockscore.common.Constants;
-import com.blockscore.net.UserAgentInterceptor;
-
-import com.squareup.okhttp.OkHttpClient;
-import com.squareup.okhttp.OkUrlFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import retrofit.client.Client;
 import retrofit.client.Request;
-import retrofit.client.UrlConnectionClient;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Retrofit client that sends requests through the config's {@link Transport}.
+ *
+ * <p>
+ * When the calling thread carries a {@link CallContext} with a timeout, the exchange is given that
+ * timeout and is cancelled if the response body has not been read and closed in time. Cancelling
+ * the context cancels the exchange in flight.
+ */
+class BlockscoreHttpClient implements Client {
+  private static final ScheduledThreadPoolExecutor WATCHDOG = createWatchdog();
 
-class BlockscoreHttpClient extends UrlConnectionClient {
-  private static final int CONNECT_TIMEOUT_MILLIS = 30 * 1000;
-  private static final int READ_TIMEOUT_MILLIS = 30 * 1000;
+  private final ClientConfig config;
+  private final Transport transport;
+  private final Semaphore callPermits;
 
-  private final OkUrlFactory okUrlFactory;
+  @Nullable
+  private final RateLimiter rateLimiter;
 
-  public BlockscoreHttpClient() {
-    okUrlFactory = new OkUrlFactory(generateDefaultHttpClient());
+  public BlockscoreHttpClient(ClientConfig config) {
+    this.config = config;
+    this.transport = config.getTransport();
+    this.callPermits = config.getCallPermits();
+    this.rateLimiter = config.getRateLimiter();
   }
 
-  public BlockscoreHttpClient(OkHttpClient client) {
-    okUrlFactory = new OkUrlFactory(client);
+  @Override
+  public Response execute(Request request) throws IOException {
+    CallContext context = CallContext.current();
+    long timeoutNanos = context == null ? 0 : context.getTimeoutNanos();
+    Semaphore hostPermits = config.getHostPermits(getHost(request.getUrl()));
+    if (hostPermits == null && callPermits == null) {
+      return executeCall(request, context, timeoutNanos, null, null);
+    }
+
+    // Time spent waiting for permits counts against the call's budget.
+    long startNanos = System.nanoTime();
+    acquire(hostPermits, context, timeoutNanos, "a free request slot on the host");
+    try {
+      acquire(callPermits, context, remainingNanos(timeoutNanos, startNanos), "a free call slot");
+    } catch (IOException e) {
+      if (hostPermits != null) {
+        hostPermits.release();
+      }
+      throw e;
+    }
+    return executeCall(request, context, remainingNanos(timeoutNanos, startNanos), hostPermits, callPermits);
   }
 
-  private OkHttpClient generateDefaultHttpClient() {
-    OkHttpClient client = new OkHttpClient();
-    client.setConnectTimeout(CONNECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-    client.setReadTimeout(READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-    client.networkInterceptors().add(new UserAgentInterceptor(Constants.USER_AGENT));
-    return client;
+  private static void acquire(@Nullable final Semaphore permits, @Nullable final CallContext context,
+                              final long timeoutNanos, @NotNull final String what) throws IOException {
+    if (permits == null) {
+      return;
+    }
+    try {
+      if (timeoutNanos == 0) {
+        permits.acquire();
+      } else if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+        context.markTimedOut();
+        throw new InterruptedIOException("Timed out waiting for " + what);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for " + what);
+    }
   }
 
-  @Override
-  protected HttpURLConnection openConnection(Request request) throws IOException {
-    return okUrlFactory.open(new URL(request.getUrl()));
+  private static long remainingNanos(final long timeoutNanos, final long startNanos) {
+    return timeoutNanos == 0 ? 0 : Math.max(1, timeoutNanos - (System.nanoTime() - startNanos));
+  }
+
+  /**
+   * Gets the host and port of a URL, e.g. "api.blockscore.com:443" for "https://api.blockscore.com/people".
+   */
+  @NotNull
+  private static String getHost(@NotNull final String url) {
+    int start = url.indexOf("://") + 3;
+    int end = url.indexOf('/', start);
+    return end == -1 ? url.substring(start) : url.substring(start, end);
+  }
+
+  /**
+   * Sends the request. The watchdog and the permits, if any, are held until the response body is
+   * closed, since the request stays in flight while the converter reads it.
+   */
+  private Response executeCall(final Request request, final CallContext context, final long timeoutNanos,
+                               @Nullable final Semaphore hostPermit, @Nullable final Semaphore callPermit)
+      throws IOException {
+    final Exchange exchange = new Exchange(timeoutNanos);
+    if (context != null) {
+      context.setExchange(exchange);
+      context.markExchangeStarted(System.nanoTime());
+    }
+
+    ScheduledFuture<?> watchdog = null;
+    if (timeoutNanos != 0) {
+      // The transport's socket timeouts bound each read and write; the watchdog bounds the exchange
+      // as a whole.
+      watchdog = WATCHDOG.schedule(new Runnable() {
+        @Override
+        public void run() {
+          context.markTimedOut();
+          exchange.cancel();
+        }
+      }, timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+    Runnable release = new Release(watchdog, hostPermit, callPermit);
+
+    Response response;
+    try {
+      response = transport.execute(request, exchange);
+      if (rateLimiter != null) {
+        rateLimiter.onResponse(response);
+      }
+    } catch (IOException | RuntimeException e) {
+      release.run();
+      throw e;
+    }
+    if (response.getBody() == null) {
+      release.run();
+      return response;
+    }
+    if (watchdog == null && hostPermit == null && callPermit == null) {
+      return response;
+    }
+
+    // The converter reads the body after this method returns, so the deadline bounds the download
+    // and parse as well, and the request counts against the limits until it is done with.
+    return new Response(response.getUrl(), response.getStatus(), response.getReason(), response.getHeaders(),
+                        new ClosingTypedInput(response.getBody(), release));
+  }
+
+  private static ScheduledThreadPoolExecutor createWatchdog() {
+    ScheduledThreadPoolExecutor watchdog =
+        new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("blockscore-timeout"));
+    watchdog.setRemoveOnCancelPolicy(true);
+    return watchdog;
+  }
+
+  /**
+   * Cancels the watchdog of an exchange and releases its permits, if any.
+   */
+  private static final class Release implements Runnable {
+    @Nullable
+    private final ScheduledFuture<?> watchdog;
+
+    @Nullable
+    private final Semaphore hostPermit;
+
+    @Nullable
+    private final Semaphore callPermit;
+
+    Release(@Nullable final ScheduledFuture<?> watchdog, @Nullable final Semaphore hostPermit,
+            @Nullable final Semaphore callPermit) {
+      this.watchdog = watchdog;
+      this.hostPermit = hostPermit;
+      this.callPermit = callPermit;
+    }
+
+    @Override
+    public void run() {
+      if (watchdog != null) {
+        watchdog.cancel(false);
+      }
+      if (hostPermit != null) {
+        hostPermit.release();
+      }
+      if (callPermit != null) {
+        callPermit.release();
+      }
+    }
+  }
+
+  /**
+   * Response body that runs an action once, when its stream is closed.
+   */
+  private static final class ClosingTypedInput implements TypedInput {
+    private final TypedInput body;
+    private final AtomicReference<Runnable> onClose;
+
+    ClosingTypedInput(final TypedInput body, final Runnable onClose) {
+      this.body = body;
+      this.onClose = new AtomicReference<Runnable>(onClose);
+    }
+
+    @Override
+    public String mimeType() {
+      return body.mimeType();
+    }
+
+    @Override
+    public long length() {
+      return body.length();
+    }
+
+    @Override
+    public InputStream in() throws IOException {
+      InputStream in;
+      try {
+        in = body.in();
+      } catch (IOException | RuntimeException e) {
+        close();
+        throw e;
+      }
+      return new FilterInputStream(in) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            ClosingTypedInput.this.close();
+          }
+        }
+      };
+    }
+
+    private void close() {
+      Runnable action = onClose.getAndSet(null);
+      if (action != null) {
+        action.run();
+      }
+    }
   }
 }
@@ -0,0 +1,69 @@
+package com.blockscore.net;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import retrofit.converter.ConversionException;
+import retrofit.converter.Converter;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that parses the response stream as it arrives.
+ *
+ * <p>
+ * The body's stream is handed to a {@link JsonParser} directly, so decoding overlaps with the
+ * network read and the body is never buffered in full. Closing the parser closes the body.
+ */
+class BlockscoreJacksonConverter implements Converter {
+  private static final String MIME_TYPE = "application/json; charset=UTF-8";
+
+  private final ObjectMapper mapper;
+
+  BlockscoreJacksonConverter(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  @Override
+  public Object fromBody(TypedInput body, Type type) throws ConversionException {
+    JsonParser parser = null;
+    try {
+      parser = mapper.getFactory().createParser(body.in());
+      Object value = mapper.readValue(parser, mapper.getTypeFactory().constructType(type));
+      CallContext context = CallContext.current();
+      if (context != null) {
+        // Lets callers that buffer responses, such as the prefetching paginator, bound them by size.
+        context.setResponseBytes(parser.getCurrentLocation().getByteOffset());
+      }
+      return value;
+    } catch (IOException e) {
+      throw new ConversionException(e);
+    } finally {
+      closeQuietly(parser);
+    }
+  }
+
+  @Override
+  public TypedOutput toBody(Object object) {
+    try {
+      return new TypedByteArray(MIME_TYPE, mapper.writeValueAsBytes(object));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Could not serialize " + object.getClass().getName(), e);
+    }
+  }
+
+  private static void closeQuietly(JsonParser parser) {
+    if (parser == null) {
+      return;
+    }
+    try {
+      parser.close();
+    } catch (IOException ignored) {
+      // The value has already been read or the original exception is more useful.
+    }
+  }
+}
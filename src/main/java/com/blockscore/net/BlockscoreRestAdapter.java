@@ -7,6 +7,7 @@ import com.blockscore.models.PaginatedResult;
 import com.blockscore.models.Person;
 import com.blockscore.models.QuestionSet;
 import com.blockscore.models.WatchlistHit;
+import com.blockscore.models.WatchlistSearch;
 import com.blockscore.models.WatchlistSearchResults;
 
 import org.jetbrains.annotations.NotNull;
@@ -16,6 +17,7 @@ import retrofit.http.GET;
 import retrofit.http.PATCH;
 import retrofit.http.POST;
 import retrofit.http.Path;
+import retrofit.http.Query;
 import retrofit.http.QueryMap;
 
 import java.util.List;
@@ -23,6 +25,11 @@ import java.util.Map;
 
 /**
  * The Blockscore API Retrofit REST adapter.
+ *
+ * <p>
+ * The person, question set, company and watchlist calls each come in two forms: one taking the
+ * fields as query parameters, and one taking a model sent according to the config's
+ * {@link RequestEncoding}.
  */
 public interface BlockscoreRestAdapter {
   // Person operations
@@ -30,6 +37,10 @@ public interface BlockscoreRestAdapter {
   @POST("/people")
   Person createPerson(@NotNull @QueryMap final Map<String, String> options);
 
+  @NotNull
+  @POST("/people")
+  Person createPerson(@NotNull @Body final Person person);
+
   @NotNull
   @GET("/people/{id}")
   Person retrievePerson(@NotNull @Path("id") String id);
@@ -38,10 +49,18 @@ public interface BlockscoreRestAdapter {
   @GET("/people")
   PaginatedResult<Person> listPeople();
 
+  @NotNull
+  @GET("/people")
+  PaginatedResult<Person> listPeople(@Query("count") int count, @Query("offset") int offset);
+
   @NotNull
   @POST("/question_sets")
   QuestionSet createQuestionSet(@NotNull @QueryMap final Map<String, String> options);
 
+  @NotNull
+  @POST("/question_sets")
+  QuestionSet createQuestionSet(@NotNull @Body final QuestionSet questionSet);
+
   @NotNull
   @POST("/question_sets/{id}/score")
   QuestionSet scoreQuestionSet(@Path("id") @NotNull final String questionSetId,
@@ -53,9 +72,14 @@ public interface BlockscoreRestAdapter {
 
   
   // Company operations
+  @NotNull
   @POST("/companies")
   Company createCompany(@NotNull @QueryMap final Map<String, String> options);
 
+  @NotNull
+  @POST("/companies")
+  Company createCompany(@NotNull @Body final Company company);
+
   @NotNull
   @GET("/companies/{id}")
   Company retrieveCompany(@Path("id") @NotNull final String companyId);
@@ -64,6 +88,10 @@ public interface BlockscoreRestAdapter {
   @GET("/companies")
   PaginatedResult<Company> listCompanies();
 
+  @NotNull
+  @GET("/companies")
+  PaginatedResult<Company> listCompanies(@Query("count") int count, @Query("offset") int offset);
+
 
   // Candidate operations
   @NotNull
@@ -86,6 +114,10 @@ public interface BlockscoreRestAdapter {
   @GET("/candidates")
   PaginatedResult<Candidate> listCandidates();
 
+  @NotNull
+  @GET("/candidates")
+  PaginatedResult<Candidate> listCandidates(@Query("count") int count, @Query("offset") int offset);
+
   @NotNull
   @GET("/candidates/{id}/history")
   List<Candidate> getCandidateHistory(@NotNull @Path("id") final String id);
@@ -94,7 +126,16 @@ public interface BlockscoreRestAdapter {
   @GET("/candidates/{id}/hits")
   PaginatedResult<WatchlistHit> getCandidateHits(@NotNull @Path("id") final String id);
 
+  @NotNull
+  @GET("/candidates/{id}/hits")
+  PaginatedResult<WatchlistHit> getCandidateHits(@NotNull @Path("id") final String id,
+                                                 @Query("count") int count, @Query("offset") int offset);
+
   @NotNull
   @POST("/watchlists")
   WatchlistSearchResults searchWatchlists(@NotNull @QueryMap final Map<String, String> options);
+
+  @NotNull
+  @POST("/watchlists")
+  WatchlistSearchResults searchWatchlists(@NotNull @Body final WatchlistSearch search);
 }
@@ -0,0 +1,99 @@
+package com.blockscore.net;
+
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.OkHttpClient;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The permits and connection pool of one bulkhead.
+ */
+class Bulkhead {
+  private final String name;
+  private final int maxConcurrentCalls;
+  private final long maxWaitNanos;
+  private final Semaphore permits;
+  private final OkHttpClient httpClient;
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+  private final AtomicLong waitedCalls = new AtomicLong();
+  private final AtomicLong rejectedCalls = new AtomicLong();
+
+  /**
+   * Creates a Bulkhead.
+   *
+   * @param policy  the bulkhead settings
+   * @param sharedClient  the config's OkHttp client, whose settings the bulkhead's client copies
+   * @param keepAliveMillis  how long idle connections are kept in the bulkhead's pool
+   */
+  Bulkhead(@NotNull final BulkheadPolicy policy, @NotNull final OkHttpClient sharedClient, final long keepAliveMillis) {
+    this.name = policy.getName();
+    this.maxConcurrentCalls = policy.getMaxConcurrentCalls();
+    this.maxWaitNanos = policy.getMaxWait(TimeUnit.NANOSECONDS);
+    this.permits = new Semaphore(maxConcurrentCalls, true);
+    this.httpClient = sharedClient.clone();
+    httpClient.setConnectionPool(new ConnectionPool(maxConcurrentCalls, keepAliveMillis));
+  }
+
+  /**
+   * Takes a permit, waiting up to the bulkhead's maximum wait or the given limit, whichever is shorter.
+   *
+   * @param maxWaitNanos  the longest the caller may wait
+   * @return true if a permit was taken
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean acquire(final long maxWaitNanos) throws InterruptedException {
+    if (!permits.tryAcquire()) {
+      long waitNanos = Math.min(this.maxWaitNanos, maxWaitNanos);
+      waitedCalls.incrementAndGet();
+      if (waitNanos <= 0 || !permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+        rejectedCalls.incrementAndGet();
+        return false;
+      }
+    }
+
+    int inFlight = getInFlight();
+    int peak;
+    do {
+      peak = peakInFlight.get();
+    } while (inFlight > peak && !peakInFlight.compareAndSet(peak, inFlight));
+    return true;
+  }
+
+  void release() {
+    permits.release();
+  }
+
+  @NotNull
+  String getName() {
+    return name;
+  }
+
+  @NotNull
+  OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  int getInFlight() {
+    return maxConcurrentCalls - permits.availablePermits();
+  }
+
+  int getPeakInFlight() {
+    return peakInFlight.get();
+  }
+
+  long getWaitedCalls() {
+    return waitedCalls.get();
+  }
+
+  long getRejectedCalls() {
+    return rejectedCalls.get();
+  }
+}
@@ -0,0 +1,67 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.BulkheadFullException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each call within its operation's {@link Bulkhead}: the call holds one of the bulkhead's
+ * permits and its request goes out on the bulkhead's connection pool. Operations without a
+ * bulkhead pass straight through.
+ */
+class BulkheadInterceptor implements InvocationInterceptor {
+  private final Map<ApiOperation, Bulkhead> bulkheads;
+
+  /**
+   * Creates a BulkheadInterceptor.
+   *
+   * @param bulkheads  the bulkhead of each operation that has one
+   */
+  BulkheadInterceptor(@NotNull final Map<ApiOperation, Bulkhead> bulkheads) {
+    this.bulkheads = bulkheads;
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    Bulkhead bulkhead = bulkheads.get(invocation.getOperation());
+    if (bulkhead == null) {
+      return invocation.proceed();
+    }
+
+    long maxWaitNanos = Long.MAX_VALUE;
+    Deadline deadline = Deadline.current();
+    if (deadline != null) {
+      maxWaitNanos = deadline.timeRemaining(TimeUnit.NANOSECONDS);
+    }
+    try {
+      if (!bulkhead.acquire(maxWaitNanos)) {
+        throw new BulkheadFullException("Bulkhead " + bulkhead.getName() + " is full, "
+                                        + invocation.getOperation() + " rejected");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting to send " + invocation.getOperation(), e);
+    }
+
+    CallContext context = CallContext.current();
+    boolean attached = context == null;
+    if (attached) {
+      context = new CallContext();
+      CallContext.attach(context);
+    }
+    context.setHttpClient(bulkhead.getHttpClient());
+    try {
+      return invocation.proceed();
+    } finally {
+      bulkhead.release();
+      if (attached) {
+        CallContext.attach(null);
+      } else {
+        context.setHttpClient(null);
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for a named bulkhead: a bounded share of calls and connections reserved for a set of
+ * operations, so that a burst of one kind of traffic cannot starve the others.
+ */
+public final class BulkheadPolicy {
+  private final String name;
+  private final Set<ApiOperation> operations;
+  private final int maxConcurrentCalls;
+  private final long maxWaitNanos;
+
+  private BulkheadPolicy(@NotNull final Builder builder) {
+    name = builder.name;
+    operations = Collections.unmodifiableSet(EnumSet.copyOf(builder.operations));
+    maxConcurrentCalls = builder.maxConcurrentCalls;
+    maxWaitNanos = builder.maxWaitNanos;
+  }
+
+  /**
+   * Gets the name of the bulkhead.
+   *
+   * @return the name
+   */
+  @NotNull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the operations assigned to the bulkhead.
+   *
+   * @return the operations
+   */
+  @NotNull
+  public Set<ApiOperation> getOperations() {
+    return operations;
+  }
+
+  /**
+   * Gets the maximum number of calls in flight through the bulkhead.
+   *
+   * @return the maximum number of concurrent calls
+   */
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  /**
+   * Gets the longest a call waits for a free permit before it is rejected.
+   *
+   * @param unit  the unit of the result
+   * @return the maximum wait
+   */
+  public long getMaxWait(@NotNull final TimeUnit unit) {
+    return unit.convert(maxWaitNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * The builder used for constructing a {@link BulkheadPolicy}.
+   */
+  public static class Builder {
+    private final String name;
+    private final Set<ApiOperation> operations = EnumSet.noneOf(ApiOperation.class);
+    private int maxConcurrentCalls = 10;
+    private long maxWaitNanos = 0;
+
+    /**
+     * Creates a builder for a bulkhead.
+     *
+     * @param name  the name of the bulkhead, used in metrics and errors
+     */
+    public Builder(@NotNull final String name) {
+      this.name = name;
+    }
+
+    /**
+     * Assigns every operation of a group to the bulkhead.
+     *
+     * @param group  the operation group
+     * @return this
+     */
+    @NotNull
+    public Builder addGroup(@NotNull final OperationGroup group) {
+      for (ApiOperation operation : ApiOperation.values()) {
+        if (operation.getGroup() == group) {
+          operations.add(operation);
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Assigns an operation to the bulkhead.
+     *
+     * @param operation  the operation
+     * @return this
+     */
+    @NotNull
+    public Builder addOperation(@NotNull final ApiOperation operation) {
+      operations.add(operation);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of calls in flight through the bulkhead. Each call in flight holds one
+     * connection, and the bulkhead keeps its own pool of that many idle connections. Defaults to 10.
+     *
+     * @param maxConcurrentCalls  the maximum number of concurrent calls
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxConcurrentCalls(final int maxConcurrentCalls) {
+      if (maxConcurrentCalls < 1) {
+        throw new IllegalArgumentException("maxConcurrentCalls < 1");
+      }
+      this.maxConcurrentCalls = maxConcurrentCalls;
+      return this;
+    }
+
+    /**
+     * Sets the longest a call waits for a free permit, within its {@link Deadline}. By default calls
+     * are rejected straight away when the bulkhead is full.
+     *
+     * @param maxWait  the maximum wait
+     * @param unit  the unit of the maximum wait
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxWait(final long maxWait, @NotNull final TimeUnit unit) {
+      if (maxWait < 0) {
+        throw new IllegalArgumentException("maxWait < 0");
+      }
+      this.maxWaitNanos = unit.toNanos(maxWait);
+      return this;
+    }
+
+    /**
+     * Creates a new {@link BulkheadPolicy}.
+     *
+     * @return the new policy
+     */
+    @NotNull
+    public BulkheadPolicy build() {
+      if (operations.isEmpty()) {
+        throw new IllegalStateException("No operations assigned to bulkhead " + name);
+      }
+      return new BulkheadPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * How close one bulkhead of a client config is to saturation.
+ */
+public final class BulkheadStats {
+  private final Bulkhead bulkhead;
+
+  BulkheadStats(@NotNull final Bulkhead bulkhead) {
+    this.bulkhead = bulkhead;
+  }
+
+  /**
+   * Gets the name of the bulkhead.
+   *
+   * @return the name
+   */
+  @NotNull
+  public String getName() {
+    return bulkhead.getName();
+  }
+
+  /**
+   * Gets the maximum number of calls in flight through the bulkhead.
+   *
+   * @return the maximum number of concurrent calls
+   */
+  public int getMaxConcurrentCalls() {
+    return bulkhead.getMaxConcurrentCalls();
+  }
+
+  /**
+   * Gets the number of calls currently in flight through the bulkhead.
+   *
+   * @return the calls in flight
+   */
+  public int getInFlight() {
+    return bulkhead.getInFlight();
+  }
+
+  /**
+   * Gets the highest number of calls that were in flight at once.
+   *
+   * @return the peak calls in flight
+   */
+  public int getPeakInFlight() {
+    return bulkhead.getPeakInFlight();
+  }
+
+  /**
+   * Gets the share of the bulkhead's permits currently in use.
+   *
+   * @return the saturation, between 0 and 1
+   */
+  public double getSaturation() {
+    return (double) bulkhead.getInFlight() / bulkhead.getMaxConcurrentCalls();
+  }
+
+  /**
+   * Gets the number of calls that found the bulkhead full, whether they then waited or were rejected.
+   *
+   * @return the number of calls that found the bulkhead full
+   */
+  public long getSaturatedCalls() {
+    return bulkhead.getWaitedCalls();
+  }
+
+  /**
+   * Gets the number of calls rejected because the bulkhead stayed full.
+   *
+   * @return the number of rejected calls
+   */
+  public long getRejectedCalls() {
+    return bulkhead.getRejectedCalls();
+  }
+}
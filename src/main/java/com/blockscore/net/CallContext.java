@@ -0,0 +1,235 @@
+package com.blockscore.net;
+
+import com.squareup.okhttp.OkHttpClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Per-call state handed from the operation layer down to {@link BlockscoreHttpClient}.
+ *
+ * <p>
+ * Retrofit gives the transport nothing but the request, so the context travels on the calling
+ * thread: it is attached before the adapter method runs and detached once it returns. The context
+ * may be cancelled from any thread, which cancels the HTTP call made on its behalf, and those of
+ * its children.
+ */
+final class CallContext {
+  private static final ThreadLocal<CallContext> CURRENT = new ThreadLocal<CallContext>();
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<CallContext, List> CHILDREN =
+      AtomicReferenceFieldUpdater.newUpdater(CallContext.class, List.class, "children");
+
+  @Nullable
+  private final CallContext parent;
+
+  // Created on the first child, since most calls never have one.
+  @Nullable
+  private volatile List<CallContext> children;
+
+  private long timeoutNanos;
+  private volatile boolean timedOut;
+  private volatile boolean cancelled;
+
+  @Nullable
+  private volatile Exchange exchange;
+
+  @Nullable
+  private OkHttpClient httpClient;
+
+  private long responseBytes;
+
+  private boolean exchangeStarted;
+  private long exchangeStartNanos;
+
+  CallContext() {
+    this(null);
+  }
+
+  private CallContext(@Nullable final CallContext parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Gets the context of the call running on the current thread.
+   *
+   * @return the current context, or null outside of an API call
+   */
+  @Nullable
+  static CallContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Attaches a context to the current thread.
+   *
+   * @param context  the context to attach, or null to detach the current one
+   * @return the previously attached context, to restore afterwards
+   */
+  @Nullable
+  static CallContext attach(@Nullable final CallContext context) {
+    CallContext previous = CURRENT.get();
+    if (context == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(context);
+    }
+    return previous;
+  }
+
+  /**
+   * Creates a context for one of several requests sent on behalf of this context, e.g. the
+   * attempts of a hedged call. Cancelling this context cancels the child as well. Call
+   * {@link #detach()} on the child once it is done with.
+   *
+   * @return the child context
+   */
+  @NotNull
+  CallContext newChild() {
+    CallContext child = new CallContext(this);
+    List<CallContext> list = children;
+    if (list == null) {
+      CHILDREN.compareAndSet(this, null, new CopyOnWriteArrayList<CallContext>());
+      list = children;
+    }
+    // A child added after the parent was cancelled still sees the cancellation through isCancelled().
+    list.add(child);
+    return child;
+  }
+
+  /**
+   * Unlinks a child context from its parent.
+   */
+  void detach() {
+    if (parent != null) {
+      parent.children.remove(this);
+    }
+  }
+
+  /**
+   * Gets the time the HTTP exchange may take, or 0 to use the transport's own timeouts.
+   *
+   * @return the timeout in nanoseconds
+   */
+  long getTimeoutNanos() {
+    return timeoutNanos;
+  }
+
+  void setTimeoutNanos(final long timeoutNanos) {
+    this.timeoutNanos = timeoutNanos;
+    this.timedOut = false;
+  }
+
+  /**
+   * Gets the client the HTTP call should be made on, or null to use the config's own client.
+   *
+   * @return the client of the call's bulkhead, if any
+   */
+  @Nullable
+  OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  void setHttpClient(@Nullable final OkHttpClient httpClient) {
+    this.httpClient = httpClient;
+  }
+
+  /**
+   * Gets the size of the last response body decoded on behalf of this context.
+   *
+   * @return the number of body bytes decoded, or 0 if unknown
+   */
+  long getResponseBytes() {
+    return responseBytes;
+  }
+
+  void setResponseBytes(final long responseBytes) {
+    this.responseBytes = responseBytes;
+  }
+
+  /**
+   * Whether or not a request was handed to the transport since the last {@link #resetExchange()}.
+   * Calls held back by the client's own limits, or whose deadline expired before they were sent,
+   * never reach the API.
+   *
+   * @return true if a request was sent
+   */
+  boolean isExchangeStarted() {
+    return exchangeStarted;
+  }
+
+  /**
+   * Gets when the last request was handed to the transport.
+   *
+   * @return the {@link System#nanoTime()} the exchange started at
+   */
+  long getExchangeStartNanos() {
+    return exchangeStartNanos;
+  }
+
+  void markExchangeStarted(final long startNanos) {
+    this.exchangeStartNanos = startNanos;
+    this.exchangeStarted = true;
+  }
+
+  void resetExchange() {
+    this.exchangeStarted = false;
+  }
+
+  /**
+   * Whether or not the transport abandoned the call because its timeout elapsed.
+   *
+   * @return true if the call timed out
+   */
+  boolean isTimedOut() {
+    return timedOut;
+  }
+
+  void markTimedOut() {
+    timedOut = true;
+  }
+
+  /**
+   * Binds the exchange sent on behalf of this context, cancelling it straight away if the context
+   * has already been cancelled.
+   *
+   * @param exchange  the exchange
+   */
+  void setExchange(@NotNull final Exchange exchange) {
+    this.exchange = exchange;
+    if (isCancelled()) {
+      exchange.cancel();
+    }
+  }
+
+  /**
+   * Whether or not the context, or its parent, was cancelled.
+   *
+   * @return true if cancelled
+   */
+  boolean isCancelled() {
+    return cancelled || parent != null && parent.isCancelled();
+  }
+
+  /**
+   * Cancels the exchange of this context and of its children, whether or not they have been sent
+   * yet.
+   */
+  void cancel() {
+    cancelled = true;
+    Exchange current = exchange;
+    if (current != null) {
+      current.cancel();
+    }
+    List<CallContext> list = children;
+    if (list == null) {
+      return;
+    }
+    for (CallContext child : list) {
+      child.cancel();
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the steps of a multi-step flow concurrently and treats them as a unit, in the manner of a
+ * structured task scope that shuts down on failure.
+ *
+ * <p>
+ * Steps are forked from the thread that owns the scope and inherit its {@link Deadline}. The first
+ * step to fail cancels the others, including their HTTP calls in flight. Closing the scope cancels
+ * any step still running and waits for the running ones to return, so no step outlives the scope:
+ *
+ * <pre>
+ * try (CallScope scope = new CallScope(executor)) {
+ *   BlockscoreFuture&lt;Person&gt; person = scope.fork(personCall);
+ *   BlockscoreFuture&lt;PaginatedResult&lt;WatchlistHit&gt;&gt; hits = scope.fork(candidateAndSearchCall);
+ *   scope.join().throwIfFailed();
+ *   ...
+ * }
+ * </pre>
+ */
+public final class CallScope implements AutoCloseable {
+  private final Executor executor;
+  private final Queue<BlockscoreFuture<?>> forks = new ConcurrentLinkedQueue<BlockscoreFuture<?>>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private int pending;
+  private int running;
+  private volatile boolean shutdown;
+
+  @Nullable
+  private volatile Throwable failure;
+
+  /**
+   * Creates a CallScope running its steps on the given executor, e.g. one starting a virtual
+   * thread per task.
+   *
+   * @param executor  the executor the steps run on
+   * @see BlockscoreExecutors#newVirtualThreadPerTaskExecutor()
+   */
+  public CallScope(@NotNull final Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Starts a step of the flow.
+   *
+   * @param step  the blocking step, e.g. a client call or a model action
+   * @param <T>  the type of the result
+   * @return the pending result of the step
+   */
+  @NotNull
+  public <T> BlockscoreFuture<T> fork(@NotNull final Callable<T> step) {
+    BlockscoreFuture<T> future = new BlockscoreFuture<T>(new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        enter();
+        try {
+          return step.call();
+        } finally {
+          exit();
+        }
+      }
+    });
+    lock.lock();
+    try {
+      pending++;
+    } finally {
+      lock.unlock();
+    }
+    forks.add(future);
+    future.addCallback(new BlockscoreCallback<T>() {
+      @Override
+      public void onSuccess(final T result) {
+        complete(null);
+      }
+
+      @Override
+      public void onFailure(@NotNull final Throwable failure) {
+        complete(failure);
+      }
+    });
+    if (shutdown) {
+      future.cancel(true);
+    } else {
+      future.start(executor);
+    }
+    return future;
+  }
+
+  /**
+   * Waits until every step has completed, or one has failed and the others were cancelled.
+   *
+   * @return this
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @NotNull
+  public CallScope join() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (pending > 0) {
+        changed.await();
+      }
+    } finally {
+      lock.unlock();
+    }
+    return this;
+  }
+
+  /**
+   * Throws the failure of the first step that failed, if any. Call after {@link #join()}. Steps
+   * that fail once the scope has shut down were cut short by it, and count as cancelled.
+   *
+   * @throws ExecutionException if a step failed
+   */
+  public void throwIfFailed() throws ExecutionException {
+    Throwable first = failure;
+    if (first != null) {
+      throw new ExecutionException(first);
+    }
+  }
+
+  /**
+   * Cancels the steps that have not completed and waits for those already running to return.
+   */
+  @Override
+  public void close() {
+    shutdown();
+    boolean interrupted = false;
+    lock.lock();
+    try {
+      while (running > 0) {
+        try {
+          changed.await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void shutdown() {
+    shutdown = true;
+    for (BlockscoreFuture<?> future : forks) {
+      future.cancel(true);
+    }
+  }
+
+  private void enter() {
+    lock.lock();
+    try {
+      if (shutdown) {
+        throw new CancellationException("Scope shut down");
+      }
+      running++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void exit() {
+    lock.lock();
+    try {
+      running--;
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void complete(@Nullable final Throwable stepFailure) {
+    boolean firstFailure = false;
+    lock.lock();
+    try {
+      pending--;
+      // Once shut down, a step failing, e.g. with the error of its cancelled HTTP call, was cut
+      // short by the scope rather than failing on its own.
+      if (stepFailure != null && !(stepFailure instanceof CancellationException) && !shutdown && failure == null) {
+        failure = stepFailure;
+        firstFailure = true;
+      }
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    if (firstFailure) {
+      shutdown();
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The circuit breaker of one operation.
+ *
+ * <p>
+ * Every state change starts a new generation. Calls are admitted with the generation they started
+ * in and their outcome is only recorded if it is still current, so calls that started before the
+ * breaker opened or closed do not count towards the new state.
+ */
+class CircuitBreaker {
+  private static final byte FAILED = 1;
+  private static final byte SLOW = 2;
+
+  private final ApiOperation operation;
+  private final CircuitBreakerPolicy policy;
+  private final long openNanos;
+  private final List<CircuitBreakerListener> listeners;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicLong rejectedCalls = new AtomicLong();
+
+  // The sliding window of the last outcomes while closed, as FAILED and SLOW flags.
+  private final byte[] window;
+  private int windowNext;
+  private int windowCount;
+  private int windowFailures;
+  private int windowSlowCalls;
+
+  private CircuitState state = CircuitState.CLOSED;
+  private long generation;
+  private long openedAtNanos;
+  private int probesStarted;
+  private int probesCompleted;
+  private int probeFailures;
+  private int probeSlowCalls;
+
+  CircuitBreaker(@NotNull final ApiOperation operation, @NotNull final CircuitBreakerPolicy policy) {
+    this.operation = operation;
+    this.policy = policy;
+    this.openNanos = policy.getOpenDuration(TimeUnit.NANOSECONDS);
+    this.listeners = policy.getListeners();
+    this.window = new byte[policy.getWindowSize()];
+  }
+
+  /**
+   * Admits a call unless the breaker is open or all probes are already in flight.
+   *
+   * @return the permit to complete the call with, or -1 if the call is rejected
+   */
+  long acquire() {
+    CircuitState before;
+    CircuitState after;
+    long permit = -1;
+    lock.lock();
+    try {
+      before = state;
+      if (state == CircuitState.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+        transitionTo(CircuitState.HALF_OPEN);
+      }
+      if (state == CircuitState.CLOSED) {
+        permit = generation;
+      } else if (state == CircuitState.HALF_OPEN && probesStarted < policy.getProbeCalls()) {
+        probesStarted++;
+        permit = generation;
+      }
+      after = state;
+    } finally {
+      lock.unlock();
+    }
+
+    if (permit < 0) {
+      rejectedCalls.incrementAndGet();
+    }
+    notifyListeners(before, after);
+    return permit;
+  }
+
+  /**
+   * Records the outcome of an admitted call.
+   *
+   * @param permit  the permit the call was admitted with
+   * @param failed  whether the call failed in a way that counts against the API
+   * @param slow  whether the call was slow
+   */
+  void complete(final long permit, final boolean failed, final boolean slow) {
+    CircuitState before;
+    CircuitState after;
+    lock.lock();
+    try {
+      before = state;
+      if (permit == generation) {
+        if (state == CircuitState.CLOSED) {
+          record(failed, slow);
+          if (windowCount >= policy.getMinimumCalls()
+              && exceedsThresholds(windowFailures, windowSlowCalls, windowCount)) {
+            transitionTo(CircuitState.OPEN);
+          }
+        } else if (state == CircuitState.HALF_OPEN) {
+          probesCompleted++;
+          probeFailures += failed ? 1 : 0;
+          probeSlowCalls += slow ? 1 : 0;
+          if (probesCompleted >= policy.getProbeCalls()) {
+            boolean healthy = !exceedsThresholds(probeFailures, probeSlowCalls, probesCompleted);
+            transitionTo(healthy ? CircuitState.CLOSED : CircuitState.OPEN);
+          }
+        }
+      }
+      after = state;
+    } finally {
+      lock.unlock();
+    }
+    notifyListeners(before, after);
+  }
+
+  /**
+   * Releases an admitted call whose outcome says nothing about the API, e.g. one rejected by the
+   * client side rate limit. A probe slot is handed back to the next call.
+   *
+   * @param permit  the permit the call was admitted with
+   */
+  void release(final long permit) {
+    lock.lock();
+    try {
+      if (permit == generation && state == CircuitState.HALF_OPEN) {
+        probesStarted--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void record(final boolean failed, final boolean slow) {
+    if (windowCount == window.length) {
+      byte evicted = window[windowNext];
+      windowFailures -= evicted & FAILED;
+      windowSlowCalls -= (evicted & SLOW) >> 1;
+    } else {
+      windowCount++;
+    }
+    window[windowNext] = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+    windowNext = (windowNext + 1) % window.length;
+    windowFailures += failed ? 1 : 0;
+    windowSlowCalls += slow ? 1 : 0;
+  }
+
+  private boolean exceedsThresholds(final int failures, final int slowCalls, final int calls) {
+    return failures * 100.0 >= policy.getFailureRateThreshold() * calls
+        || slowCalls * 100.0 >= policy.getSlowCallRateThreshold() * calls;
+  }
+
+  private void transitionTo(@NotNull final CircuitState newState) {
+    state = newState;
+    generation++;
+    if (newState == CircuitState.OPEN) {
+      openedAtNanos = System.nanoTime();
+    } else if (newState == CircuitState.HALF_OPEN) {
+      probesStarted = 0;
+      probesCompleted = 0;
+      probeFailures = 0;
+      probeSlowCalls = 0;
+    } else {
+      windowNext = 0;
+      windowCount = 0;
+      windowFailures = 0;
+      windowSlowCalls = 0;
+    }
+  }
+
+  private void notifyListeners(@NotNull final CircuitState before, @NotNull final CircuitState after) {
+    if (before == after) {
+      return;
+    }
+    for (int i = 0, size = listeners.size(); i < size; i++) {
+      listeners.get(i).onStateChange(operation, before, after);
+    }
+  }
+
+  @NotNull
+  CircuitState getState() {
+    lock.lock();
+    try {
+      return state;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the percentage of failed calls in the window, or of probes while half open.
+   */
+  double getFailureRate() {
+    lock.lock();
+    try {
+      if (state == CircuitState.HALF_OPEN) {
+        return probesCompleted == 0 ? 0 : probeFailures * 100.0 / probesCompleted;
+      }
+      return windowCount == 0 ? 0 : windowFailures * 100.0 / windowCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets the percentage of slow calls in the window, or of probes while half open.
+   */
+  double getSlowCallRate() {
+    lock.lock();
+    try {
+      if (state == CircuitState.HALF_OPEN) {
+        return probesCompleted == 0 ? 0 : probeSlowCalls * 100.0 / probesCompleted;
+      }
+      return windowCount == 0 ? 0 : windowSlowCalls * 100.0 / windowCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Gets how long until the breaker lets probes through, or 0 if it is not open.
+   */
+  long getRetryAfterMillis() {
+    lock.lock();
+    try {
+      if (state != CircuitState.OPEN) {
+        return 0;
+      }
+      long remaining = openNanos - (System.nanoTime() - openedAtNanos);
+      return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remaining));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long getRejectedCalls() {
+    return rejectedCalls.get();
+  }
+}
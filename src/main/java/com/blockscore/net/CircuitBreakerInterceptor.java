@@ -0,0 +1,87 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.BulkheadFullException;
+import com.blockscore.exceptions.CircuitBreakerOpenException;
+import com.blockscore.exceptions.ConcurrencyLimitExceededException;
+import com.blockscore.exceptions.DeadlineExceededException;
+import com.blockscore.exceptions.RateLimitExceededException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fails calls fast while their operation's {@link CircuitBreaker} is open, and records the outcome
+ * of the calls it lets through.
+ *
+ * <p>
+ * Only the exchange with the API is timed, so time spent waiting in the client's own bulkheads,
+ * rate limit and concurrency limit does not make a call slow. Calls that never reached the API,
+ * because a limit or their deadline held them back, leave the breaker's counts alone.
+ */
+class CircuitBreakerInterceptor implements InvocationInterceptor {
+  private final Map<ApiOperation, CircuitBreaker> breakers;
+  private final long slowCallNanos;
+
+  /**
+   * Creates a CircuitBreakerInterceptor.
+   *
+   * @param breakers  the circuit breaker of every operation
+   * @param policy  the circuit breaker settings
+   */
+  CircuitBreakerInterceptor(@NotNull final Map<ApiOperation, CircuitBreaker> breakers,
+                            @NotNull final CircuitBreakerPolicy policy) {
+    this.breakers = breakers;
+    this.slowCallNanos = policy.getSlowCallDuration(TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    ApiOperation operation = invocation.getOperation();
+    CircuitBreaker breaker = breakers.get(operation);
+    long permit = breaker.acquire();
+    if (permit < 0) {
+      throw new CircuitBreakerOpenException("Circuit breaker of " + operation + " is open",
+                                            breaker.getRetryAfterMillis());
+    }
+
+    CallContext context = CallContext.current();
+    boolean attached = context == null;
+    if (attached) {
+      context = new CallContext();
+      CallContext.attach(context);
+    }
+    context.resetExchange();
+    try {
+      Object result = invocation.proceed();
+      breaker.complete(permit, false, isSlow(context));
+      return result;
+    } catch (BulkheadFullException | ConcurrencyLimitExceededException | RateLimitExceededException e) {
+      // Held back before or by the API's rate limit, which says nothing about its health.
+      breaker.release(permit);
+      throw e;
+    } catch (RuntimeException e) {
+      if (Failures.isCancelled() || !context.isExchangeStarted()) {
+        // Abandoned by the caller, or out of time before it was sent, which says nothing about the
+        // API's health either.
+        breaker.release(permit);
+        throw e;
+      }
+      boolean failed = e instanceof DeadlineExceededException || Failures.isTransient(e);
+      breaker.complete(permit, failed, isSlow(context));
+      throw e;
+    } catch (Error e) {
+      breaker.release(permit);
+      throw e;
+    } finally {
+      if (attached) {
+        CallContext.attach(null);
+      }
+    }
+  }
+
+  private boolean isSlow(@NotNull final CallContext context) {
+    return context.isExchangeStarted() && System.nanoTime() - context.getExchangeStartNanos() > slowCallNanos;
+  }
+}
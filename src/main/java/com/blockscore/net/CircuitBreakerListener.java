@@ -0,0 +1,17 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Listener notified when the circuit breaker of an operation changes state.
+ */
+public interface CircuitBreakerListener {
+  /**
+   * Called on the thread whose call caused the change, after the new state is in effect.
+   *
+   * @param operation  the operation whose circuit breaker changed
+   * @param from  the previous state
+   * @param to  the new state
+   */
+  void onStateChange(@NotNull ApiOperation operation, @NotNull CircuitState from, @NotNull CircuitState to);
+}
@@ -0,0 +1,242 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for the circuit breakers of a client config, one per operation.
+ *
+ * <p>
+ * A breaker records the outcome of the last calls of its operation in a sliding window. It opens
+ * when the share of failed calls (connection errors, timeouts and transient server errors) or of
+ * slow calls in the window reaches its threshold. While open, calls fail immediately. After the
+ * open duration a few probe calls are let through: if they do well enough the breaker closes,
+ * otherwise it opens again.
+ */
+public final class CircuitBreakerPolicy {
+  private final int windowSize;
+  private final int minimumCalls;
+  private final double failureRateThreshold;
+  private final double slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final long openNanos;
+  private final int probeCalls;
+  private final List<CircuitBreakerListener> listeners;
+
+  private CircuitBreakerPolicy(@NotNull final Builder builder) {
+    windowSize = builder.windowSize;
+    minimumCalls = builder.minimumCalls;
+    failureRateThreshold = builder.failureRateThreshold;
+    slowCallRateThreshold = builder.slowCallRateThreshold;
+    slowCallNanos = builder.slowCallNanos;
+    openNanos = builder.openNanos;
+    probeCalls = builder.probeCalls;
+    listeners = Collections.unmodifiableList(new ArrayList<CircuitBreakerListener>(builder.listeners));
+  }
+
+  /**
+   * Gets the number of calls in the sliding window.
+   *
+   * @return the window size
+   */
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  /**
+   * Gets the number of calls needed in the window before the breaker may open.
+   *
+   * @return the minimum number of calls
+   */
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  /**
+   * Gets the percentage of failed calls at which the breaker opens.
+   *
+   * @return the failure rate threshold
+   */
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  /**
+   * Gets the percentage of slow calls at which the breaker opens.
+   *
+   * @return the slow call rate threshold
+   */
+  public double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  /**
+   * Gets the duration above which a call is slow.
+   *
+   * @param unit  the unit of the result
+   * @return the slow call duration
+   */
+  public long getSlowCallDuration(@NotNull final TimeUnit unit) {
+    return unit.convert(slowCallNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gets how long the breaker stays open before probing.
+   *
+   * @param unit  the unit of the result
+   * @return the open duration
+   */
+  public long getOpenDuration(@NotNull final TimeUnit unit) {
+    return unit.convert(openNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gets the number of probe calls let through once the open duration is over.
+   *
+   * @return the number of probe calls
+   */
+  public int getProbeCalls() {
+    return probeCalls;
+  }
+
+  /**
+   * Gets the listeners notified of state changes.
+   *
+   * @return the listeners
+   */
+  @NotNull
+  public List<CircuitBreakerListener> getListeners() {
+    return listeners;
+  }
+
+  /**
+   * The builder used for constructing a {@link CircuitBreakerPolicy}.
+   */
+  public static class Builder {
+    private int windowSize = 50;
+    private int minimumCalls = 20;
+    private double failureRateThreshold = 50;
+    private double slowCallRateThreshold = 80;
+    private long slowCallNanos = TimeUnit.SECONDS.toNanos(10);
+    private long openNanos = TimeUnit.SECONDS.toNanos(30);
+    private int probeCalls = 5;
+    private final List<CircuitBreakerListener> listeners = new ArrayList<CircuitBreakerListener>();
+
+    /**
+     * Sets how many of the last calls are recorded, and how many must be recorded before the
+     * breaker may open. Defaults to the last 50 calls, of which at least 20.
+     *
+     * @param windowSize  the number of calls in the sliding window
+     * @param minimumCalls  the number of calls needed before the rates are acted on
+     * @return this
+     */
+    @NotNull
+    public Builder setWindow(final int windowSize, final int minimumCalls) {
+      if (windowSize < 1) {
+        throw new IllegalArgumentException("windowSize < 1");
+      }
+      if (minimumCalls < 1 || minimumCalls > windowSize) {
+        throw new IllegalArgumentException("minimumCalls not in [1, windowSize]");
+      }
+      this.windowSize = windowSize;
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    /**
+     * Sets the percentage of failed calls in the window at which the breaker opens. Defaults to 50.
+     *
+     * @param failureRateThreshold  the failure rate, between 0 (exclusive) and 100
+     * @return this
+     */
+    @NotNull
+    public Builder setFailureRateThreshold(final double failureRateThreshold) {
+      if (!(failureRateThreshold > 0 && failureRateThreshold <= 100)) {
+        throw new IllegalArgumentException("failureRateThreshold not in (0, 100]");
+      }
+      this.failureRateThreshold = failureRateThreshold;
+      return this;
+    }
+
+    /**
+     * Sets when a call counts as slow and the percentage of slow calls in the window at which the
+     * breaker opens. Defaults to calls over 10 seconds, at 80 percent.
+     *
+     * @param slowCallDuration  the duration above which a call is slow
+     * @param unit  the unit of the duration
+     * @param slowCallRateThreshold  the slow call rate, between 0 (exclusive) and 100
+     * @return this
+     */
+    @NotNull
+    public Builder setSlowCalls(final long slowCallDuration, @NotNull final TimeUnit unit,
+                                final double slowCallRateThreshold) {
+      if (slowCallDuration <= 0) {
+        throw new IllegalArgumentException("slowCallDuration <= 0");
+      }
+      if (!(slowCallRateThreshold > 0 && slowCallRateThreshold <= 100)) {
+        throw new IllegalArgumentException("slowCallRateThreshold not in (0, 100]");
+      }
+      this.slowCallNanos = unit.toNanos(slowCallDuration);
+      this.slowCallRateThreshold = slowCallRateThreshold;
+      return this;
+    }
+
+    /**
+     * Sets how long the breaker stays open before probing. Defaults to 30 seconds.
+     *
+     * @param openDuration  the open duration
+     * @param unit  the unit of the duration
+     * @return this
+     */
+    @NotNull
+    public Builder setOpenDuration(final long openDuration, @NotNull final TimeUnit unit) {
+      if (openDuration < 0) {
+        throw new IllegalArgumentException("openDuration < 0");
+      }
+      this.openNanos = unit.toNanos(openDuration);
+      return this;
+    }
+
+    /**
+     * Sets the number of probe calls let through once the open duration is over. Their failure and
+     * slow call rates decide whether the breaker closes. Defaults to 5.
+     *
+     * @param probeCalls  the number of probe calls
+     * @return this
+     */
+    @NotNull
+    public Builder setProbeCalls(final int probeCalls) {
+      if (probeCalls < 1) {
+        throw new IllegalArgumentException("probeCalls < 1");
+      }
+      this.probeCalls = probeCalls;
+      return this;
+    }
+
+    /**
+     * Adds a listener notified whenever a breaker changes state.
+     *
+     * @param listener  the listener
+     * @return this
+     */
+    @NotNull
+    public Builder addListener(@NotNull final CircuitBreakerListener listener) {
+      listeners.add(listener);
+      return this;
+    }
+
+    /**
+     * Creates a new {@link CircuitBreakerPolicy}.
+     *
+     * @return the new policy
+     */
+    @NotNull
+    public CircuitBreakerPolicy build() {
+      return new CircuitBreakerPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * The state, failure and slow call rates and rejections of the circuit breaker of each operation of
+ * a client config.
+ */
+public final class CircuitBreakerStats {
+  private final Map<ApiOperation, CircuitBreaker> breakers;
+
+  CircuitBreakerStats(@NotNull final Map<ApiOperation, CircuitBreaker> breakers) {
+    this.breakers = breakers;
+  }
+
+  /**
+   * Gets the state of an operation's circuit breaker.
+   *
+   * @param operation  the operation
+   * @return the state, always closed if circuit breakers are disabled
+   */
+  @NotNull
+  public CircuitState getState(@NotNull final ApiOperation operation) {
+    CircuitBreaker breaker = breakers.get(operation);
+    return breaker == null ? CircuitState.CLOSED : breaker.getState();
+  }
+
+  /**
+   * Gets the percentage of recent calls of an operation that failed.
+   *
+   * @param operation  the operation
+   * @return the failure rate, between 0 and 100
+   */
+  public double getFailureRate(@NotNull final ApiOperation operation) {
+    CircuitBreaker breaker = breakers.get(operation);
+    return breaker == null ? 0 : breaker.getFailureRate();
+  }
+
+  /**
+   * Gets the percentage of recent calls of an operation that were slow.
+   *
+   * @param operation  the operation
+   * @return the slow call rate, between 0 and 100
+   */
+  public double getSlowCallRate(@NotNull final ApiOperation operation) {
+    CircuitBreaker breaker = breakers.get(operation);
+    return breaker == null ? 0 : breaker.getSlowCallRate();
+  }
+
+  /**
+   * Gets the number of calls of an operation rejected while its circuit breaker was open.
+   *
+   * @param operation  the operation
+   * @return the number of rejected calls
+   */
+  public long getRejectedCalls(@NotNull final ApiOperation operation) {
+    CircuitBreaker breaker = breakers.get(operation);
+    return breaker == null ? 0 : breaker.getRejectedCalls();
+  }
+}
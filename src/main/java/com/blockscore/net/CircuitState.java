@@ -0,0 +1,13 @@
+package com.blockscore.net;
+
+/**
+ * The states of a circuit breaker.
+ */
+public enum CircuitState {
+  /** Calls go through and their outcomes are recorded. */
+  CLOSED,
+  /** Calls fail immediately without reaching the API. */
+  OPEN,
+  /** A few probe calls go through to find out whether the API has recovered. */
+  HALF_OPEN
+}
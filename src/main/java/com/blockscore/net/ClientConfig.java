@@ -0,0 +1,861 @@
+package com.blockscore.net;
+
+import com.blockscore.common.Constants;
+
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.ConnectionSpec;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Protocol;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import retrofit.RequestInterceptor;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * Transport configuration for {@link BlockscoreApiClient}.
+ *
+ * <p>
+ * A config owns a single OkHttp client (and so a single connection pool).
+ * Every API client constructed with the same config shares that transport, which keeps
+ * idle connections and TLS handshakes bounded no matter how many API clients are created.
+ */
+public final class ClientConfig {
+  private static final ClientConfig DEFAULT = new Builder().build();
+
+  private final String endpoint;
+  private final RequestEncoding requestEncoding;
+  private final OkHttpClient httpClient;
+
+  @Nullable
+  private final Semaphore callPermits;
+
+  private final int maxRequestsPerHost;
+  private final ConcurrentMap<String, Semaphore> hostPermits = new ConcurrentHashMap<String, Semaphore>();
+
+  private final Transport transport;
+  private final List<RequestInterceptor> requestInterceptors;
+  private final InterceptorChain interceptorChain;
+  private final ConnectionWarmer connectionWarmer;
+  private final TlsHandshakeStats tlsHandshakeStats = new TlsHandshakeStats();
+
+  private ClientConfig(@NotNull final Builder builder) {
+    endpoint = builder.endpoint;
+    requestEncoding = builder.requestEncoding;
+
+    if (builder.httpClient != null) {
+      httpClient = builder.httpClient;
+    } else {
+      httpClient = builder.generateDefaultHttpClient(tlsHandshakeStats);
+    }
+
+    if (builder.maxConcurrentCalls > 0) {
+      callPermits = new Semaphore(builder.maxConcurrentCalls, true);
+    } else {
+      callPermits = null;
+    }
+    maxRequestsPerHost = builder.maxRequestsPerHost;
+
+    if (builder.transport != null) {
+      transport = builder.transport;
+    } else {
+      transport = new OkHttpTransport(httpClient, builder.responseMetricsListener);
+    }
+    requestInterceptors =
+        Collections.unmodifiableList(new ArrayList<RequestInterceptor>(builder.requestInterceptors));
+
+    interceptorChain = new InterceptorChain.Builder(httpClient, builder.keepAliveMillis)
+        .setRequestCoalescingEnabled(builder.requestCoalescingEnabled)
+        .setRetryPolicy(builder.retryPolicy)
+        .setCircuitBreakerPolicy(builder.circuitBreakerPolicy)
+        .setHedgingPolicy(builder.hedgingPolicy)
+        .setBulkheadPolicies(builder.bulkheadPolicies)
+        .setRateLimitPolicy(builder.rateLimitPolicy)
+        .setConcurrencyLimitPolicy(builder.concurrencyLimitPolicy)
+        .setOperationTimeouts(builder.operationTimeoutNanos)
+        .build();
+    connectionWarmer = new ConnectionWarmer(httpClient, interceptorChain.getBulkheads(), endpoint,
+                                            builder.healthCheckIntervalMillis);
+  }
+
+  /**
+   * Gets the config used by API clients that were not given one explicitly.
+   *
+   * @return the shared default config
+   */
+  @NotNull
+  public static ClientConfig getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Gets the API endpoint requests are sent to.
+   *
+   * @return the API endpoint
+   */
+  @NotNull
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * Gets the full and resumed TLS handshake counts of this config's transport. Handshakes are only
+   * counted when the config generates its own OkHttp client.
+   *
+   * @return the handshake counts
+   */
+  @NotNull
+  public TlsHandshakeStats getTlsHandshakeStats() {
+    return tlsHandshakeStats;
+  }
+
+  /**
+   * Gets the number of hedged calls and hedge wins. All counts stay at zero unless a
+   * {@link HedgingPolicy} is set.
+   *
+   * @return the hedging counts
+   */
+  @NotNull
+  public HedgingStats getHedgingStats() {
+    return interceptorChain.getHedgingStats();
+  }
+
+  /**
+   * Gets the current concurrency limit, calls in flight and rejections of each operation. All
+   * values stay at zero unless a {@link ConcurrencyLimitPolicy} is set.
+   *
+   * @return the concurrency limit stats
+   */
+  @NotNull
+  public ConcurrencyLimitStats getConcurrencyLimitStats() {
+    return interceptorChain.getConcurrencyLimitStats();
+  }
+
+  /**
+   * Gets the number of calls held back by the rate limit and of HTTP 429 responses. All counts stay
+   * at zero unless a {@link RateLimitPolicy} is set.
+   *
+   * @return the rate limit stats
+   */
+  @NotNull
+  public RateLimitStats getRateLimitStats() {
+    return interceptorChain.getRateLimitStats();
+  }
+
+  /**
+   * Gets the number of retries sent. All counts stay at zero unless a {@link RetryPolicy} is set.
+   *
+   * @return the retry stats
+   */
+  @NotNull
+  public RetryStats getRetryStats() {
+    return interceptorChain.getRetryStats();
+  }
+
+  /**
+   * Gets the number of read-only calls that were sent and that were coalesced with a call in flight.
+   * Nothing is counted unless request coalescing is enabled.
+   *
+   * @return the coalescing stats
+   */
+  @NotNull
+  public CoalescingStats getCoalescingStats() {
+    return interceptorChain.getCoalescingStats();
+  }
+
+  /**
+   * Gets the state, failure and slow call rates and rejections of each operation's circuit breaker.
+   * Every breaker stays closed unless a {@link CircuitBreakerPolicy} is set.
+   *
+   * @return the circuit breaker stats
+   */
+  @NotNull
+  public CircuitBreakerStats getCircuitBreakerStats() {
+    return interceptorChain.getCircuitBreakerStats();
+  }
+
+  /**
+   * Gets the saturation and rejections of each bulkhead, by name.
+   *
+   * @return the bulkhead stats, empty when no bulkheads were added
+   */
+  @NotNull
+  public Map<String, BulkheadStats> getBulkheadStats() {
+    return interceptorChain.getBulkheadStats();
+  }
+
+  /**
+   * Stops the background connection health checks started by {@link BlockscoreApiClient#warmUp(int)}.
+   */
+  public void stopHealthChecks() {
+    connectionWarmer.stopHealthChecks();
+  }
+
+  /**
+   * Gets the OkHttp client shared by every API client using this config.
+   *
+   * @return the shared OkHttp client
+   */
+  @NotNull
+  OkHttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /**
+   * Gets the permits bounding concurrent calls across all hosts, or null when unbounded.
+   *
+   * @return the call permits
+   */
+  @Nullable
+  Semaphore getCallPermits() {
+    return callPermits;
+  }
+
+  /**
+   * Gets the permits bounding concurrent requests to a host, or null when unbounded.
+   *
+   * @param host  the host and port of the request
+   * @return the host's permits
+   */
+  @Nullable
+  Semaphore getHostPermits(@NotNull final String host) {
+    if (maxRequestsPerHost == 0) {
+      return null;
+    }
+    Semaphore permits = hostPermits.get(host);
+    if (permits == null) {
+      Semaphore created = new Semaphore(maxRequestsPerHost, true);
+      permits = hostPermits.putIfAbsent(host, created);
+      if (permits == null) {
+        permits = created;
+      }
+    }
+    return permits;
+  }
+
+  /**
+   * Gets how the fields of new people, companies, question sets and watchlist searches are sent.
+   *
+   * @return the request encoding
+   */
+  @NotNull
+  RequestEncoding getRequestEncoding() {
+    return requestEncoding;
+  }
+
+  /**
+   * Gets the transport every API client using this config sends its requests with.
+   *
+   * @return the transport
+   */
+  @NotNull
+  Transport getTransport() {
+    return transport;
+  }
+
+  /**
+   * Gets the rate limiter shared by every API client using this config, or null when not limited.
+   *
+   * @return the rate limiter
+   */
+  @Nullable
+  RateLimiter getRateLimiter() {
+    return interceptorChain.getRateLimiter();
+  }
+
+  /**
+   * Gets the header carrying the idempotency key of calls that change data, or null if none is sent.
+   *
+   * @return the idempotency key header
+   */
+  @Nullable
+  String getIdempotencyKeyHeader() {
+    return interceptorChain.getIdempotencyKeyHeader();
+  }
+
+  /**
+   * Gets the user supplied request interceptors, in the order they run.
+   *
+   * @return the request interceptors
+   */
+  @NotNull
+  List<RequestInterceptor> getRequestInterceptors() {
+    return requestInterceptors;
+  }
+
+  /**
+   * Gets the interceptors every adapter call runs through, outermost first. They are shared by every
+   * API client using this config.
+   *
+   * @return the invocation interceptors
+   */
+  @NotNull
+  List<InvocationInterceptor> getInvocationInterceptors() {
+    return interceptorChain.getInterceptors();
+  }
+
+  /**
+   * Gets the warmer that pre-opens connections on the shared transport.
+   *
+   * @return the connection warmer
+   */
+  @NotNull
+  ConnectionWarmer getConnectionWarmer() {
+    return connectionWarmer;
+  }
+
+  /**
+   * The builder used for constructing a {@link ClientConfig}.
+   */
+  public static class Builder {
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = 5 * 60 * 1000;
+    private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 30 * 1000;
+    private static final long DEFAULT_READ_TIMEOUT_MILLIS = 30 * 1000;
+
+    private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private long keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+    private int maxRequestsPerHost = 0;
+    private long connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private long readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+    @Nullable
+    private Boolean http2Enabled;
+    private boolean requestCoalescingEnabled = false;
+    private int maxConcurrentCalls = 0;
+    private long healthCheckIntervalMillis = 0;
+    private int tlsSessionCacheSize = -1;
+    private long tlsSessionTimeoutMillis = -1;
+
+    @Nullable
+    private String[] tlsVersions;
+
+    @Nullable
+    private String[] cipherSuites;
+
+    @NotNull
+    private String endpoint = Constants.BLOCKSCORE_DOMAIN;
+
+    @NotNull
+    private RequestEncoding requestEncoding = RequestEncoding.QUERY_PARAMETERS;
+
+    @Nullable
+    private OkHttpClient httpClient;
+
+    @Nullable
+    private ResponseMetricsListener responseMetricsListener;
+
+    @Nullable
+    private Transport transport;
+
+    @Nullable
+    private HedgingPolicy hedgingPolicy;
+
+    @Nullable
+    private ConcurrencyLimitPolicy concurrencyLimitPolicy;
+
+    @Nullable
+    private RateLimitPolicy rateLimitPolicy;
+
+    @Nullable
+    private RetryPolicy retryPolicy;
+
+    @Nullable
+    private CircuitBreakerPolicy circuitBreakerPolicy;
+
+    private final List<RequestInterceptor> requestInterceptors = new ArrayList<RequestInterceptor>();
+    private final List<BulkheadPolicy> bulkheadPolicies = new ArrayList<BulkheadPolicy>();
+    private final Map<ApiOperation, Long> operationTimeoutNanos =
+        new EnumMap<ApiOperation, Long>(ApiOperation.class);
+
+    /**
+     * Sets the maximum number of idle connections kept in the pool.
+     *
+     * @param maxIdleConnections  the maximum number of idle connections
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxIdleConnections(final int maxIdleConnections) {
+      if (maxIdleConnections < 0) {
+        throw new IllegalArgumentException("maxIdleConnections < 0");
+      }
+      this.maxIdleConnections = maxIdleConnections;
+      return this;
+    }
+
+    /**
+     * Sets how long an idle connection is kept in the pool before it is evicted.
+     *
+     * @param duration  the keep-alive duration
+     * @param unit  the unit of the duration
+     * @return this
+     */
+    @NotNull
+    public Builder setKeepAliveDuration(final long duration, @NotNull final TimeUnit unit) {
+      if (duration < 0) {
+        throw new IllegalArgumentException("duration < 0");
+      }
+      this.keepAliveMillis = unit.toMillis(duration);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight at once to a single host, across all API clients
+     * using this config. Calls over the limit wait for a request to complete, within their timeout.
+     * Unbounded by default.
+     *
+     * @param maxRequestsPerHost  the maximum number of concurrent requests per host
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxRequestsPerHost(final int maxRequestsPerHost) {
+      if (maxRequestsPerHost < 1) {
+        throw new IllegalArgumentException("maxRequestsPerHost < 1");
+      }
+      this.maxRequestsPerHost = maxRequestsPerHost;
+      return this;
+    }
+
+    /**
+     * Sets the connect timeout.
+     *
+     * @param timeout  the connect timeout
+     * @param unit  the unit of the timeout
+     * @return this
+     */
+    @NotNull
+    public Builder setConnectTimeout(final long timeout, @NotNull final TimeUnit unit) {
+      if (timeout < 0) {
+        throw new IllegalArgumentException("timeout < 0");
+      }
+      this.connectTimeoutMillis = unit.toMillis(timeout);
+      return this;
+    }
+
+    /**
+     * Sets the read timeout.
+     *
+     * @param timeout  the read timeout
+     * @param unit  the unit of the timeout
+     * @return this
+     */
+    @NotNull
+    public Builder setReadTimeout(final long timeout, @NotNull final TimeUnit unit) {
+      if (timeout < 0) {
+        throw new IllegalArgumentException("timeout < 0");
+      }
+      this.readTimeoutMillis = unit.toMillis(timeout);
+      return this;
+    }
+
+    /**
+     * Sets how long calls of one operation may take in total, from sending the request until the
+     * response arrives. The connect and read timeouts still apply within it. If a {@link Deadline}
+     * is attached to the calling thread, whichever ends first wins. Operations without a timeout
+     * are bounded by the connect and read timeouts only.
+     *
+     * @param operation  the operation, e.g. {@link ApiOperation#SEARCH_WATCHLISTS}
+     * @param timeout  the timeout, or 0 to remove it
+     * @param unit  the unit of the timeout
+     * @return this
+     */
+    @NotNull
+    public Builder setOperationTimeout(@NotNull final ApiOperation operation, final long timeout,
+                                       @NotNull final TimeUnit unit) {
+      if (timeout < 0) {
+        throw new IllegalArgumentException("timeout < 0");
+      }
+      if (timeout == 0) {
+        operationTimeoutNanos.remove(operation);
+      } else {
+        operationTimeoutNanos.put(operation, unit.toNanos(timeout));
+      }
+      return this;
+    }
+
+    /**
+     * Enables hedging of read-only calls (retrieving and listing). A call that is slower than most
+     * recent calls of its operation is sent a second time and the first response is used. Disabled
+     * by default.
+     *
+     * @param hedgingPolicy  the hedging settings, or null to disable hedging
+     * @return this
+     */
+    @NotNull
+    public Builder setHedgingPolicy(@Nullable final HedgingPolicy hedgingPolicy) {
+      this.hedgingPolicy = hedgingPolicy;
+      return this;
+    }
+
+    /**
+     * Enables retrying calls that fail with a connection error or a transient server error. Each
+     * attempt goes through the rate limit and the other policies again, and the {@link Deadline}
+     * bounds all attempts together. Disabled by default.
+     *
+     * @param retryPolicy  the retry settings, or null to disable retries
+     * @return this
+     */
+    @NotNull
+    public Builder setRetryPolicy(@Nullable final RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /**
+     * Enables a circuit breaker per operation, so that calls of an operation that keeps failing or
+     * timing out fail immediately with a {@link com.blockscore.exceptions.CircuitBreakerOpenException}
+     * instead of tying up threads, without affecting the other operations. Disabled by default.
+     *
+     * @param circuitBreakerPolicy  the circuit breaker settings, or null to disable circuit breakers
+     * @return this
+     */
+    @NotNull
+    public Builder setCircuitBreakerPolicy(@Nullable final CircuitBreakerPolicy circuitBreakerPolicy) {
+      this.circuitBreakerPolicy = circuitBreakerPolicy;
+      return this;
+    }
+
+    /**
+     * Adds a bulkhead, which caps the calls in flight for its operations and sends them on a
+     * connection pool of their own, so that a burst of one kind of traffic (e.g. bulk listing)
+     * cannot take the connections and threads needed by another (e.g. verification). Calls that
+     * find their bulkhead full wait up to its maximum wait and then fail with
+     * {@link com.blockscore.exceptions.BulkheadFullException}. Operations not in any bulkhead share
+     * the config's own transport.
+     *
+     * @param bulkheadPolicy  the bulkhead settings
+     * @return this
+     * @throws IllegalArgumentException if the name or one of the operations is already used by another bulkhead
+     */
+    @NotNull
+    public Builder addBulkhead(@NotNull final BulkheadPolicy bulkheadPolicy) {
+      for (BulkheadPolicy existing : bulkheadPolicies) {
+        if (existing.getName().equals(bulkheadPolicy.getName())) {
+          throw new IllegalArgumentException("Duplicate bulkhead " + bulkheadPolicy.getName());
+        }
+        for (ApiOperation operation : bulkheadPolicy.getOperations()) {
+          if (existing.getOperations().contains(operation)) {
+            throw new IllegalArgumentException(operation + " is already in bulkhead " + existing.getName());
+          }
+        }
+      }
+      bulkheadPolicies.add(bulkheadPolicy);
+      return this;
+    }
+
+    /**
+     * Enables a client side rate limit shared by every API client using this config. Calls also
+     * pause when the API answers with HTTP 429 (for as long as its {@code Retry-After} header asks)
+     * or reports that no calls remain until the rate limit resets, and rate limited calls are sent
+     * again once the pause is over. Disabled by default.
+     *
+     * @param rateLimitPolicy  the rate limit settings, or null to disable the rate limit
+     * @return this
+     */
+    @NotNull
+    public Builder setRateLimitPolicy(@Nullable final RateLimitPolicy rateLimitPolicy) {
+      this.rateLimitPolicy = rateLimitPolicy;
+      return this;
+    }
+
+    /**
+     * Enables an adaptive limit on the calls in flight per operation. The limit follows the API's
+     * round trip times: it grows while calls complete quickly and shrinks when they slow down or
+     * time out. Calls beyond the limit fail with a
+     * {@link com.blockscore.exceptions.ConcurrencyLimitExceededException}, or wait if the policy
+     * allows queueing. Disabled by default.
+     *
+     * @param concurrencyLimitPolicy  the limit settings, or null to disable the limit
+     * @return this
+     */
+    @NotNull
+    public Builder setConcurrencyLimitPolicy(@Nullable final ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+      this.concurrencyLimitPolicy = concurrencyLimitPolicy;
+      return this;
+    }
+
+    /**
+     * Enables request coalescing: a read-only call (a retrieval or listing) made while an identical
+     * call is in flight does not go out over the network, but waits for that call and receives its
+     * result or failure. Coalesced callers share the same result objects, so they should treat them
+     * as read-only. Disabled by default.
+     *
+     * @param requestCoalescingEnabled  whether or not to coalesce identical concurrent read-only calls
+     * @return this
+     */
+    @NotNull
+    public Builder setRequestCoalescingEnabled(final boolean requestCoalescingEnabled) {
+      this.requestCoalescingEnabled = requestCoalescingEnabled;
+      return this;
+    }
+
+    /**
+     * Enables or disables HTTP/2. When enabled and the JVM supports ALPN, HTTP/2 is negotiated with
+     * the API and concurrent calls are multiplexed over a few connections; otherwise connections
+     * fall back to HTTP/1.1. When disabled, only HTTP/1.1 is offered. If this is never called,
+     * OkHttp's own protocol negotiation is left as it is.
+     *
+     * <p>
+     * HTTP/2 is not supported together with virtual threads, e.g. calls run on
+     * {@link BlockscoreExecutors#newVirtualThreadPerTaskExecutor()}: OkHttp waits for HTTP/2
+     * streams on object monitors, which pins each waiting virtual thread to its carrier thread.
+     *
+     * @param http2Enabled  whether or not to negotiate HTTP/2
+     * @return this
+     */
+    @NotNull
+    public Builder setHttp2Enabled(final boolean http2Enabled) {
+      this.http2Enabled = http2Enabled;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of calls in flight at once, across all hosts and connections. A call
+     * holds its slot until its response body has been read. With HTTP/2 the calls to the API
+     * usually share a single connection, so this also bounds the streams opened on it. Zero (the
+     * default) leaves the number of calls unbounded.
+     *
+     * @param maxConcurrentCalls  the maximum number of concurrent calls, or 0 for no limit
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxConcurrentCalls(final int maxConcurrentCalls) {
+      if (maxConcurrentCalls < 0) {
+        throw new IllegalArgumentException("maxConcurrentCalls < 0");
+      }
+      this.maxConcurrentCalls = maxConcurrentCalls;
+      return this;
+    }
+
+    /**
+     * Sets how often connections opened by {@link BlockscoreApiClient#warmUp(int)} are checked
+     * and kept alive in the background. This should be shorter than the keep-alive duration.
+     * Zero (the default) disables the health checks.
+     *
+     * @param interval  the interval between health checks
+     * @param unit  the unit of the interval
+     * @return this
+     */
+    @NotNull
+    public Builder setHealthCheckInterval(final long interval, @NotNull final TimeUnit unit) {
+      if (interval < 0) {
+        throw new IllegalArgumentException("interval < 0");
+      }
+      this.healthCheckIntervalMillis = unit.toMillis(interval);
+      return this;
+    }
+
+    /**
+     * Sets the number of TLS sessions cached for resumption. The cache is shared by every API client
+     * using this config, so reconnecting to the API resumes the previous session instead of doing a
+     * full handshake. Whether session tickets are offered is decided by the JVM (see the
+     * {@code jdk.tls.client.enableSessionTicketExtension} system property). Zero means unlimited.
+     *
+     * @param size  the maximum number of cached sessions
+     * @return this
+     */
+    @NotNull
+    public Builder setTlsSessionCacheSize(final int size) {
+      if (size < 0) {
+        throw new IllegalArgumentException("size < 0");
+      }
+      this.tlsSessionCacheSize = size;
+      return this;
+    }
+
+    /**
+     * Sets how long a cached TLS session may be resumed, rounded up to whole seconds. Zero means no
+     * limit.
+     *
+     * @param timeout  the session timeout
+     * @param unit  the unit of the timeout
+     * @return this
+     */
+    @NotNull
+    public Builder setTlsSessionTimeout(final long timeout, @NotNull final TimeUnit unit) {
+      if (timeout < 0) {
+        throw new IllegalArgumentException("timeout < 0");
+      }
+      this.tlsSessionTimeoutMillis = unit.toMillis(timeout);
+      return this;
+    }
+
+    /**
+     * Sets the TLS versions to offer, in order of preference (e.g. {@code "TLSv1.2"}).
+     *
+     * @param tlsVersions  the Java names of the TLS versions
+     * @return this
+     */
+    @NotNull
+    public Builder setTlsVersions(@NotNull final String... tlsVersions) {
+      this.tlsVersions = tlsVersions.clone();
+      return this;
+    }
+
+    /**
+     * Sets the cipher suites to offer, in order of preference. Suites the JVM does not support are
+     * skipped.
+     *
+     * @param cipherSuites  the Java names of the cipher suites
+     * @return this
+     */
+    @NotNull
+    public Builder setCipherSuites(@NotNull final String... cipherSuites) {
+      this.cipherSuites = cipherSuites.clone();
+      return this;
+    }
+
+    /**
+     * Sets the API endpoint. Only useful for pointing the client at a stand-in server.
+     *
+     * @param endpoint  the API endpoint
+     * @return this
+     */
+    @NotNull
+    public Builder setEndpoint(@NotNull final String endpoint) {
+      this.endpoint = endpoint;
+      return this;
+    }
+
+    /**
+     * Sets how the fields of new people, companies, question sets and watchlist searches are sent.
+     * Defaults to {@link RequestEncoding#QUERY_PARAMETERS}; {@link RequestEncoding#JSON} keeps them
+     * out of the request line and is cheaper to build.
+     *
+     * @param requestEncoding  the request encoding
+     * @return this
+     */
+    @NotNull
+    public Builder setRequestEncoding(@NotNull final RequestEncoding requestEncoding) {
+      this.requestEncoding = requestEncoding;
+      return this;
+    }
+
+    /**
+     * Sets the transport requests are sent with, e.g. a {@link UrlConnectionTransport}. By default
+     * requests are sent as OkHttp calls on the config's client. The connection pool, TLS settings,
+     * connection warm-up, bulkhead connection pools and response metrics of this builder only apply
+     * to the default transport.
+     *
+     * @param transport  the transport, or null for the default
+     * @return this
+     */
+    @NotNull
+    public Builder setTransport(@Nullable final Transport transport) {
+      this.transport = transport;
+      return this;
+    }
+
+    /**
+     * Sets a listener that receives the bytes read on the wire and the decode time of every response.
+     *
+     * @param responseMetricsListener  the metrics listener
+     * @return this
+     */
+    @NotNull
+    public Builder setResponseMetricsListener(@Nullable final ResponseMetricsListener responseMetricsListener) {
+      this.responseMetricsListener = responseMetricsListener;
+      return this;
+    }
+
+    /**
+     * Adds an interceptor that runs on every request, after the authorization, accept and user agent
+     * headers have been applied. Interceptors run in the order they are added. Like those headers,
+     * anything that does not change between requests should be computed once, outside of
+     * {@link RequestInterceptor#intercept}.
+     *
+     * @param interceptor  the interceptor, e.g. for tracing or idempotency key headers
+     * @return this
+     */
+    @NotNull
+    public Builder addRequestInterceptor(@NotNull final RequestInterceptor interceptor) {
+      requestInterceptors.add(interceptor);
+      return this;
+    }
+
+    /**
+     * Uses an existing OkHttp client as the transport. Its connection pool, dispatcher, timeouts,
+     * protocols, DNS resolution and TLS setup are used as they are and the corresponding settings of
+     * this builder are ignored.
+     *
+     * @param httpClient  the OkHttp client to share
+     * @return this
+     */
+    @NotNull
+    public Builder setHttpClient(@NotNull final OkHttpClient httpClient) {
+      this.httpClient = httpClient;
+      return this;
+    }
+
+    /**
+     * Creates a new {@link ClientConfig}.
+     *
+     * @return the new config
+     */
+    @NotNull
+    public ClientConfig build() {
+      return new ClientConfig(this);
+    }
+
+    private OkHttpClient generateDefaultHttpClient(final TlsHandshakeStats tlsHandshakeStats) {
+      OkHttpClient client = new OkHttpClient();
+      client.setConnectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis));
+      client.setConnectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+      client.setReadTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
+      if (Boolean.TRUE.equals(http2Enabled)) {
+        client.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+      } else if (Boolean.FALSE.equals(http2Enabled)) {
+        client.setProtocols(Collections.singletonList(Protocol.HTTP_1_1));
+      }
+
+      client.setSslSocketFactory(new MeteredSslSocketFactory(createSslContext().getSocketFactory(),
+                                                             tlsHandshakeStats));
+      if (tlsVersions != null || cipherSuites != null) {
+        ConnectionSpec.Builder spec = new ConnectionSpec.Builder(ConnectionSpec.MODERN_TLS);
+        if (tlsVersions != null) {
+          spec.tlsVersions(tlsVersions);
+        }
+        if (cipherSuites != null) {
+          spec.cipherSuites(cipherSuites);
+        }
+        client.setConnectionSpecs(Arrays.asList(spec.build(), ConnectionSpec.CLEARTEXT));
+      }
+      return client;
+    }
+
+    private SSLContext createSslContext() {
+      SSLContext sslContext;
+      try {
+        sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, null, null);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Unable to initialize TLS", e);
+      }
+
+      // Each config gets its own context, so the session cache is shared by exactly the API clients
+      // that share this transport.
+      SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+      if (tlsSessionCacheSize >= 0) {
+        sessionContext.setSessionCacheSize(tlsSessionCacheSize);
+      }
+      if (tlsSessionTimeoutMillis >= 0) {
+        // Rounded up, since a sub-second timeout truncated to zero would mean no limit at all.
+        long seconds = (tlsSessionTimeoutMillis + 999) / 1000;
+        sessionContext.setSessionTimeout((int) Math.min(seconds, Integer.MAX_VALUE));
+      }
+      return sslContext;
+    }
+  }
+}
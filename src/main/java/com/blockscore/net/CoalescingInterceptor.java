@@ -0,0 +1,198 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.DeadlineExceededException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets concurrent identical read-only calls share a single flight: the first call is sent, and the
+ * calls arriving while it is in flight wait for it and receive its result or failure.
+ *
+ * <p>
+ * A flight that fails for reasons of its own caller (its deadline expired or it was cancelled) is
+ * not shared; the waiting calls start another flight instead. A waiting call can be cancelled by its
+ * own caller, and reports the size of the response it shares.
+ */
+class CoalescingInterceptor implements InvocationInterceptor {
+  /**
+   * How often a waiting call checks whether its caller has cancelled it.
+   */
+  private static final long CANCEL_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final ConcurrentMap<Key, Flight> inFlight = new ConcurrentHashMap<Key, Flight>();
+  private final CoalescingStats stats;
+
+  /**
+   * Creates a CoalescingInterceptor.
+   *
+   * @param stats  the stats to record coalesced calls in
+   */
+  CoalescingInterceptor(@NotNull final CoalescingStats stats) {
+    this.stats = stats;
+    stats.setInFlight(inFlight);
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    if (!invocation.getOperation().isReadOnly()) {
+      return invocation.proceed();
+    }
+
+    Key key = new Key(invocation.getOperation(), invocation.getArgs());
+    while (true) {
+      Flight flight = new Flight();
+      Flight existing = inFlight.putIfAbsent(key, flight);
+      if (existing == null) {
+        return lead(key, flight, invocation);
+      }
+      if (existing.await(invocation.getOperation())) {
+        stats.recordCoalesced();
+        CallContext context = CallContext.current();
+        if (context != null) {
+          context.setResponseBytes(existing.responseBytes);
+        }
+        return existing.outcome();
+      }
+      // The flight failed for reasons of its own caller; start another.
+    }
+  }
+
+  private Object lead(@NotNull final Key key, @NotNull final Flight flight, @NotNull final Invocation invocation) {
+    stats.recordLeader();
+    // The leader needs a context of its own to learn the size of the response it shares.
+    CallContext context = CallContext.current();
+    boolean attached = context == null;
+    if (attached) {
+      context = new CallContext();
+      CallContext.attach(context);
+    }
+    try {
+      Object result = invocation.proceed();
+      flight.succeed(result, context.getResponseBytes());
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.fail(e, isCallerFailure(e));
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+      if (attached) {
+        CallContext.attach(null);
+      }
+    }
+  }
+
+  private static boolean isCallerFailure(@NotNull final Throwable failure) {
+    CallContext context = CallContext.current();
+    return failure instanceof DeadlineExceededException
+           || context != null && context.isCancelled()
+           || Thread.currentThread().isInterrupted();
+  }
+
+  /**
+   * Identifies a call by its operation and arguments.
+   */
+  private static final class Key {
+    private final ApiOperation operation;
+    private final List<Object> args;
+
+    Key(@NotNull final ApiOperation operation, @Nullable final Object[] args) {
+      this.operation = operation;
+      this.args = args == null ? Collections.emptyList() : Arrays.asList(args);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return operation == key.operation && args.equals(key.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * operation.hashCode() + args.hashCode();
+    }
+  }
+
+  /**
+   * The outcome of a call in flight, published to the calls waiting on it.
+   */
+  private static final class Flight {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Object result;
+    private volatile long responseBytes;
+    private volatile Throwable failure;
+    private volatile boolean shared = true;
+
+    void succeed(final Object result, final long responseBytes) {
+      this.result = result;
+      this.responseBytes = responseBytes;
+      done.countDown();
+    }
+
+    void fail(@NotNull final Throwable failure, final boolean callerFailure) {
+      this.failure = failure;
+      this.shared = !callerFailure;
+      done.countDown();
+    }
+
+    /**
+     * Waits for the flight to land, within the current deadline and for as long as the current call
+     * is not cancelled.
+     *
+     * @return true if the outcome may be shared, false if the caller should try again
+     */
+    boolean await(@NotNull final ApiOperation operation) {
+      Deadline deadline = Deadline.current();
+      CallContext context = CallContext.current();
+      try {
+        while (true) {
+          if (context != null && context.isCancelled()) {
+            throw new CancellationException(operation + " was cancelled");
+          }
+          long waitNanos = context == null ? Long.MAX_VALUE : CANCEL_POLL_NANOS;
+          if (deadline != null) {
+            long remainingNanos = deadline.timeRemaining(TimeUnit.NANOSECONDS);
+            if (remainingNanos <= 0) {
+              throw new DeadlineExceededException(operation + " did not complete within its deadline");
+            }
+            waitNanos = Math.min(waitNanos, remainingNanos);
+          }
+          if (waitNanos == Long.MAX_VALUE) {
+            done.await();
+            break;
+          }
+          if (done.await(waitNanos, TimeUnit.NANOSECONDS)) {
+            break;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for " + operation, e);
+      }
+      return shared;
+    }
+
+    Object outcome() {
+      Throwable error = failure;
+      if (error == null) {
+        return result;
+      }
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      throw (RuntimeException) error;
+    }
+  }
+}
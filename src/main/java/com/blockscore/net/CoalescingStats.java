@@ -0,0 +1,68 @@
+package com.blockscore.net;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the read-only calls of a client config that were coalesced with an identical call in flight.
+ */
+public final class CoalescingStats {
+  private final AtomicLong leaderCalls = new AtomicLong();
+  private final AtomicLong coalescedCalls = new AtomicLong();
+  private volatile ConcurrentMap<?, ?> inFlight;
+
+  CoalescingStats() {
+    // Only created by ClientConfig.
+  }
+
+  void setInFlight(final ConcurrentMap<?, ?> inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  void recordLeader() {
+    leaderCalls.incrementAndGet();
+  }
+
+  void recordCoalesced() {
+    coalescedCalls.incrementAndGet();
+  }
+
+  /**
+   * Gets the number of calls that were sent to the API, with other identical calls waiting on them.
+   *
+   * @return the number of calls sent
+   */
+  public long getLeaderCalls() {
+    return leaderCalls.get();
+  }
+
+  /**
+   * Gets the number of calls that were answered by an identical call already in flight instead of
+   * being sent.
+   *
+   * @return the number of coalesced calls
+   */
+  public long getCoalescedCalls() {
+    return coalescedCalls.get();
+  }
+
+  /**
+   * Gets the share of read-only calls that were coalesced.
+   *
+   * @return the coalescing rate, between 0 and 1
+   */
+  public double getCoalescingRate() {
+    long coalesced = coalescedCalls.get();
+    long total = coalesced + leaderCalls.get();
+    return total == 0 ? 0 : (double) coalesced / total;
+  }
+
+  /**
+   * Gets the number of distinct calls currently in flight.
+   *
+   * @return the number of calls in flight
+   */
+  public int getInFlight() {
+    return inFlight == null ? 0 : inFlight.size();
+  }
+}
@@ -0,0 +1,87 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.ConcurrencyLimitExceededException;
+import com.blockscore.exceptions.DeadlineExceededException;
+
+import org.jetbrains.annotations.NotNull;
+import retrofit.RetrofitError;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the calls in flight per operation with an {@link AdaptiveLimiter}, rejecting or queueing
+ * calls beyond the limit.
+ */
+class ConcurrencyLimitInterceptor implements InvocationInterceptor {
+  private final Map<ApiOperation, AdaptiveLimiter> limiters;
+  private final long maxQueueWaitNanos;
+
+  /**
+   * Creates a ConcurrencyLimitInterceptor.
+   *
+   * @param limiters  the limiter of every operation
+   * @param policy  the limit settings
+   */
+  ConcurrencyLimitInterceptor(@NotNull final Map<ApiOperation, AdaptiveLimiter> limiters,
+                              @NotNull final ConcurrencyLimitPolicy policy) {
+    this.limiters = limiters;
+    this.maxQueueWaitNanos = policy.getMaxQueueWait(TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    ApiOperation operation = invocation.getOperation();
+    AdaptiveLimiter limiter = limiters.get(operation);
+
+    long maxWaitNanos = maxQueueWaitNanos;
+    Deadline deadline = Deadline.current();
+    if (deadline != null) {
+      maxWaitNanos = Math.min(maxWaitNanos, deadline.timeRemaining(TimeUnit.NANOSECONDS));
+    }
+
+    try {
+      if (!limiter.acquire(maxWaitNanos)) {
+        throw new ConcurrencyLimitExceededException(operation + " rejected, " + limiter.getLimit()
+                                                    + " calls already in flight");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting to send " + operation, e);
+    }
+
+    CallContext context = CallContext.current();
+    boolean attached = context == null;
+    if (attached) {
+      context = new CallContext();
+      CallContext.attach(context);
+    }
+    context.resetExchange();
+
+    long startNanos = System.nanoTime();
+    AdaptiveLimiter.Sample sample = AdaptiveLimiter.Sample.IGNORED;
+    try {
+      Object result = invocation.proceed();
+      sample = AdaptiveLimiter.Sample.SUCCESS;
+      return result;
+    } catch (DeadlineExceededException e) {
+      // A deadline that ran out before the request was sent, e.g. while queued behind this limit,
+      // says nothing about the API's capacity; counting it would shrink the limit on its own queueing.
+      if (context.isExchangeStarted()) {
+        sample = AdaptiveLimiter.Sample.DROPPED;
+      }
+      throw e;
+    } catch (RetrofitError e) {
+      // A cancelled call was cut short by its caller, not dropped by the API.
+      if (e.getKind() == RetrofitError.Kind.NETWORK && !Failures.isCancelled()) {
+        sample = AdaptiveLimiter.Sample.DROPPED;
+      }
+      throw e;
+    } finally {
+      limiter.release(System.nanoTime() - startNanos, sample);
+      if (attached) {
+        CallContext.attach(null);
+      }
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for adaptively limiting the calls in flight per operation.
+ *
+ * <p>
+ * Each operation starts at the initial limit. The limit grows by one for every limit's worth of
+ * calls that complete close to the fastest recently seen round trip, and is cut by the backoff
+ * ratio when round trips grow beyond the tolerance or calls time out (additive increase,
+ * multiplicative decrease).
+ */
+public final class ConcurrencyLimitPolicy {
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final double rttTolerance;
+  private final int maxQueueSize;
+  private final long maxQueueWaitNanos;
+
+  private ConcurrencyLimitPolicy(@NotNull final Builder builder) {
+    initialLimit = builder.initialLimit;
+    minLimit = builder.minLimit;
+    maxLimit = builder.maxLimit;
+    backoffRatio = builder.backoffRatio;
+    rttTolerance = builder.rttTolerance;
+    maxQueueSize = builder.maxQueueSize;
+    maxQueueWaitNanos = builder.maxQueueWaitNanos;
+  }
+
+  /**
+   * Gets the limit before any calls have completed.
+   *
+   * @return the initial limit
+   */
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  /**
+   * Gets the lowest the limit may drop to.
+   *
+   * @return the minimum limit
+   */
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /**
+   * Gets the highest the limit may grow to.
+   *
+   * @return the maximum limit
+   */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Gets the factor the limit is multiplied by when the API slows down.
+   *
+   * @return the backoff ratio
+   */
+  public double getBackoffRatio() {
+    return backoffRatio;
+  }
+
+  /**
+   * Gets how many times slower than the fastest recent round trip a call may be.
+   *
+   * @return the round trip tolerance
+   */
+  public double getRttTolerance() {
+    return rttTolerance;
+  }
+
+  /**
+   * Gets the maximum number of calls per operation waiting for a free slot.
+   *
+   * @return the maximum queue size
+   */
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Gets the maximum time a call may wait for a free slot.
+   *
+   * @param unit  the unit of the result
+   * @return the maximum wait
+   */
+  public long getMaxQueueWait(@NotNull final TimeUnit unit) {
+    return unit.convert(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * The builder used for constructing a {@link ConcurrencyLimitPolicy}.
+   */
+  public static class Builder {
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private double rttTolerance = 2;
+    private int maxQueueSize = 0;
+    private long maxQueueWaitNanos = 0;
+
+    /**
+     * Sets the bounds of the limit and where it starts. Defaults to starting at 20, between 1 and 200.
+     *
+     * @param initialLimit  the limit before any calls have completed
+     * @param minLimit  the lowest the limit may drop to
+     * @param maxLimit  the highest the limit may grow to
+     * @return this
+     */
+    @NotNull
+    public Builder setLimits(final int initialLimit, final int minLimit, final int maxLimit) {
+      if (minLimit < 1) {
+        throw new IllegalArgumentException("minLimit < 1");
+      }
+      if (initialLimit < minLimit || initialLimit > maxLimit) {
+        throw new IllegalArgumentException("initialLimit not in [minLimit, maxLimit]");
+      }
+      this.initialLimit = initialLimit;
+      this.minLimit = minLimit;
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * Sets the factor the limit is multiplied by when the API slows down. Defaults to 0.9.
+     *
+     * @param backoffRatio  the backoff ratio, between 0 and 1 (exclusive)
+     * @return this
+     */
+    @NotNull
+    public Builder setBackoffRatio(final double backoffRatio) {
+      if (!(backoffRatio > 0 && backoffRatio < 1)) {
+        throw new IllegalArgumentException("backoffRatio not in (0, 1)");
+      }
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    /**
+     * Sets how many times slower than the fastest recent round trip a call may be before it is taken
+     * as a sign of queueing and the limit is reduced. Defaults to 2.
+     *
+     * @param rttTolerance  the tolerance, at least 1
+     * @return this
+     */
+    @NotNull
+    public Builder setRttTolerance(final double rttTolerance) {
+      if (!(rttTolerance >= 1)) {
+        throw new IllegalArgumentException("rttTolerance < 1");
+      }
+      this.rttTolerance = rttTolerance;
+      return this;
+    }
+
+    /**
+     * Lets calls wait for a free slot when the limit is reached, instead of being rejected
+     * immediately. Calls beyond the queue size, or that wait longer than the maximum wait or their
+     * {@link Deadline}, are rejected. By default calls are never queued.
+     *
+     * @param maxQueueSize  the maximum number of waiting calls per operation, or 0 to reject immediately
+     * @param maxWait  the maximum time a call may wait
+     * @param unit  the unit of the maximum wait
+     * @return this
+     */
+    @NotNull
+    public Builder setQueue(final int maxQueueSize, final long maxWait, @NotNull final TimeUnit unit) {
+      if (maxQueueSize < 0) {
+        throw new IllegalArgumentException("maxQueueSize < 0");
+      }
+      if (maxWait < 0) {
+        throw new IllegalArgumentException("maxWait < 0");
+      }
+      this.maxQueueSize = maxQueueSize;
+      this.maxQueueWaitNanos = unit.toNanos(maxWait);
+      return this;
+    }
+
+    /**
+     * Creates a new {@link ConcurrencyLimitPolicy}.
+     *
+     * @return the new policy
+     */
+    @NotNull
+    public ConcurrencyLimitPolicy build() {
+      return new ConcurrencyLimitPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current concurrency limit, calls in flight and rejections of each operation of a client config.
+ */
+public final class ConcurrencyLimitStats {
+  private final Map<ApiOperation, AdaptiveLimiter> limiters;
+
+  ConcurrencyLimitStats(@NotNull final Map<ApiOperation, AdaptiveLimiter> limiters) {
+    this.limiters = limiters;
+  }
+
+  /**
+   * Gets the number of calls of an operation currently allowed in flight.
+   *
+   * @param operation  the operation
+   * @return the current limit, or 0 if calls are not limited
+   */
+  public int getLimit(@NotNull final ApiOperation operation) {
+    AdaptiveLimiter limiter = limiters.get(operation);
+    return limiter == null ? 0 : limiter.getLimit();
+  }
+
+  /**
+   * Gets the number of calls of an operation currently in flight. Only tracked while calls are limited.
+   *
+   * @param operation  the operation
+   * @return the calls in flight
+   */
+  public int getInFlight(@NotNull final ApiOperation operation) {
+    AdaptiveLimiter limiter = limiters.get(operation);
+    return limiter == null ? 0 : limiter.getInFlight();
+  }
+
+  /**
+   * Gets the number of calls of an operation rejected because the limit was reached.
+   *
+   * @param operation  the operation
+   * @return the number of rejected calls
+   */
+  public long getRejections(@NotNull final ApiOperation operation) {
+    AdaptiveLimiter limiter = limiters.get(operation);
+    return limiter == null ? 0 : limiter.getRejections();
+  }
+
+  /**
+   * Gets the fastest recent round trip of an operation, which the limit is adjusted against.
+   *
+   * @param operation  the operation
+   * @param unit  the unit of the result
+   * @return the baseline round trip, or 0 if none has been measured
+   */
+  public long getBaselineRtt(@NotNull final ApiOperation operation, @NotNull final TimeUnit unit) {
+    AdaptiveLimiter limiter = limiters.get(operation);
+    return limiter == null ? 0 : limiter.getBaselineRtt(unit);
+  }
+}
@@ -0,0 +1,248 @@
+package com.blockscore.net;
+
+import com.squareup.okhttp.Connection;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opens pooled connections to the API ahead of time and keeps them alive.
+ *
+ * <p>
+ * Each connection is opened by a lightweight HEAD request to the endpoint, carrying the calling
+ * API client's headers. The requests of a round run concurrently and each one holds on to its
+ * connection until the others have one, so that every request opens a connection of its own
+ * (with HTTP/2 they share one). A round reports the number of distinct connections it was sent on.
+ * The config's pool and the pool of each bulkhead are warmed alike.
+ */
+class ConnectionWarmer {
+  /**
+   * Records the connection of each ping, and holds on to it until every ping of the round has one.
+   */
+  private static final Interceptor HOLD_CONNECTION = new Interceptor() {
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+      Object tag = chain.request().tag();
+      if (tag instanceof Ping) {
+        Ping ping = (Ping) tag;
+        ping.round.connections.add(chain.connection());
+        ping.arrive();
+        try {
+          ping.round.arrived.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for the other connections");
+        }
+      }
+      return chain.proceed(chain.request());
+    }
+  };
+
+  private final List<Pool> pools = new ArrayList<Pool>();
+  private final String endpoint;
+  private final long healthCheckIntervalMillis;
+
+  private final ExecutorService executor =
+      Executors.newCachedThreadPool(new DaemonThreadFactory("blockscore-warmer"));
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("blockscore-warmer"));
+  private final AtomicReference<ScheduledFuture<?>> healthCheck = new AtomicReference<ScheduledFuture<?>>();
+
+  /**
+   * Creates a ConnectionWarmer.
+   *
+   * @param client  the config's OkHttp client
+   * @param bulkheads  the bulkheads, each with a connection pool of its own
+   * @param endpoint  the API endpoint
+   * @param healthCheckIntervalMillis  how often the connections are pinged, or 0 for never
+   */
+  ConnectionWarmer(@NotNull final OkHttpClient client, @NotNull final List<Bulkhead> bulkheads,
+                   @NotNull final String endpoint, final long healthCheckIntervalMillis) {
+    pools.add(new Pool(client, Integer.MAX_VALUE));
+    for (Bulkhead bulkhead : bulkheads) {
+      pools.add(new Pool(bulkhead.getHttpClient(), bulkhead.getMaxConcurrentCalls()));
+    }
+    this.endpoint = endpoint;
+    this.healthCheckIntervalMillis = healthCheckIntervalMillis;
+  }
+
+  /**
+   * Resolves the endpoint and opens the connections, blocking until they are established.
+   * Starts the background health checks if they are configured.
+   *
+   * @param connections  the number of connections to open in each pool, at most a bulkhead's size
+   * @param headers  the headers of the pings, e.g. the API client's authorization
+   * @return the number of distinct connections the pings were sent on
+   */
+  int warmUp(final int connections, @NotNull final Headers headers) {
+    if (connections < 1) {
+      throw new IllegalArgumentException("connections < 1");
+    }
+
+    try {
+      // Leaves the addresses in the JVM's cache, which OkHttp resolves through.
+      InetAddress.getAllByName(new URL(endpoint).getHost());
+    } catch (IOException e) {
+      // The HEAD requests below fail with the same error, which is reported through the count.
+    }
+
+    int opened = pingAll(connections, headers);
+    startHealthChecks(connections, headers);
+    return opened;
+  }
+
+  /**
+   * Warms up the connections on a background thread.
+   *
+   * @param connections  the number of connections to open in each pool, at most a bulkhead's size
+   * @param headers  the headers of the pings, e.g. the API client's authorization
+   * @return a future holding the number of distinct connections the pings were sent on
+   */
+  Future<Integer> warmUpAsync(final int connections, @NotNull final Headers headers) {
+    return executor.submit(new Callable<Integer>() {
+      @Override
+      public Integer call() {
+        return warmUp(connections, headers);
+      }
+    });
+  }
+
+  /**
+   * Stops the background health checks.
+   */
+  void stopHealthChecks() {
+    ScheduledFuture<?> current = healthCheck.getAndSet(null);
+    if (current != null) {
+      current.cancel(false);
+    }
+  }
+
+  private void startHealthChecks(final int connections, final Headers headers) {
+    if (healthCheckIntervalMillis <= 0) {
+      return;
+    }
+
+    ScheduledFuture<?> next = scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        pingAll(connections, headers);
+      }
+    }, healthCheckIntervalMillis, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+
+    ScheduledFuture<?> previous = healthCheck.getAndSet(next);
+    if (previous != null) {
+      previous.cancel(false);
+    }
+  }
+
+  private int pingAll(final int connections, final Headers headers) {
+    int opened = 0;
+    for (Pool pool : pools) {
+      opened += ping(pool, Math.min(connections, pool.maxConnections), headers);
+    }
+    return opened;
+  }
+
+  private int ping(final Pool pool, final int connections, final Headers headers) {
+    Round round = new Round(connections);
+    List<Future<?>> results = new ArrayList<Future<?>>(connections);
+    for (int i = 0; i < connections; i++) {
+      final Ping ping = new Ping(round);
+      final Request request = new Request.Builder().url(endpoint).headers(headers).head().tag(ping).build();
+      results.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws IOException {
+          try {
+            pool.client.newCall(request).execute().body().close();
+          } finally {
+            // A ping that failed to connect must not hold up the others.
+            ping.arrive();
+          }
+          return null;
+        }
+      }));
+    }
+
+    for (Future<?> result : results) {
+      try {
+        result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException e) {
+        // The connection is not counted.
+      }
+    }
+    return round.connections.size();
+  }
+
+  /**
+   * A connection pool to warm, pinged through a copy of its client that holds the connections.
+   */
+  private static final class Pool {
+    final OkHttpClient client;
+    final int maxConnections;
+
+    Pool(final OkHttpClient client, final int maxConnections) {
+      // The copy shares the client's connection pool and settings.
+      this.client = client.clone();
+      this.client.networkInterceptors().add(HOLD_CONNECTION);
+      this.maxConnections = maxConnections;
+    }
+  }
+
+  /**
+   * The pings sent to a pool at once, and the connections they were sent on.
+   */
+  private static final class Round {
+    final Set<Connection> connections = Collections.synchronizedSet(
+        Collections.newSetFromMap(new IdentityHashMap<Connection, Boolean>()));
+    final CountDownLatch arrived;
+
+    Round(final int pings) {
+      arrived = new CountDownLatch(pings);
+    }
+  }
+
+  /**
+   * One ping of a round, which arrives once it has a connection or has failed.
+   */
+  private static final class Ping {
+    final Round round;
+    private final AtomicBoolean arrived = new AtomicBoolean();
+
+    Ping(final Round round) {
+      this.round = round;
+    }
+
+    void arrive() {
+      if (arrived.compareAndSet(false, true)) {
+        round.arrived.countDown();
+      }
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates numbered daemon threads, so background work never keeps the JVM alive.
+ */
+class DaemonThreadFactory implements ThreadFactory {
+  private final String namePrefix;
+  private final AtomicInteger count = new AtomicInteger();
+
+  /**
+   * Creates a DaemonThreadFactory.
+   *
+   * @param namePrefix  the prefix of the thread names, followed by a dash and the thread number
+   */
+  DaemonThreadFactory(@NotNull final String namePrefix) {
+    this.namePrefix = namePrefix;
+  }
+
+  @Override
+  public Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, namePrefix + "-" + count.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+}
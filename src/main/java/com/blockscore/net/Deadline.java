@@ -0,0 +1,117 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which API calls must complete.
+ *
+ * <p>
+ * A deadline applies to every call made on the thread it is attached to, so a flow of several calls
+ * shares one budget instead of each call getting a fresh timeout:
+ *
+ * <pre>{@code
+ * try (Deadline.Scope scope = Deadline.after(10, TimeUnit.SECONDS).attach()) {
+ *   QuestionSet questionSet = person.createQuestionSet();
+ *   questionSet.score(answers);
+ * }
+ * }</pre>
+ *
+ * Calls made once the deadline has passed fail with a
+ * {@link com.blockscore.exceptions.DeadlineExceededException} without being sent.
+ */
+public final class Deadline {
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+  // Keeps nanoTime arithmetic from overflowing for effectively unbounded deadlines.
+  private static final long MAX_NANOS = TimeUnit.DAYS.toNanos(365);
+
+  private final long deadlineNanos;
+
+  private Deadline(final long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /**
+   * Creates a deadline the given amount of time from now.
+   *
+   * @param duration  the time until the deadline
+   * @param unit  the unit of the duration
+   * @return the deadline
+   */
+  @NotNull
+  public static Deadline after(final long duration, @NotNull final TimeUnit unit) {
+    if (duration < 0) {
+      throw new IllegalArgumentException("duration < 0");
+    }
+    return new Deadline(System.nanoTime() + Math.min(unit.toNanos(duration), MAX_NANOS));
+  }
+
+  /**
+   * Gets the deadline attached to the current thread.
+   *
+   * @return the current deadline, or null if there is none
+   */
+  @Nullable
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Gets the time left until the deadline.
+   *
+   * @param unit  the unit of the result
+   * @return the remaining time, or 0 if the deadline has passed
+   */
+  public long timeRemaining(@NotNull final TimeUnit unit) {
+    long remaining = deadlineNanos - System.nanoTime();
+    return remaining > 0 ? unit.convert(remaining, TimeUnit.NANOSECONDS) : 0;
+  }
+
+  /**
+   * Whether or not the deadline has passed.
+   *
+   * @return true if the deadline has passed
+   */
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+
+  /**
+   * Attaches this deadline to the current thread until the returned scope is closed. If the thread
+   * already has an earlier deadline, the earlier one stays in effect.
+   *
+   * @return the scope to close once the calls are done
+   */
+  @NotNull
+  public Scope attach() {
+    Deadline previous = CURRENT.get();
+    if (previous == null || deadlineNanos - previous.deadlineNanos < 0) {
+      CURRENT.set(this);
+    }
+    return new Scope(previous);
+  }
+
+  /**
+   * Restores the deadline that was in effect before {@link Deadline#attach()} when closed.
+   */
+  public static final class Scope implements AutoCloseable {
+    @Nullable
+    private final Deadline previous;
+
+    private Scope(@Nullable final Deadline previous) {
+      this.previous = previous;
+    }
+
+    @Override
+    public void close() {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+}
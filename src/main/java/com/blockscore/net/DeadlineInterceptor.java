@@ -0,0 +1,80 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.DeadlineExceededException;
+
+import org.jetbrains.annotations.NotNull;
+import retrofit.RetrofitError;
+
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds each call by the smaller of its operation's timeout and the time left on the thread's
+ * {@link Deadline}, and passes that budget to the transport.
+ */
+class DeadlineInterceptor implements InvocationInterceptor {
+  private final Map<ApiOperation, Long> timeoutNanos;
+
+  /**
+   * Creates a DeadlineInterceptor.
+   *
+   * @param timeoutNanos  the timeout of each operation that has one, in nanoseconds
+   */
+  DeadlineInterceptor(@NotNull final Map<ApiOperation, Long> timeoutNanos) {
+    this.timeoutNanos = timeoutNanos;
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    ApiOperation operation = invocation.getOperation();
+    Long operationTimeout = timeoutNanos.get(operation);
+    long budget = operationTimeout == null ? 0 : operationTimeout;
+
+    Deadline deadline = Deadline.current();
+    if (deadline != null) {
+      long remaining = deadline.timeRemaining(TimeUnit.NANOSECONDS);
+      if (remaining == 0) {
+        throw new DeadlineExceededException("Deadline expired before " + operation + " was sent");
+      }
+      budget = budget == 0 ? remaining : Math.min(budget, remaining);
+    }
+
+    if (budget == 0) {
+      return invocation.proceed();
+    }
+
+    CallContext context = CallContext.current();
+    boolean attached = context == null;
+    if (attached) {
+      context = new CallContext();
+      CallContext.attach(context);
+    }
+
+    context.setTimeoutNanos(budget);
+    long startNanos = System.nanoTime();
+    try {
+      return invocation.proceed();
+    } catch (RetrofitError e) {
+      if (e.getKind() == RetrofitError.Kind.NETWORK
+          && (context.isTimedOut() || isBudgetTimeout(e, startNanos, budget))) {
+        throw new DeadlineExceededException(operation + " did not complete within "
+                                            + TimeUnit.NANOSECONDS.toMillis(budget) + " ms", e);
+      }
+      throw e;
+    } finally {
+      context.setTimeoutNanos(0);
+      if (attached) {
+        CallContext.attach(null);
+      }
+    }
+  }
+
+  /**
+   * Whether or not a socket timed out because its timeout was capped at the call's budget, as
+   * opposed to one of the transport's own, shorter timeouts elapsing.
+   */
+  private static boolean isBudgetTimeout(final RetrofitError e, final long startNanos, final long budget) {
+    return e.getCause() instanceof SocketTimeoutException && System.nanoTime() - startNanos >= budget;
+  }
+}
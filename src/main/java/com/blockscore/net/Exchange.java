@@ -0,0 +1,67 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One HTTP request and response sent by a {@link Transport}: how long it may take, and how to
+ * abort it.
+ */
+public final class Exchange {
+  private final long timeoutNanos;
+  private final AtomicReference<Runnable> canceller = new AtomicReference<Runnable>();
+  private volatile boolean cancelled;
+
+  Exchange(final long timeoutNanos) {
+    this.timeoutNanos = timeoutNanos;
+  }
+
+  /**
+   * Gets the time the whole exchange may take, or 0 to use the transport's own timeouts. The
+   * exchange is cancelled when it runs out, but transports should also cap their connect, read and
+   * write timeouts at it.
+   *
+   * @param unit  the unit of the result
+   * @return the timeout
+   */
+  public long getTimeout(@NotNull final TimeUnit unit) {
+    return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Sets the action aborting the request, e.g. closing its connection. The action runs at most once,
+   * on the cancelling thread, or straight away if the exchange has already been cancelled.
+   *
+   * @param canceller  the action aborting the request
+   */
+  public void onCancel(@NotNull final Runnable canceller) {
+    this.canceller.set(canceller);
+    if (cancelled) {
+      runCanceller();
+    }
+  }
+
+  /**
+   * Whether or not the exchange was cancelled.
+   *
+   * @return true if cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  void cancel() {
+    cancelled = true;
+    runCanceller();
+  }
+
+  private void runCanceller() {
+    // Taking the action out first keeps it from running twice when cancel and onCancel race.
+    Runnable current = canceller.getAndSet(null);
+    if (current != null) {
+      current.run();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import retrofit.RetrofitError;
+import retrofit.client.Response;
+
+/**
+ * Classifies call failures.
+ */
+final class Failures {
+  private Failures() {
+    // Static helpers only.
+  }
+
+  /**
+   * Whether or not the call running on the current thread was cancelled by its caller, or the
+   * thread was interrupted. The transport reports a cancelled exchange as a connection error, and
+   * the limits waiting for a permit report an interrupt as a plain RuntimeException, neither of
+   * which says anything about the API's health.
+   *
+   * @return true if the current call was cancelled or interrupted
+   */
+  static boolean isCancelled() {
+    CallContext context = CallContext.current();
+    return context != null && context.isCancelled() || Thread.currentThread().isInterrupted();
+  }
+
+  /**
+   * Whether or not a failure was a connection error or a server error that is likely to go away
+   * (HTTP 500, 502, 503 or 504). The API exceptions keep the Retrofit error as their cause. A call
+   * cancelled by its caller never failed transiently.
+   *
+   * @param failure  the failure
+   * @return true for transient failures
+   */
+  static boolean isTransient(@NotNull final Throwable failure) {
+    if (isCancelled()) {
+      return false;
+    }
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof RetrofitError) {
+        RetrofitError error = (RetrofitError) cause;
+        if (error.getKind() == RetrofitError.Kind.NETWORK) {
+          return true;
+        }
+        Response response = error.getResponse();
+        if (error.getKind() != RetrofitError.Kind.HTTP || response == null) {
+          return false;
+        }
+        int status = response.getStatus();
+        return status == 500 || status == 502 || status == 503 || status == 504;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,261 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedges read-only calls: if a call has not completed once it is slower than the configured
+ * percentile of recent calls, the same request is sent again and the first response wins. The
+ * other request is cancelled.
+ *
+ * <p>
+ * The first request runs on the caller's thread, so calls that are not hedged pay for no thread
+ * handoff; the hedge runs on the library's shared pool of daemon threads. Both requests carry the caller's
+ * {@link Deadline} and are cancelled along with the caller's call. Hedges draw from a
+ * {@link TokenBudget}, which bounds the extra load to the configured ratio.
+ */
+class HedgingInterceptor implements InvocationInterceptor {
+  private static final int MAX_BUDGET_HEDGES = 10;
+  private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+  private final long minDelayNanos;
+  private final TokenBudget budget;
+  private final HedgingStats stats;
+  private final Map<ApiOperation, LatencyWindow> latencies =
+      new EnumMap<ApiOperation, LatencyWindow>(ApiOperation.class);
+
+  /**
+   * Creates a HedgingInterceptor.
+   *
+   * @param policy  the hedging settings
+   * @param stats  the stats to record hedges in
+   */
+  HedgingInterceptor(@NotNull final HedgingPolicy policy, @NotNull final HedgingStats stats) {
+    this.minDelayNanos = policy.getMinDelay(TimeUnit.NANOSECONDS);
+    this.budget = new TokenBudget(policy.getMaxHedgeRatio(), MAX_BUDGET_HEDGES);
+    this.stats = stats;
+    for (ApiOperation operation : ApiOperation.values()) {
+      if (operation.isReadOnly()) {
+        latencies.put(operation, new LatencyWindow(policy.getDelayPercentile()));
+      }
+    }
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    LatencyWindow window = latencies.get(invocation.getOperation());
+    if (window == null) {
+      return invocation.proceed();
+    }
+    budget.deposit();
+
+    long thresholdNanos = window.getPercentileNanos();
+    if (thresholdNanos < 0) {
+      // Too few calls to know what slow means yet.
+      long startNanos = System.nanoTime();
+      Object result = invocation.proceed();
+      window.record(System.nanoTime() - startNanos);
+      return result;
+    }
+
+    final HedgedCall call = new HedgedCall(invocation);
+    ScheduledFuture<?> trigger = TIMER.schedule(new Runnable() {
+      @Override
+      public void run() {
+        call.startHedge();
+      }
+    }, Math.max(thresholdNanos, minDelayNanos), TimeUnit.NANOSECONDS);
+    try {
+      call.primary.run();
+    } finally {
+      trigger.cancel(false);
+    }
+
+    Attempt winner = call.awaitWinner();
+    if (call.parent != null) {
+      call.parent.setResponseBytes(winner.context.getResponseBytes());
+      if (winner.context.isExchangeStarted()) {
+        call.parent.markExchangeStarted(winner.context.getExchangeStartNanos());
+      }
+    }
+    if (winner.failure != null) {
+      if (winner.failure instanceof Error) {
+        throw (Error) winner.failure;
+      }
+      throw (RuntimeException) winner.failure;
+    }
+    if (winner != call.primary) {
+      stats.recordHedgeWin();
+    }
+    window.record(winner.latencyNanos);
+    return winner.result;
+  }
+
+  private static ScheduledThreadPoolExecutor createTimer() {
+    ScheduledThreadPoolExecutor timer =
+        new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("blockscore-hedge-timer"));
+    timer.setRemoveOnCancelPolicy(true);
+    return timer;
+  }
+
+  /**
+   * The requests sent for one hedged call.
+   */
+  private final class HedgedCall {
+    @Nullable
+    final CallContext parent = CallContext.current();
+
+    @Nullable
+    private final Deadline deadline = Deadline.current();
+
+    final Invocation invocation;
+    final Attempt primary;
+
+    // Holds the hedge once it is sent. The caller claims an empty slot with the primary itself once
+    // the primary has returned, which shuts out a hedge that would start too late.
+    private final AtomicReference<Attempt> hedge = new AtomicReference<Attempt>();
+
+    // The first request to succeed.
+    private final AtomicReference<Attempt> winner = new AtomicReference<Attempt>();
+
+    HedgedCall(@NotNull final Invocation invocation) {
+      this.invocation = invocation;
+      this.primary = new Attempt(this, newContext(), deadline);
+    }
+
+    /**
+     * Sends the hedge on a background thread, unless the first request has already completed.
+     */
+    void startHedge() {
+      if (primary.isDone() || primary.context.isCancelled()) {
+        return;
+      }
+      if (!budget.tryWithdraw()) {
+        stats.recordBudgetExhausted();
+        return;
+      }
+      Attempt started = new Attempt(this, newContext(), deadline);
+      if (!hedge.compareAndSet(null, started)) {
+        // The first request returned in the meantime.
+        return;
+      }
+      stats.recordHedge();
+      try {
+        BlockscoreExecutors.DEFAULT_EXECUTOR.execute(started);
+      } catch (RejectedExecutionException e) {
+        started.complete(null, e, 0);
+      }
+    }
+
+    void onSuccess(@NotNull final Attempt attempt) {
+      if (winner.compareAndSet(null, attempt) && attempt != primary) {
+        // The hedge won, so the first request is cut short to free the caller's thread.
+        primary.context.cancel();
+      }
+    }
+
+    /**
+     * Picks the result once the first request has returned: whichever request succeeded first, or
+     * the first request's failure if neither did.
+     */
+    @NotNull
+    Attempt awaitWinner() {
+      if (hedge.compareAndSet(null, primary)) {
+        primary.context.detach();
+        return primary;
+      }
+      Attempt other = hedge.get();
+      if (winner.get() == null) {
+        try {
+          other.done.await();
+        } catch (InterruptedException e) {
+          other.context.cancel();
+          detachAll(other);
+          Thread.currentThread().interrupt();
+          throw new RuntimeException("Interrupted while waiting for " + invocation.getOperation(), e);
+        }
+      }
+      Attempt first = winner.get();
+      if (first == primary) {
+        other.context.cancel();
+      }
+      detachAll(other);
+      return first == null ? primary : first;
+    }
+
+    private void detachAll(@NotNull final Attempt other) {
+      primary.context.detach();
+      other.context.detach();
+    }
+
+    @NotNull
+    private CallContext newContext() {
+      return parent == null ? new CallContext() : parent.newChild();
+    }
+  }
+
+  /**
+   * One of the requests of a hedged call.
+   */
+  private static final class Attempt implements Runnable {
+    private final HedgedCall call;
+    private final CallContext context;
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    @Nullable
+    private final Deadline deadline;
+
+    private volatile Object result;
+    private volatile Throwable failure;
+    private volatile long latencyNanos;
+
+    Attempt(@NotNull final HedgedCall call, @NotNull final CallContext context, @Nullable final Deadline deadline) {
+      this.call = call;
+      this.context = context;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+      long startNanos = System.nanoTime();
+      Deadline.Scope scope = deadline == null || deadline == Deadline.current() ? null : deadline.attach();
+      CallContext previous = CallContext.attach(context);
+      Object attemptResult = null;
+      Throwable attemptFailure = null;
+      try {
+        attemptResult = call.invocation.proceed();
+      } catch (RuntimeException | Error e) {
+        attemptFailure = e;
+      } finally {
+        CallContext.attach(previous);
+        if (scope != null) {
+          scope.close();
+        }
+      }
+      complete(attemptResult, attemptFailure, System.nanoTime() - startNanos);
+    }
+
+    boolean isDone() {
+      return done.getCount() == 0;
+    }
+
+    void complete(final Object attemptResult, final Throwable attemptFailure, final long attemptNanos) {
+      result = attemptResult;
+      failure = attemptFailure;
+      latencyNanos = attemptNanos;
+      if (attemptFailure == null) {
+        call.onSuccess(this);
+      }
+      done.countDown();
+    }
+  }
+}
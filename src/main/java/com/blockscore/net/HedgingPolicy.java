@@ -0,0 +1,118 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for hedging read-only calls: when a call is slower than most recent calls of the same
+ * operation, a second identical request is sent and whichever response arrives first is used.
+ */
+public final class HedgingPolicy {
+  private final double delayPercentile;
+  private final long minDelayNanos;
+  private final double maxHedgeRatio;
+
+  private HedgingPolicy(@NotNull final Builder builder) {
+    delayPercentile = builder.delayPercentile;
+    minDelayNanos = builder.minDelayNanos;
+    maxHedgeRatio = builder.maxHedgeRatio;
+  }
+
+  /**
+   * Gets the latency percentile after which a hedge is sent.
+   *
+   * @return the percentile, between 0 and 100
+   */
+  public double getDelayPercentile() {
+    return delayPercentile;
+  }
+
+  /**
+   * Gets the minimum time to wait before sending a hedge.
+   *
+   * @param unit  the unit of the result
+   * @return the minimum delay
+   */
+  public long getMinDelay(@NotNull final TimeUnit unit) {
+    return unit.convert(minDelayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gets the maximum number of hedges sent per eligible call.
+   *
+   * @return the hedge ratio, between 0 and 1
+   */
+  public double getMaxHedgeRatio() {
+    return maxHedgeRatio;
+  }
+
+  /**
+   * The builder used for constructing a {@link HedgingPolicy}.
+   */
+  public static class Builder {
+    private double delayPercentile = 95;
+    private long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private double maxHedgeRatio = 0.05;
+
+    /**
+     * Sets the latency percentile of recent calls after which a hedge is sent. For instance at 95,
+     * calls slower than 95% of recent calls to the same operation are hedged. Defaults to 95.
+     *
+     * @param delayPercentile  the percentile, between 0 (exclusive) and 100
+     * @return this
+     */
+    @NotNull
+    public Builder setDelayPercentile(final double delayPercentile) {
+      if (!(delayPercentile > 0 && delayPercentile <= 100)) {
+        throw new IllegalArgumentException("delayPercentile not in (0, 100]");
+      }
+      this.delayPercentile = delayPercentile;
+      return this;
+    }
+
+    /**
+     * Sets the minimum time to wait before sending a hedge, however fast recent calls were.
+     * Defaults to 10 milliseconds.
+     *
+     * @param delay  the minimum delay
+     * @param unit  the unit of the delay
+     * @return this
+     */
+    @NotNull
+    public Builder setMinDelay(final long delay, @NotNull final TimeUnit unit) {
+      if (delay < 0) {
+        throw new IllegalArgumentException("delay < 0");
+      }
+      this.minDelayNanos = unit.toNanos(delay);
+      return this;
+    }
+
+    /**
+     * Sets the budget of hedges as a share of eligible calls. At 0.05 at most one call in twenty is
+     * hedged, over time. Since a call is hedged at most once, the load on the API never more than
+     * doubles. Defaults to 0.05.
+     *
+     * @param maxHedgeRatio  the share of calls that may be hedged, between 0 and 1
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxHedgeRatio(final double maxHedgeRatio) {
+      if (!(maxHedgeRatio >= 0 && maxHedgeRatio <= 1)) {
+        throw new IllegalArgumentException("maxHedgeRatio not in [0, 1]");
+      }
+      this.maxHedgeRatio = maxHedgeRatio;
+      return this;
+    }
+
+    /**
+     * Creates a new {@link HedgingPolicy}.
+     *
+     * @return the new policy
+     */
+    @NotNull
+    public HedgingPolicy build() {
+      return new HedgingPolicy(this);
+    }
+  }
+}
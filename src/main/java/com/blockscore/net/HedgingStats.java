@@ -0,0 +1,65 @@
+package com.blockscore.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the calls hedged by a client config and which request won each race.
+ */
+public final class HedgingStats {
+  private final AtomicLong hedgedCalls = new AtomicLong();
+  private final AtomicLong hedgeWins = new AtomicLong();
+  private final AtomicLong budgetExhausted = new AtomicLong();
+
+  HedgingStats() {
+    // Only created by ClientConfig.
+  }
+
+  void recordHedge() {
+    hedgedCalls.incrementAndGet();
+  }
+
+  void recordHedgeWin() {
+    hedgeWins.incrementAndGet();
+  }
+
+  void recordBudgetExhausted() {
+    budgetExhausted.incrementAndGet();
+  }
+
+  /**
+   * Gets the number of calls for which a hedge was sent.
+   *
+   * @return the number of hedged calls
+   */
+  public long getHedgedCalls() {
+    return hedgedCalls.get();
+  }
+
+  /**
+   * Gets the number of hedged calls that were answered by the hedge rather than the original request.
+   *
+   * @return the number of hedge wins
+   */
+  public long getHedgeWins() {
+    return hedgeWins.get();
+  }
+
+  /**
+   * Gets the share of hedged calls that were answered by the hedge.
+   *
+   * @return the hedge win rate, between 0 and 1
+   */
+  public double getHedgeWinRate() {
+    long hedged = hedgedCalls.get();
+    return hedged == 0 ? 0 : (double) hedgeWins.get() / hedged;
+  }
+
+  /**
+   * Gets the number of slow calls that were not hedged because the hedging budget was used up.
+   *
+   * @return the number of calls not hedged for lack of budget
+   */
+  public long getBudgetExhausted() {
+    return budgetExhausted.get();
+  }
+}
@@ -0,0 +1,41 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The idempotency key of the call running on the current thread, shared by all of its attempts.
+ */
+final class IdempotencyKey {
+  private static final ThreadLocal<String> CURRENT = new ThreadLocal<String>();
+
+  private IdempotencyKey() {
+    // Static helpers only.
+  }
+
+  /**
+   * Gets the idempotency key of the current call.
+   *
+   * @return the key, or null if the call has none
+   */
+  @Nullable
+  static String current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Sets the idempotency key of the current call.
+   *
+   * @param key  the key, or null to clear it
+   * @return the previous key, to restore afterwards
+   */
+  @Nullable
+  static String set(@Nullable final String key) {
+    String previous = CURRENT.get();
+    if (key == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(key);
+    }
+    return previous;
+  }
+}
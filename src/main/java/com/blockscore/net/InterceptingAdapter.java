@@ -0,0 +1,52 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Routes calls to a {@link BlockscoreRestAdapter} through a list of {@link InvocationInterceptor}s
+ * before they reach Retrofit.
+ */
+final class InterceptingAdapter implements InvocationHandler {
+  private final BlockscoreRestAdapter target;
+  private final InvocationInterceptor[] interceptors;
+
+  private InterceptingAdapter(@NotNull final BlockscoreRestAdapter target,
+                              @NotNull final List<InvocationInterceptor> interceptors) {
+    this.target = target;
+    this.interceptors = interceptors.toArray(new InvocationInterceptor[interceptors.size()]);
+  }
+
+  /**
+   * Wraps an adapter so that every API call runs through the interceptors, outermost first.
+   *
+   * @param target  the Retrofit adapter
+   * @param interceptors  the interceptors, in the order they run
+   * @return the intercepting adapter
+   */
+  @NotNull
+  static BlockscoreRestAdapter wrap(@NotNull final BlockscoreRestAdapter target,
+                                    @NotNull final List<InvocationInterceptor> interceptors) {
+    return (BlockscoreRestAdapter) Proxy.newProxyInstance(BlockscoreRestAdapter.class.getClassLoader(),
+                                                          new Class<?>[] { BlockscoreRestAdapter.class },
+                                                          new InterceptingAdapter(target, interceptors));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    ApiOperation operation = ApiOperation.forMethodName(method.getName());
+    if (operation == null || method.getDeclaringClass() == Object.class) {
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+    return new Invocation(operation, method, args, target, interceptors, 0).proceed();
+  }
+}
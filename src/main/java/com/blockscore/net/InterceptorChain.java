@@ -0,0 +1,270 @@
+package com.blockscore.net;
+
+import com.squareup.okhttp.OkHttpClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The invocation interceptors of a {@link ClientConfig}, in the order they run, along with the
+ * stats they record and the state they share with the transport.
+ */
+final class InterceptorChain {
+  private final List<InvocationInterceptor> interceptors;
+  private final List<Bulkhead> bulkheads;
+  private final HedgingStats hedgingStats = new HedgingStats();
+  private final RetryStats retryStats = new RetryStats();
+  private final CoalescingStats coalescingStats = new CoalescingStats();
+  private final ConcurrencyLimitStats concurrencyLimitStats;
+  private final RateLimitStats rateLimitStats;
+  private final CircuitBreakerStats circuitBreakerStats;
+  private final Map<String, BulkheadStats> bulkheadStats;
+
+  @Nullable
+  private final String idempotencyKeyHeader;
+
+  @Nullable
+  private final RateLimiter rateLimiter;
+
+  private InterceptorChain(@NotNull final Builder builder) {
+    // Interceptors run outermost first; the deadline interceptor must stay last so that it sees
+    // each individual request.
+    List<InvocationInterceptor> chain = new ArrayList<InvocationInterceptor>();
+    if (builder.requestCoalescingEnabled) {
+      // Outermost, so that coalesced calls take no retry budget, permits or rate limit slots.
+      chain.add(new CoalescingInterceptor(coalescingStats));
+    }
+    if (builder.retryPolicy != null) {
+      // Outside of the rate limit, so that every attempt waits for its own slot.
+      chain.add(new RetryInterceptor(builder.retryPolicy, retryStats));
+      idempotencyKeyHeader = builder.retryPolicy.getIdempotencyKeyHeader();
+    } else {
+      idempotencyKeyHeader = null;
+    }
+    Map<ApiOperation, CircuitBreaker> breakers = new EnumMap<ApiOperation, CircuitBreaker>(ApiOperation.class);
+    if (builder.circuitBreakerPolicy != null) {
+      // Inside of the retries, so that an open breaker also stops them, and outside of the rate
+      // limit, so that rejected calls do not use up its slots.
+      for (ApiOperation operation : ApiOperation.values()) {
+        breakers.put(operation, new CircuitBreaker(operation, builder.circuitBreakerPolicy));
+      }
+      chain.add(new CircuitBreakerInterceptor(breakers, builder.circuitBreakerPolicy));
+    }
+    circuitBreakerStats = new CircuitBreakerStats(breakers);
+
+    if (builder.hedgingPolicy != null) {
+      // Outside of the bulkhead, rate limit and concurrency limit, so that a hedge takes a permit
+      // and a slot of its own like any other request.
+      chain.add(new HedgingInterceptor(builder.hedgingPolicy, hedgingStats));
+    }
+
+    Map<ApiOperation, Bulkhead> bulkheadsByOperation = new EnumMap<ApiOperation, Bulkhead>(ApiOperation.class);
+    Map<String, BulkheadStats> bulkheadStatsByName = new LinkedHashMap<String, BulkheadStats>();
+    List<Bulkhead> bulkheadList = new ArrayList<Bulkhead>();
+    for (BulkheadPolicy policy : builder.bulkheadPolicies) {
+      Bulkhead bulkhead = new Bulkhead(policy, builder.httpClient, builder.keepAliveMillis);
+      bulkheadList.add(bulkhead);
+      for (ApiOperation operation : policy.getOperations()) {
+        bulkheadsByOperation.put(operation, bulkhead);
+      }
+      bulkheadStatsByName.put(policy.getName(), new BulkheadStats(bulkhead));
+    }
+    if (!bulkheadsByOperation.isEmpty()) {
+      // Inside of the breaker, so that rejected calls take no permits, and outside of the rate limit
+      // and concurrency limit, so that calls queued there only hold up their own bulkhead.
+      chain.add(new BulkheadInterceptor(bulkheadsByOperation));
+    }
+    bulkheads = Collections.unmodifiableList(bulkheadList);
+    bulkheadStats = Collections.unmodifiableMap(bulkheadStatsByName);
+
+    if (builder.rateLimitPolicy != null) {
+      rateLimiter = new RateLimiter(builder.rateLimitPolicy);
+      chain.add(new RateLimitInterceptor(rateLimiter, builder.rateLimitPolicy));
+    } else {
+      rateLimiter = null;
+    }
+    rateLimitStats = new RateLimitStats(rateLimiter);
+
+    Map<ApiOperation, AdaptiveLimiter> limiters = new EnumMap<ApiOperation, AdaptiveLimiter>(ApiOperation.class);
+    if (builder.concurrencyLimitPolicy != null) {
+      for (ApiOperation operation : ApiOperation.values()) {
+        limiters.put(operation, new AdaptiveLimiter(builder.concurrencyLimitPolicy));
+      }
+      chain.add(new ConcurrencyLimitInterceptor(limiters, builder.concurrencyLimitPolicy));
+    }
+    concurrencyLimitStats = new ConcurrencyLimitStats(limiters);
+
+    chain.add(new DeadlineInterceptor(new EnumMap<ApiOperation, Long>(builder.operationTimeoutNanos)));
+    interceptors = Collections.unmodifiableList(chain);
+  }
+
+  /**
+   * Gets the interceptors, outermost first.
+   *
+   * @return the interceptors
+   */
+  @NotNull
+  List<InvocationInterceptor> getInterceptors() {
+    return interceptors;
+  }
+
+  /**
+   * Gets the bulkheads, in the order they were added.
+   *
+   * @return the bulkheads
+   */
+  @NotNull
+  List<Bulkhead> getBulkheads() {
+    return bulkheads;
+  }
+
+  @NotNull
+  HedgingStats getHedgingStats() {
+    return hedgingStats;
+  }
+
+  @NotNull
+  RetryStats getRetryStats() {
+    return retryStats;
+  }
+
+  @NotNull
+  CoalescingStats getCoalescingStats() {
+    return coalescingStats;
+  }
+
+  @NotNull
+  ConcurrencyLimitStats getConcurrencyLimitStats() {
+    return concurrencyLimitStats;
+  }
+
+  @NotNull
+  RateLimitStats getRateLimitStats() {
+    return rateLimitStats;
+  }
+
+  @NotNull
+  CircuitBreakerStats getCircuitBreakerStats() {
+    return circuitBreakerStats;
+  }
+
+  @NotNull
+  Map<String, BulkheadStats> getBulkheadStats() {
+    return bulkheadStats;
+  }
+
+  @Nullable
+  String getIdempotencyKeyHeader() {
+    return idempotencyKeyHeader;
+  }
+
+  @Nullable
+  RateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * The builder used for constructing an {@link InterceptorChain}. Policies left unset leave their
+   * interceptor out of the chain.
+   */
+  static final class Builder {
+    private final OkHttpClient httpClient;
+    private final long keepAliveMillis;
+    private boolean requestCoalescingEnabled;
+    private final List<BulkheadPolicy> bulkheadPolicies = new ArrayList<BulkheadPolicy>();
+    private final Map<ApiOperation, Long> operationTimeoutNanos =
+        new EnumMap<ApiOperation, Long>(ApiOperation.class);
+
+    @Nullable
+    private RetryPolicy retryPolicy;
+
+    @Nullable
+    private CircuitBreakerPolicy circuitBreakerPolicy;
+
+    @Nullable
+    private HedgingPolicy hedgingPolicy;
+
+    @Nullable
+    private RateLimitPolicy rateLimitPolicy;
+
+    @Nullable
+    private ConcurrencyLimitPolicy concurrencyLimitPolicy;
+
+    /**
+     * Creates a Builder.
+     *
+     * @param httpClient  the client whose transport the bulkheads' own clients share
+     * @param keepAliveMillis  how long the bulkheads' idle connections are kept
+     */
+    Builder(@NotNull final OkHttpClient httpClient, final long keepAliveMillis) {
+      this.httpClient = httpClient;
+      this.keepAliveMillis = keepAliveMillis;
+    }
+
+    @NotNull
+    Builder setRequestCoalescingEnabled(final boolean requestCoalescingEnabled) {
+      this.requestCoalescingEnabled = requestCoalescingEnabled;
+      return this;
+    }
+
+    @NotNull
+    Builder setRetryPolicy(@Nullable final RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    @NotNull
+    Builder setCircuitBreakerPolicy(@Nullable final CircuitBreakerPolicy circuitBreakerPolicy) {
+      this.circuitBreakerPolicy = circuitBreakerPolicy;
+      return this;
+    }
+
+    @NotNull
+    Builder setHedgingPolicy(@Nullable final HedgingPolicy hedgingPolicy) {
+      this.hedgingPolicy = hedgingPolicy;
+      return this;
+    }
+
+    @NotNull
+    Builder setBulkheadPolicies(@NotNull final List<BulkheadPolicy> bulkheadPolicies) {
+      this.bulkheadPolicies.clear();
+      this.bulkheadPolicies.addAll(bulkheadPolicies);
+      return this;
+    }
+
+    @NotNull
+    Builder setRateLimitPolicy(@Nullable final RateLimitPolicy rateLimitPolicy) {
+      this.rateLimitPolicy = rateLimitPolicy;
+      return this;
+    }
+
+    @NotNull
+    Builder setConcurrencyLimitPolicy(@Nullable final ConcurrencyLimitPolicy concurrencyLimitPolicy) {
+      this.concurrencyLimitPolicy = concurrencyLimitPolicy;
+      return this;
+    }
+
+    @NotNull
+    Builder setOperationTimeouts(@NotNull final Map<ApiOperation, Long> operationTimeoutNanos) {
+      this.operationTimeoutNanos.clear();
+      this.operationTimeoutNanos.putAll(operationTimeoutNanos);
+      return this;
+    }
+
+    /**
+     * Creates a new {@link InterceptorChain}.
+     *
+     * @return the new chain
+     */
+    @NotNull
+    InterceptorChain build() {
+      return new InterceptorChain(this);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * A call to a {@link BlockscoreRestAdapter} method on its way through the {@link InvocationInterceptor}s.
+ *
+ * <p>
+ * Invocations are immutable, so {@link #proceed()} may be called more than once (e.g. to retry) and
+ * from any thread.
+ */
+final class Invocation {
+  private final ApiOperation operation;
+  private final Method method;
+  private final Object[] args;
+  private final BlockscoreRestAdapter target;
+  private final InvocationInterceptor[] interceptors;
+  private final int index;
+
+  Invocation(@NotNull final ApiOperation operation, @NotNull final Method method, final Object[] args,
+             @NotNull final BlockscoreRestAdapter target, @NotNull final InvocationInterceptor[] interceptors,
+             final int index) {
+    this.operation = operation;
+    this.method = method;
+    this.args = args;
+    this.target = target;
+    this.interceptors = interceptors;
+    this.index = index;
+  }
+
+  /**
+   * Gets the API operation being called.
+   *
+   * @return the operation
+   */
+  @NotNull
+  ApiOperation getOperation() {
+    return operation;
+  }
+
+  /**
+   * Gets the arguments of the adapter method.
+   *
+   * @return the arguments, or null if the method takes none
+   */
+  Object[] getArgs() {
+    return args;
+  }
+
+  /**
+   * Continues with the next interceptor, or calls the Retrofit adapter once all have run.
+   *
+   * @return the result of the call
+   */
+  Object proceed() {
+    if (index < interceptors.length) {
+      return interceptors[index].intercept(
+          new Invocation(operation, method, args, target, interceptors, index + 1));
+    }
+
+    try {
+      return method.invoke(target, args);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new UndeclaredThrowableException(cause);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Wraps calls to {@link BlockscoreRestAdapter} methods, e.g. to bound how long they may take.
+ */
+interface InvocationInterceptor {
+  /**
+   * Intercepts an adapter call. Implementations call {@link Invocation#proceed()} to continue with
+   * the next interceptor and eventually the HTTP request, or throw to fail the call.
+   *
+   * @param invocation  the adapter call
+   * @return the result of the call
+   */
+  Object intercept(@NotNull Invocation invocation);
+}
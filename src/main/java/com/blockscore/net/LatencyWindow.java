@@ -0,0 +1,59 @@
+package com.blockscore.net;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the latencies of the most recent calls and estimates a percentile of them.
+ *
+ * <p>
+ * Recording is lock-free. The percentile is recomputed from a sorted copy of the window every few
+ * samples and cached in between, so reading it is cheap.
+ */
+class LatencyWindow {
+  private static final int SIZE = 128;
+  private static final int MIN_SAMPLES = 16;
+  private static final int RECOMPUTE_INTERVAL = 16;
+
+  private final double percentile;
+  private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+  private final AtomicLong count = new AtomicLong();
+  private volatile long cachedPercentileNanos = -1;
+
+  /**
+   * Creates a LatencyWindow.
+   *
+   * @param percentile  the percentile to estimate, between 0 and 100
+   */
+  LatencyWindow(final double percentile) {
+    this.percentile = percentile;
+  }
+
+  void record(final long latencyNanos) {
+    long n = count.getAndIncrement();
+    samples.set((int) (n % SIZE), latencyNanos);
+    if (n + 1 >= MIN_SAMPLES && (n + 1) % RECOMPUTE_INTERVAL == 0) {
+      cachedPercentileNanos = computePercentile((int) Math.min(n + 1, SIZE));
+    }
+  }
+
+  /**
+   * Gets the estimated percentile of recent latencies.
+   *
+   * @return the percentile in nanoseconds, or -1 until enough calls have been recorded
+   */
+  long getPercentileNanos() {
+    return cachedPercentileNanos;
+  }
+
+  private long computePercentile(final int size) {
+    long[] sorted = new long[size];
+    for (int i = 0; i < size; i++) {
+      sorted[i] = samples.get(i);
+    }
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile / 100 * size) - 1;
+    return sorted[Math.max(0, Math.min(size - 1, index))];
+  }
+}
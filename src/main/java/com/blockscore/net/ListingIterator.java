@@ -0,0 +1,21 @@
+package com.blockscore.net;
+
+import java.util.Iterator;
+
+/**
+ * An {@link Iterator} over a listing that may hold pages fetched ahead of the iteration.
+ *
+ * <p>
+ * Closing the iterator cancels any page fetches still in flight and discards the buffered pages.
+ * Close it, e.g. with try-with-resources, when stopping before the end of the listing.
+ *
+ * @param <T>  the type of the listed items
+ */
+public interface ListingIterator<T> extends Iterator<T>, AutoCloseable {
+  /**
+   * Stops the iteration, cancelling any page fetches still in flight. Closing an iterator more
+   * than once has no effect.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,204 @@
+package com.blockscore.net;
+
+import com.blockscore.models.PaginatedResult;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Reactive Streams {@link Publisher} of the items of a listing.
+ *
+ * <p>
+ * Pages of {@value PageFetcher#MAX_PAGE_SIZE} items are fetched only when subscribers request more
+ * items than have been fetched, and the rest of a page is buffered for later requests. Fetches and
+ * signals, {@link Subscriber#onSubscribe(Subscription)} included, happen on a background executor
+ * one at a time, so {@link Subscription#request(long)} never blocks. Every subscriber gets its own
+ * pass over the listing, with the {@link Deadline} of the thread that subscribed; cancelling the
+ * subscription cancels the page fetch in flight.
+ *
+ * @param <T>  the type of the listed items
+ */
+public final class ListingPublisher<T> implements Publisher<T> {
+  private final PageFetcher<T> fetcher;
+  private final Executor executor;
+
+  /**
+   * Creates a ListingPublisher fetching pages on a shared pool of daemon threads.
+   *
+   * @param fetcher  fetches the pages of the listing
+   */
+  public ListingPublisher(@NotNull final PageFetcher<T> fetcher) {
+    this(fetcher, BlockscoreExecutors.DEFAULT_EXECUTOR);
+  }
+
+  /**
+   * Creates a ListingPublisher.
+   *
+   * @param fetcher  fetches the pages of the listing
+   * @param executor  the executor pages are fetched and items are signalled on
+   */
+  public ListingPublisher(@NotNull final PageFetcher<T> fetcher, @NotNull final Executor executor) {
+    this.fetcher = fetcher;
+    this.executor = executor;
+  }
+
+  @Override
+  public void subscribe(final Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber == null");
+    }
+    new ListingSubscription(subscriber, Deadline.current()).schedule();
+  }
+
+  /**
+   * One subscriber's pass over the listing. Signals are serialized by the work-in-progress counter:
+   * only the thread that raises it from zero drains, and the others leave their work to it. The
+   * first drain signals onSubscribe, so that items requested from within it are only signalled
+   * once it has returned.
+   */
+  private final class ListingSubscription implements Subscription, Runnable {
+    private final Subscriber<? super T> subscriber;
+    private final CallContext context = new CallContext();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    @Nullable
+    private final Deadline deadline;
+
+    @Nullable
+    private volatile Throwable failure;
+
+    // Only touched by the draining thread.
+    private boolean subscribed;
+    private final Queue<T> buffer = new ArrayDeque<T>();
+    private int offset;
+    private boolean exhausted;
+
+    ListingSubscription(@NotNull final Subscriber<? super T> subscriber, @Nullable final Deadline deadline) {
+      this.subscriber = subscriber;
+      this.deadline = deadline;
+    }
+
+    @Override
+    public void request(final long n) {
+      if (n <= 0) {
+        failure = new IllegalArgumentException("Requested " + n + " items, must be positive (rule 3.9)");
+      } else {
+        long current;
+        long next;
+        do {
+          current = requested.get();
+          next = current + n < 0 ? Long.MAX_VALUE : current + n;
+        } while (!requested.compareAndSet(current, next));
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      context.cancel();
+    }
+
+    private void schedule() {
+      if (wip.getAndIncrement() == 0) {
+        executor.execute(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        drain();
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void drain() {
+      if (!subscribed) {
+        subscribed = true;
+        subscriber.onSubscribe(this);
+      }
+      long emitted = 0;
+      while (!cancelled) {
+        Throwable error = failure;
+        if (error != null) {
+          terminate(error);
+          return;
+        }
+        if (buffer.isEmpty() && exhausted) {
+          // Completion needs no demand.
+          cancelled = true;
+          subscriber.onComplete();
+          return;
+        }
+        long outstanding = requested.get() - emitted;
+        if (outstanding == 0) {
+          break;
+        }
+        T item = buffer.poll();
+        if (item == null) {
+          fetch();
+          continue;
+        }
+        try {
+          subscriber.onNext(item);
+        } catch (RuntimeException e) {
+          // The subscriber broke its contract; stop signalling it.
+          cancel();
+          throw e;
+        }
+        emitted++;
+      }
+      produced(emitted);
+    }
+
+    private void produced(final long emitted) {
+      long current;
+      do {
+        current = requested.get();
+        if (current == Long.MAX_VALUE) {
+          // Unbounded demand is never used up.
+          return;
+        }
+      } while (!requested.compareAndSet(current, current - emitted));
+    }
+
+    private void fetch() {
+      Deadline.Scope scope = deadline == null ? null : deadline.attach();
+      CallContext previous = CallContext.attach(context);
+      try {
+        PaginatedResult<T> page = fetcher.fetchPage(PageFetcher.MAX_PAGE_SIZE, offset);
+        List<T> data = page.getData();
+        buffer.addAll(data);
+        offset += data.size();
+        exhausted = data.isEmpty() || !page.hasMore();
+      } catch (RuntimeException e) {
+        failure = e;
+      } finally {
+        CallContext.attach(previous);
+        if (scope != null) {
+          scope.close();
+        }
+      }
+    }
+
+    private void terminate(@NotNull final Throwable failure) {
+      cancelled = true;
+      context.cancel();
+      subscriber.onError(failure);
+    }
+  }
+}
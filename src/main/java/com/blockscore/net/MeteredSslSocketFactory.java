@@ -0,0 +1,90 @@
+package com.blockscore.net;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.HandshakeCompletedListener;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Socket factory that records every completed handshake in {@link TlsHandshakeStats}.
+ *
+ * <p>
+ * Up to TLS 1.2 a resumed handshake completes with the very session cached by an earlier one, so
+ * a handshake is counted as resumed when its session has been seen before.
+ */
+class MeteredSslSocketFactory extends SSLSocketFactory {
+  private static final String TLS_1_3 = "TLSv1.3";
+
+  private final SSLSocketFactory delegate;
+  private final TlsHandshakeStats stats;
+
+  /** The sessions handshakes have completed with, for as long as the session cache holds them. */
+  private final Map<SSLSession, Boolean> sessions =
+      Collections.synchronizedMap(new WeakHashMap<SSLSession, Boolean>());
+
+  MeteredSslSocketFactory(SSLSocketFactory delegate, TlsHandshakeStats stats) {
+    this.delegate = delegate;
+    this.stats = stats;
+  }
+
+  @Override
+  public String[] getDefaultCipherSuites() {
+    return delegate.getDefaultCipherSuites();
+  }
+
+  @Override
+  public String[] getSupportedCipherSuites() {
+    return delegate.getSupportedCipherSuites();
+  }
+
+  @Override
+  public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+    return meter(delegate.createSocket(socket, host, port, autoClose));
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    return meter(delegate.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+    return meter(delegate.createSocket(host, port, localHost, localPort));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    return meter(delegate.createSocket(host, port));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+      throws IOException {
+    return meter(delegate.createSocket(address, port, localAddress, localPort));
+  }
+
+  private Socket meter(Socket socket) {
+    if (socket instanceof SSLSocket) {
+      ((SSLSocket) socket).addHandshakeCompletedListener(new HandshakeCompletedListener() {
+        @Override
+        public void handshakeCompleted(HandshakeCompletedEvent event) {
+          SSLSession session = event.getSession();
+          if (TLS_1_3.equals(session.getProtocol())) {
+            stats.recordUnclassifiedHandshake();
+          } else {
+            stats.recordHandshake(sessions.put(session, Boolean.TRUE) != null);
+          }
+        }
+      });
+    }
+    return socket;
+  }
+}
@@ -0,0 +1,341 @@
+package com.blockscore.net;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSource;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The default {@link Transport}, which sends requests as OkHttp calls on the config's client.
+ *
+ * <p>
+ * Request bodies are written straight into the call's sink and response bodies are handed to the
+ * converter as the live response stream, so nothing is buffered into intermediate byte arrays.
+ * Responses are requested gzip compressed and inflated as the converter reads them.
+ *
+ * <p>
+ * Calls in a bulkhead go out on the bulkhead's own client, and the connect, read and write timeouts
+ * of a call are capped at its exchange's timeout.
+ */
+class OkHttpTransport implements Transport {
+  private static final RequestBody EMPTY_BODY = RequestBody.create(null, new byte[0]);
+  private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+  private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+  private static final String CONTENT_LENGTH_HEADER = "Content-Length";
+  private static final String GZIP = "gzip";
+
+  /**
+   * Aborts calls whose exchange was cancelled while they were connecting. OkHttp only cancels a call
+   * by closing its connection, so a cancel that lands before the connection is set up would
+   * otherwise go unnoticed until the response arrives. Network interceptors run once the call is
+   * connected, from when on a cancel closes the connection. It is added to copies of the clients
+   * calls are sent on, so that clients supplied by the caller are used as they are.
+   */
+  private static final Interceptor CANCEL_CHECK = new Interceptor() {
+    @Override
+    public com.squareup.okhttp.Response intercept(Chain chain) throws IOException {
+      Object tag = chain.request().tag();
+      if (tag instanceof Exchange && ((Exchange) tag).isCancelled()) {
+        throw new IOException("Canceled");
+      }
+      return chain.proceed(chain.request());
+    }
+  };
+
+  private final OkHttpClient client;
+
+  // Copies of the bulkheads' clients carrying the cancel check, keyed by the original client.
+  private final ConcurrentMap<OkHttpClient, OkHttpClient> bulkheadClients =
+      new ConcurrentHashMap<OkHttpClient, OkHttpClient>();
+
+  @Nullable
+  private final ResponseMetricsListener metricsListener;
+
+  /**
+   * Creates an OkHttpTransport.
+   *
+   * @param client  the client calls are sent on unless their bulkhead has its own
+   * @param metricsListener  the listener notified of per-response transfer metrics, if any
+   */
+  OkHttpTransport(@NotNull final OkHttpClient client, @Nullable final ResponseMetricsListener metricsListener) {
+    this.client = withCancelCheck(client);
+    this.metricsListener = metricsListener;
+  }
+
+  @NotNull
+  @Override
+  public Response execute(@NotNull final Request request, @NotNull final Exchange exchange) throws IOException {
+    return parseResponse(newCall(request, exchange).execute());
+  }
+
+  private Call newCall(final Request request, final Exchange exchange) {
+    OkHttpClient baseClient = client;
+    CallContext context = CallContext.current();
+    if (context != null && context.getHttpClient() != null) {
+      // A bulkhead sends its calls on its own connection pool.
+      baseClient = getBulkheadClient(context.getHttpClient());
+    }
+
+    long timeoutNanos = exchange.getTimeout(TimeUnit.NANOSECONDS);
+    OkHttpClient callClient = timeoutNanos == 0 ? baseClient : createTimedClient(baseClient, timeoutNanos);
+    final Call call = callClient.newCall(createRequest(request, exchange));
+    exchange.onCancel(new Runnable() {
+      @Override
+      public void run() {
+        call.cancel();
+      }
+    });
+    return call;
+  }
+
+  @NotNull
+  private OkHttpClient getBulkheadClient(@NotNull final OkHttpClient bulkheadClient) {
+    OkHttpClient checkedClient = bulkheadClients.get(bulkheadClient);
+    if (checkedClient == null) {
+      checkedClient = withCancelCheck(bulkheadClient);
+      OkHttpClient existing = bulkheadClients.putIfAbsent(bulkheadClient, checkedClient);
+      if (existing != null) {
+        checkedClient = existing;
+      }
+    }
+    return checkedClient;
+  }
+
+  /**
+   * Creates a copy of a client, sharing its connection pool and settings, that aborts cancelled calls.
+   */
+  @NotNull
+  private static OkHttpClient withCancelCheck(@NotNull final OkHttpClient client) {
+    OkHttpClient checkedClient = client.clone();
+    checkedClient.networkInterceptors().add(CANCEL_CHECK);
+    return checkedClient;
+  }
+
+  /**
+   * Creates a client sharing the base client's transport whose timeouts do not exceed the given budget.
+   */
+  private static OkHttpClient createTimedClient(final OkHttpClient client, final long timeoutNanos) {
+    // Rounded up, so that a socket timeout never fires before the budget has run out.
+    long timeoutMillis = TimeUnit.NANOSECONDS.toMillis(timeoutNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    OkHttpClient timedClient = client.clone();
+    timedClient.setConnectTimeout(shorterTimeout(client.getConnectTimeout(), timeoutMillis), TimeUnit.MILLISECONDS);
+    timedClient.setReadTimeout(shorterTimeout(client.getReadTimeout(), timeoutMillis), TimeUnit.MILLISECONDS);
+    timedClient.setWriteTimeout(shorterTimeout(client.getWriteTimeout(), timeoutMillis), TimeUnit.MILLISECONDS);
+    return timedClient;
+  }
+
+  private static long shorterTimeout(final int configuredMillis, final long budgetMillis) {
+    // A configured timeout of zero means no timeout.
+    return configuredMillis == 0 ? budgetMillis : Math.min(configuredMillis, budgetMillis);
+  }
+
+  private static com.squareup.okhttp.Request createRequest(Request request, Exchange exchange) {
+    com.squareup.okhttp.Request.Builder builder = new com.squareup.okhttp.Request.Builder()
+        .url(request.getUrl())
+        .tag(exchange)
+        .method(request.getMethod(), createRequestBody(request.getMethod(), request.getBody()));
+
+    // Negotiating gzip ourselves turns off OkHttp's transparent decompression, which lets us
+    // count the compressed bytes before inflating them.
+    builder.header(ACCEPT_ENCODING_HEADER, GZIP);
+
+    List<Header> headers = request.getHeaders();
+    for (int i = 0, size = headers.size(); i < size; i++) {
+      Header header = headers.get(i);
+      builder.addHeader(header.getName(), header.getValue() == null ? "" : header.getValue());
+    }
+
+    return builder.build();
+  }
+
+  private Response parseResponse(com.squareup.okhttp.Response response) throws IOException {
+    boolean compressed = GZIP.equalsIgnoreCase(response.header(CONTENT_ENCODING_HEADER));
+    return new Response(response.request().urlString(), response.code(), response.message(),
+                        createHeaders(response.headers(), compressed),
+                        createResponseBody(response, compressed));
+  }
+
+  private static RequestBody createRequestBody(final String method, final TypedOutput body) {
+    if (body == null) {
+      // Query-only POSTs (e.g. createPerson) still need a body for OkHttp to accept the method.
+      return requiresRequestBody(method) ? EMPTY_BODY : null;
+    }
+
+    final MediaType mediaType = MediaType.parse(body.mimeType());
+    return new RequestBody() {
+      @Override
+      public MediaType contentType() {
+        return mediaType;
+      }
+
+      @Override
+      public long contentLength() {
+        return body.length();
+      }
+
+      @Override
+      public void writeTo(BufferedSink sink) throws IOException {
+        body.writeTo(sink.outputStream());
+      }
+    };
+  }
+
+  private static boolean requiresRequestBody(final String method) {
+    return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method);
+  }
+
+  private TypedInput createResponseBody(final com.squareup.okhttp.Response response, final boolean compressed)
+      throws IOException {
+    final ResponseBody body = response.body();
+    try {
+      if (body.contentLength() == 0) {
+        body.close();
+        return null;
+      }
+    } catch (IOException e) {
+      // Closing the body releases its connection, and with it the call's host and stream permits.
+      closeQuietly(body);
+      throw e;
+    }
+
+    return new TypedInput() {
+      @Override
+      public String mimeType() {
+        MediaType mediaType = body.contentType();
+        return mediaType == null ? null : mediaType.toString();
+      }
+
+      @Override
+      public long length() {
+        if (compressed) {
+          return -1;
+        }
+        try {
+          return body.contentLength();
+        } catch (IOException e) {
+          return -1;
+        }
+      }
+
+      @Override
+      public InputStream in() throws IOException {
+        WireCountingSource wireSource = new WireCountingSource(body.source());
+        Source decodedSource = compressed ? new GzipSource(wireSource) : wireSource;
+        MeteredSource meteredSource = new MeteredSource(decodedSource, wireSource, response, compressed);
+        return Okio.buffer(meteredSource).inputStream();
+      }
+    };
+  }
+
+  private static void closeQuietly(ResponseBody body) {
+    try {
+      body.close();
+    } catch (IOException ignored) {
+      // The original exception is more useful.
+    }
+  }
+
+  private static List<Header> createHeaders(Headers headers, boolean compressed) {
+    int size = headers.size();
+    List<Header> headerList = new ArrayList<Header>(size);
+    for (int i = 0; i < size; i++) {
+      String name = headers.name(i);
+      // The body is inflated before the converter sees it, so the encoding headers no longer apply.
+      if (compressed && (CONTENT_ENCODING_HEADER.equalsIgnoreCase(name)
+                         || CONTENT_LENGTH_HEADER.equalsIgnoreCase(name))) {
+        continue;
+      }
+      headerList.add(new Header(name, headers.value(i)));
+    }
+    return headerList;
+  }
+
+  /**
+   * Counts the bytes read from the network, before any decompression.
+   */
+  private static final class WireCountingSource extends ForwardingSource {
+    private long bytesRead;
+
+    WireCountingSource(Source delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long read = super.read(sink, byteCount);
+      if (read > 0) {
+        bytesRead += read;
+      }
+      return read;
+    }
+  }
+
+  /**
+   * Counts the decoded body bytes and reports {@link ResponseMetrics} when the body is closed.
+   */
+  private final class MeteredSource extends ForwardingSource {
+    private final WireCountingSource wireSource;
+    private final com.squareup.okhttp.Response response;
+    private final boolean compressed;
+    private final long startNanos = System.nanoTime();
+    private long bytesRead;
+    private boolean closed;
+
+    MeteredSource(Source delegate, WireCountingSource wireSource, com.squareup.okhttp.Response response,
+                  boolean compressed) {
+      super(delegate);
+      this.wireSource = wireSource;
+      this.response = response;
+      this.compressed = compressed;
+    }
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+      long read = super.read(sink, byteCount);
+      if (read > 0) {
+        bytesRead += read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      long decodeNanos = System.nanoTime() - startNanos;
+      super.close();
+
+      if (metricsListener != null) {
+        metricsListener.onResponseRead(new ResponseMetrics(response.request().urlString(), response.code(),
+                                                           compressed, wireSource.bytesRead, bytesRead,
+                                                           decodeNanos));
+      }
+    }
+  }
+}
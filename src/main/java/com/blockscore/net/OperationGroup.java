@@ -0,0 +1,15 @@
+package com.blockscore.net;
+
+/**
+ * The kinds of traffic the API operations fall into, e.g. for assigning them to bulkheads.
+ */
+public enum OperationGroup {
+  /** Creating and scoring person, question set and company verifications. */
+  VERIFICATION,
+  /** Managing candidates and searching watchlists. */
+  WATCHLIST,
+  /** Listing people, companies and candidates. */
+  LISTING,
+  /** Retrieving single people, question sets, companies and candidates. */
+  RETRIEVAL
+}
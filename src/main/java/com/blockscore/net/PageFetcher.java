@@ -0,0 +1,27 @@
+package com.blockscore.net;
+
+import com.blockscore.models.PaginatedResult;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Fetches one page of a listing.
+ *
+ * @param <T>  the type of the listed items
+ */
+public interface PageFetcher<T> {
+  /**
+   * The largest page the API returns.
+   */
+  int MAX_PAGE_SIZE = 100;
+
+  /**
+   * Fetches the page starting at the given item.
+   *
+   * @param count  the maximum number of items on the page
+   * @param offset  the number of items to skip
+   * @return the page
+   */
+  @NotNull
+  PaginatedResult<T> fetchPage(int count, int offset);
+}
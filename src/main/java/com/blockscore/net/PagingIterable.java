@@ -0,0 +1,245 @@
+package com.blockscore.net;
+
+import com.blockscore.models.PaginatedResult;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * A lazy {@link Iterable} over every item of a listing.
+ *
+ * <p>
+ * By default each iterator starts from the first item and fetches the next page only once the
+ * current one has been consumed, so no more than one page is held in memory however long the
+ * listing is. {@link #withPrefetch(int, long)} instead fetches the following pages in the
+ * background while the current one is processed, trading memory for less time spent waiting on the
+ * network. Failures to fetch a page are thrown from {@link Iterator#hasNext()}.
+ *
+ * @param <T>  the type of the listed items
+ */
+public final class PagingIterable<T> implements Iterable<T> {
+  private final PageFetcher<T> fetcher;
+  private final int pageSize;
+  private final int prefetchPages;
+  private final long maxPrefetchBytes;
+  private final Executor executor;
+
+  /**
+   * Creates a PagingIterable fetching the largest pages the API returns.
+   *
+   * @param fetcher  fetches the pages of the listing
+   */
+  public PagingIterable(@NotNull final PageFetcher<T> fetcher) {
+    this(fetcher, PageFetcher.MAX_PAGE_SIZE);
+  }
+
+  /**
+   * Creates a PagingIterable.
+   *
+   * @param fetcher  fetches the pages of the listing
+   * @param pageSize  the number of items to fetch per page
+   */
+  public PagingIterable(@NotNull final PageFetcher<T> fetcher, final int pageSize) {
+    this(fetcher, pageSize, 0, Long.MAX_VALUE, BlockscoreExecutors.DEFAULT_EXECUTOR);
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize < 1");
+    }
+  }
+
+  private PagingIterable(PageFetcher<T> fetcher, int pageSize, int prefetchPages, long maxPrefetchBytes,
+                         Executor executor) {
+    this.fetcher = fetcher;
+    this.pageSize = pageSize;
+    this.prefetchPages = prefetchPages;
+    this.maxPrefetchBytes = maxPrefetchBytes;
+    this.executor = executor;
+  }
+
+  /**
+   * Gets a copy of this iterable whose iterators fetch up to the given number of pages ahead of the
+   * one being processed.
+   *
+   * @param pages  the maximum number of pages to fetch ahead, or 0 to fetch pages only once reached
+   * @return the prefetching iterable
+   * @see #withPrefetch(int, long)
+   */
+  @NotNull
+  public PagingIterable<T> withPrefetch(final int pages) {
+    return withPrefetch(pages, Long.MAX_VALUE);
+  }
+
+  /**
+   * Gets a copy of this iterable whose iterators fetch pages ahead of the one being processed, on a
+   * shared pool of daemon threads.
+   *
+   * <p>
+   * Fetching ahead starts once the first page has arrived, and never goes past the listing's total
+   * count. The pages fetched ahead are bounded both in number and in size: the size of a page is
+   * taken to be that of the last page decoded, and no page is fetched ahead if even one would exceed
+   * {@code maxBytes}. Close the iterator when stopping early to cancel the fetches still in flight.
+   *
+   * @param pages  the maximum number of pages to fetch ahead, or 0 to fetch pages only once reached
+   * @param maxBytes  the maximum number of response bytes to hold in pages fetched ahead
+   * @return the prefetching iterable
+   */
+  @NotNull
+  public PagingIterable<T> withPrefetch(final int pages, final long maxBytes) {
+    if (pages < 0) {
+      throw new IllegalArgumentException("pages < 0");
+    }
+    if (maxBytes < 0) {
+      throw new IllegalArgumentException("maxBytes < 0");
+    }
+    return new PagingIterable<T>(fetcher, pageSize, pages, maxBytes, executor);
+  }
+
+  @NotNull
+  @Override
+  public ListingIterator<T> iterator() {
+    return new PagingIterator();
+  }
+
+  /**
+   * A page and the number of response bytes it was decoded from.
+   */
+  private static final class FetchedPage<T> {
+    final PaginatedResult<T> result;
+    final long bytes;
+
+    FetchedPage(PaginatedResult<T> result, long bytes) {
+      this.result = result;
+      this.bytes = bytes;
+    }
+  }
+
+  /**
+   * A page being fetched ahead of the iteration.
+   */
+  private static final class PendingPage<T> {
+    final int offset;
+    final BlockscoreFuture<FetchedPage<T>> future;
+
+    PendingPage(int offset, BlockscoreFuture<FetchedPage<T>> future) {
+      this.offset = offset;
+      this.future = future;
+    }
+  }
+
+  /**
+   * Walks the listing one page at a time, optionally fetching the following pages ahead.
+   */
+  private final class PagingIterator extends AbstractListingIterator<T> {
+    private final CallContext context = new CallContext();
+    private final Queue<PendingPage<T>> pending = new ArrayDeque<PendingPage<T>>();
+    private int offset;
+
+    // What the pages seen so far tell about the rest of the listing; 0 until the first page arrives.
+    private int stride;
+    private int totalCount;
+    private long pageBytes;
+    private int nextOffset;
+
+    @Override
+    public boolean hasNext() {
+      while (position == page.size()) {
+        if (exhausted) {
+          return false;
+        }
+        FetchedPage<T> fetched = fetchNext();
+        page = fetched.result.getData();
+        position = 0;
+        offset += page.size();
+        exhausted = page.isEmpty() || !fetched.result.hasMore();
+        if (exhausted) {
+          cancelPending();
+          break;
+        }
+
+        stride = page.size();
+        totalCount = fetched.result.getTotalCount();
+        pageBytes = fetched.bytes;
+        if (pending.isEmpty()) {
+          nextOffset = offset;
+        }
+        fillPending();
+      }
+      return position < page.size();
+    }
+
+    private FetchedPage<T> fetchNext() {
+      PendingPage<T> head = pending.poll();
+      if (head != null && head.offset != offset) {
+        // A page came back shorter or longer than the one before, so the pages fetched ahead start
+        // at the wrong items.
+        head.future.cancel(true);
+        cancelPending();
+        head = null;
+      }
+      if (head == null) {
+        if (prefetchPages == 0 || stride == 0) {
+          return fetch(offset);
+        }
+        nextOffset = offset;
+        head = startFetch();
+      }
+      fillPending();
+      try {
+        return await(head.future);
+      } catch (RuntimeException | Error e) {
+        // The iteration can be resumed from the failed page by calling hasNext() again.
+        cancelPending();
+        throw e;
+      }
+    }
+
+    private void fillPending() {
+      while (pending.size() < prefetchPages
+          && (totalCount <= 0 || nextOffset < totalCount)
+          && (pending.size() + 1) * pageBytes <= maxPrefetchBytes) {
+        pending.add(startFetch());
+      }
+    }
+
+    private PendingPage<T> startFetch() {
+      final int pageOffset = nextOffset;
+      nextOffset += stride;
+      BlockscoreFuture<FetchedPage<T>> future = new BlockscoreFuture<FetchedPage<T>>(
+          new Callable<FetchedPage<T>>() {
+            @Override
+            public FetchedPage<T> call() {
+              return fetchAttached(pageOffset);
+            }
+          });
+      future.start(executor);
+      return new PendingPage<T>(pageOffset, future);
+    }
+
+    private FetchedPage<T> fetch(final int pageOffset) {
+      CallContext previous = CallContext.attach(context);
+      try {
+        return fetchAttached(pageOffset);
+      } finally {
+        CallContext.attach(previous);
+      }
+    }
+
+    private FetchedPage<T> fetchAttached(final int pageOffset) {
+      PaginatedResult<T> result = fetcher.fetchPage(pageSize, pageOffset);
+      CallContext current = CallContext.current();
+      return new FetchedPage<T>(result, current == null ? 0 : current.getResponseBytes());
+    }
+
+    @Override
+    void cancelPending() {
+      PendingPage<T> abandoned;
+      while ((abandoned = pending.poll()) != null) {
+        abandoned.future.cancel(true);
+      }
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.blockscore.net;
+
+import com.blockscore.models.PaginatedResult;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A full scan of a listing that fetches its pages concurrently.
+ *
+ * <p>
+ * The first page gives the listing's total count, which is then split into page-sized partitions
+ * fetched on a shared pool of daemon threads, at most {@code parallelism} at a time. No more than
+ * {@code parallelism} pages are held in memory: a partition is only started once an earlier one
+ * has been handed to the caller. By default items are delivered in the listing's order, a
+ * partition waiting until the ones before it are delivered; {@link #unordered()} delivers each
+ * partition as soon as it arrives instead.
+ *
+ * <p>
+ * Like any walk over offsets, the scan may repeat or miss items created or deleted while it runs.
+ * If the listing outgrows the count the first page gave, the scan carries on past it. A failure
+ * to fetch a partition is thrown from {@link java.util.Iterator#hasNext()}; calling it again fetches
+ * the failed partition once more and resumes the scan, while the other partitions carry on. Close
+ * the iterator when stopping early to cancel the fetches still in flight.
+ *
+ * @param <T>  the type of the listed items
+ */
+public final class PartitionedListing<T> implements Iterable<T> {
+  private final PageFetcher<T> fetcher;
+  private final int pageSize;
+  private final int parallelism;
+  private final boolean ordered;
+  private final Executor executor;
+
+  /**
+   * Creates an ordered PartitionedListing fetching the largest pages the API returns.
+   *
+   * @param fetcher  fetches the pages of the listing
+   * @param parallelism  the maximum number of pages to fetch at once
+   */
+  public PartitionedListing(@NotNull final PageFetcher<T> fetcher, final int parallelism) {
+    this(fetcher, PageFetcher.MAX_PAGE_SIZE, parallelism);
+  }
+
+  /**
+   * Creates an ordered PartitionedListing.
+   *
+   * @param fetcher  fetches the pages of the listing
+   * @param pageSize  the number of items in each partition
+   * @param parallelism  the maximum number of pages to fetch at once
+   */
+  public PartitionedListing(@NotNull final PageFetcher<T> fetcher, final int pageSize, final int parallelism) {
+    this(fetcher, pageSize, parallelism, true, BlockscoreExecutors.DEFAULT_EXECUTOR);
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize < 1");
+    }
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism < 1");
+    }
+  }
+
+  private PartitionedListing(PageFetcher<T> fetcher, int pageSize, int parallelism, boolean ordered,
+                             Executor executor) {
+    this.fetcher = fetcher;
+    this.pageSize = pageSize;
+    this.parallelism = parallelism;
+    this.ordered = ordered;
+    this.executor = executor;
+  }
+
+  /**
+   * Gets a copy of this listing that delivers each partition as soon as it arrives. Items within a
+   * partition keep their order.
+   *
+   * @return the unordered listing
+   */
+  @NotNull
+  public PartitionedListing<T> unordered() {
+    return new PartitionedListing<T>(fetcher, pageSize, parallelism, false, executor);
+  }
+
+  @NotNull
+  @Override
+  public ListingIterator<T> iterator() {
+    return new ScanIterator();
+  }
+
+  /**
+   * A range of the listing being fetched.
+   */
+  private static final class Partition<T> {
+    final int offset;
+    final int count;
+    BlockscoreFuture<PaginatedResult<T>> future;
+
+    Partition(int offset, int count) {
+      this.offset = offset;
+      this.count = count;
+    }
+  }
+
+  /**
+   * Schedules the partitions and hands their items over as they are delivered.
+   */
+  private final class ScanIterator extends AbstractListingIterator<T> {
+    // In offset order when ordered; otherwise in no particular order, with completions queued.
+    private final Deque<Partition<T>> pending = new ArrayDeque<Partition<T>>();
+    private final BlockingQueue<Partition<T>> completed = new LinkedBlockingQueue<Partition<T>>();
+    private boolean started;
+    private int partitionSize = pageSize;
+    private int nextOffset = pageSize;
+    private int totalCount;
+    private int endOffset = Integer.MAX_VALUE;
+
+    // The partition whose fetch failed, fetched again on the next call to hasNext().
+    private Partition<T> failed;
+
+    @Override
+    public boolean hasNext() {
+      while (position == page.size()) {
+        if (exhausted) {
+          return false;
+        }
+        if (!started) {
+          accept(new Partition<T>(0, pageSize), fetcher.fetchPage(pageSize, 0));
+          started = true;
+          continue;
+        }
+        if (failed != null) {
+          retry(failed);
+          failed = null;
+        }
+
+        startPartitions();
+        if (pending.isEmpty()) {
+          exhausted = true;
+          return false;
+        }
+        Partition<T> partition = ordered ? pending.poll() : takeCompleted();
+        PaginatedResult<T> result;
+        try {
+          result = await(partition.future);
+        } catch (RuntimeException | Error e) {
+          failed = partition;
+          throw e;
+        }
+        accept(partition, result);
+      }
+      return true;
+    }
+
+    @Override
+    void cancelPending() {
+      Partition<T> abandoned;
+      while ((abandoned = pending.poll()) != null) {
+        abandoned.future.cancel(true);
+      }
+      completed.clear();
+      failed = null;
+    }
+
+    private void accept(final Partition<T> partition, final PaginatedResult<T> result) {
+      page = result.getData();
+      position = 0;
+      int end = partition.offset + page.size();
+      totalCount = Math.max(totalCount, result.getTotalCount());
+      if (page.isEmpty() || !result.hasMore()) {
+        // Nothing lies past this partition.
+        endOffset = Math.min(endOffset, end);
+        if (ordered) {
+          cancelPending();
+          exhausted = true;
+        }
+        return;
+      }
+
+      if (page.size() < partition.count) {
+        // The API returned less than was asked for, so the rest of the range becomes a partition of
+        // its own, delivered next when ordered, and later partitions ask for no more than was returned.
+        partitionSize = Math.min(partitionSize, page.size());
+        Partition<T> rest = start(new Partition<T>(end, partition.count - page.size()));
+        if (ordered) {
+          pending.addFirst(rest);
+        } else {
+          pending.add(rest);
+        }
+      }
+      if (end >= nextOffset && nextOffset >= totalCount) {
+        // The listing has grown past the count it first gave, so the scan carries on.
+        totalCount = nextOffset + 1;
+      }
+    }
+
+    private void startPartitions() {
+      while (pending.size() < parallelism && nextOffset < Math.min(totalCount, endOffset)) {
+        pending.add(start(new Partition<T>(nextOffset, partitionSize)));
+        nextOffset += partitionSize;
+      }
+    }
+
+    private void retry(final Partition<T> partition) {
+      start(partition);
+      if (ordered) {
+        pending.addFirst(partition);
+      } else {
+        pending.add(partition);
+      }
+    }
+
+    private Partition<T> start(final Partition<T> partition) {
+      partition.future = new BlockscoreFuture<PaginatedResult<T>>(new Callable<PaginatedResult<T>>() {
+        @Override
+        public PaginatedResult<T> call() {
+          return fetcher.fetchPage(partition.count, partition.offset);
+        }
+      });
+      if (!ordered) {
+        partition.future.addCallback(new BlockscoreCallback<PaginatedResult<T>>() {
+          @Override
+          public void onSuccess(PaginatedResult<T> result) {
+            completed.add(partition);
+          }
+
+          @Override
+          public void onFailure(@NotNull Throwable failure) {
+            completed.add(partition);
+          }
+        });
+      }
+      partition.future.start(executor);
+      return partition;
+    }
+
+    private Partition<T> takeCompleted() {
+      try {
+        Partition<T> partition = completed.take();
+        pending.remove(partition);
+        return partition;
+      } catch (InterruptedException e) {
+        throw interrupted(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.blockscore.net;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.jetbrains.annotations.NotNull;
+import retrofit.http.Body;
+import retrofit.http.QueryMap;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sends the models given to a {@link BlockscoreRestAdapter} as query parameters, for
+ * {@link RequestEncoding#QUERY_PARAMETERS}: each call taking a model is passed on to its overload
+ * taking a query map, with the model's non-default fields under their JSON names.
+ *
+ * <p>
+ * The fields of each model class are looked up through the mapper once and then read straight off
+ * the model, so a call builds no intermediate JSON tree.
+ */
+final class QueryParameterAdapter implements InvocationHandler {
+  private static final Map<Method, Method> QUERY_METHODS = findQueryMethods();
+
+  private final BlockscoreRestAdapter target;
+  private final ObjectMapper mapper;
+  private final ConcurrentMap<Class<?>, List<QueryProperty>> properties =
+      new ConcurrentHashMap<Class<?>, List<QueryProperty>>();
+
+  private QueryParameterAdapter(@NotNull final BlockscoreRestAdapter target, @NotNull final ObjectMapper mapper) {
+    this.target = target;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Wraps an adapter so that models are sent as query parameters.
+   *
+   * @param target  the Retrofit adapter
+   * @param mapper  the mapper naming the fields of the models
+   * @return the wrapping adapter
+   */
+  @NotNull
+  static BlockscoreRestAdapter wrap(@NotNull final BlockscoreRestAdapter target, @NotNull final ObjectMapper mapper) {
+    return (BlockscoreRestAdapter) Proxy.newProxyInstance(BlockscoreRestAdapter.class.getClassLoader(),
+                                                          new Class<?>[] { BlockscoreRestAdapter.class },
+                                                          new QueryParameterAdapter(target, mapper));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    Method queryMethod = QUERY_METHODS.get(method);
+    try {
+      if (queryMethod == null) {
+        return method.invoke(target, args);
+      }
+      return queryMethod.invoke(target, toQueryParameters(args[0]));
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Converts a model to query parameters, leaving out the fields the JSON body would leave out.
+   */
+  @NotNull
+  Map<String, String> toQueryParameters(@NotNull final Object model) {
+    List<QueryProperty> modelProperties = getProperties(model.getClass());
+    Map<String, String> parameters = new LinkedHashMap<String, String>();
+    for (int i = 0, size = modelProperties.size(); i < size; i++) {
+      QueryProperty property = modelProperties.get(i);
+      Object value = property.accessor.getValue(model);
+      // The mapper's NON_DEFAULT inclusion leaves out values equal to those of a new instance.
+      if (value != null && !value.equals(property.defaultValue)) {
+        parameters.put(property.name, toParameter(value));
+      }
+    }
+    return parameters;
+  }
+
+  @NotNull
+  private List<QueryProperty> getProperties(@NotNull final Class<?> type) {
+    List<QueryProperty> typeProperties = properties.get(type);
+    if (typeProperties == null) {
+      typeProperties = findProperties(type);
+      List<QueryProperty> existing = properties.putIfAbsent(type, typeProperties);
+      if (existing != null) {
+        typeProperties = existing;
+      }
+    }
+    return typeProperties;
+  }
+
+  /**
+   * Lists the properties the mapper would serialize for a model class, with their default values.
+   */
+  @NotNull
+  private List<QueryProperty> findProperties(@NotNull final Class<?> type) {
+    BeanDescription description = mapper.getSerializationConfig().introspect(mapper.constructType(type));
+    Object defaultModel = description.instantiateBean(true);
+    List<QueryProperty> typeProperties = new ArrayList<QueryProperty>();
+    for (BeanPropertyDefinition definition : description.findProperties()) {
+      AnnotatedMember accessor = definition.getAccessor();
+      if (accessor == null) {
+        continue;
+      }
+      accessor.fixAccess();
+      Object defaultValue = defaultModel == null ? null : accessor.getValue(defaultModel);
+      typeProperties.add(new QueryProperty(definition.getName(), accessor, defaultValue));
+    }
+    return Collections.unmodifiableList(typeProperties);
+  }
+
+  @NotNull
+  private String toParameter(@NotNull final Object value) {
+    if (value instanceof String) {
+      return (String) value;
+    }
+    if (value instanceof Number || value instanceof Boolean) {
+      return value.toString();
+    }
+    // Dates, enums and nested values are written the way the JSON body would write them.
+    return String.valueOf(mapper.convertValue(value, Object.class));
+  }
+
+  /**
+   * Maps each adapter method taking a model body to its overload taking a query map.
+   */
+  private static Map<Method, Method> findQueryMethods() {
+    Map<Method, Method> queryMethods = new HashMap<Method, Method>();
+    for (Method method : BlockscoreRestAdapter.class.getMethods()) {
+      if (method.getParameterTypes().length != 1 || !hasAnnotation(method, Body.class)) {
+        continue;
+      }
+      for (Method overload : BlockscoreRestAdapter.class.getMethods()) {
+        if (overload.getName().equals(method.getName()) && overload.getParameterTypes().length == 1
+            && hasAnnotation(overload, QueryMap.class)) {
+          queryMethods.put(method, overload);
+        }
+      }
+    }
+    return Collections.unmodifiableMap(queryMethods);
+  }
+
+  private static boolean hasAnnotation(@NotNull final Method method, @NotNull final Class<?> type) {
+    for (Annotation annotation : method.getParameterAnnotations()[0]) {
+      if (type.isInstance(annotation)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A serialized property of a model class.
+   */
+  private static final class QueryProperty {
+    final String name;
+    final AnnotatedMember accessor;
+    final Object defaultValue;
+
+    QueryProperty(@NotNull final String name, @NotNull final AnnotatedMember accessor, final Object defaultValue) {
+      this.name = name;
+      this.accessor = accessor;
+      this.defaultValue = defaultValue;
+    }
+  }
+}
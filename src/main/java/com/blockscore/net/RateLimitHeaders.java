@@ -0,0 +1,99 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import retrofit.client.Header;
+import retrofit.client.Response;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads how long to back off from the rate limit headers of a response.
+ */
+final class RateLimitHeaders {
+  static final int TOO_MANY_REQUESTS = 429;
+  static final String RETRY_AFTER = "Retry-After";
+  static final String REMAINING = "X-RateLimit-Remaining";
+  static final String RESET = "X-RateLimit-Reset";
+
+  // Reset values above this are epoch seconds rather than seconds from now.
+  private static final long EPOCH_SECONDS_THRESHOLD = 1000000000L;
+
+  private RateLimitHeaders() {
+    // Static helpers only.
+  }
+
+  /**
+   * Gets the first value of a response header.
+   *
+   * @param response  the response
+   * @param name  the header name, matched case insensitively
+   * @return the value, or null if the header is missing
+   */
+  @Nullable
+  static String getHeader(@NotNull final Response response, @NotNull final String name) {
+    List<Header> headers = response.getHeaders();
+    for (int i = 0, size = headers.size(); i < size; i++) {
+      if (name.equalsIgnoreCase(headers.get(i).getName())) {
+        return headers.get(i).getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Parses a {@code Retry-After} value, either a number of seconds or an HTTP date.
+   *
+   * @param value  the header value
+   * @param nowMillis  the current time in milliseconds since the epoch
+   * @return the wait in milliseconds, or -1 if the value is missing or malformed
+   */
+  static long parseRetryAfter(@Nullable final String value, final long nowMillis) {
+    if (value == null) {
+      return -1;
+    }
+    String trimmed = value.trim();
+    try {
+      return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed)));
+    } catch (NumberFormatException e) {
+      // Not seconds, try a date.
+    }
+
+    SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    try {
+      return Math.max(0, format.parse(trimmed).getTime() - nowMillis);
+    } catch (ParseException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * Parses the {@code X-RateLimit-Remaining} and {@code X-RateLimit-Reset} values, which ask for a
+   * pause only once no calls remain.
+   *
+   * @param remaining  the remaining calls header value
+   * @param reset  the reset header value, in seconds from now or epoch seconds
+   * @param nowMillis  the current time in milliseconds since the epoch
+   * @return the wait in milliseconds, or -1 if no pause is needed
+   */
+  static long parseReset(@Nullable final String remaining, @Nullable final String reset, final long nowMillis) {
+    if (remaining == null || reset == null || !"0".equals(remaining.trim())) {
+      return -1;
+    }
+    try {
+      long seconds = Long.parseLong(reset.trim());
+      if (seconds > EPOCH_SECONDS_THRESHOLD) {
+        return Math.max(0, TimeUnit.SECONDS.toMillis(seconds) - nowMillis);
+      }
+      return Math.max(0, TimeUnit.SECONDS.toMillis(seconds));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
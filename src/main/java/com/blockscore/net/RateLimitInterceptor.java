@@ -0,0 +1,66 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.RateLimitExceededException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds calls back to the client side rate limit. Calls rejected by the API with HTTP 429 are sent
+ * again once the pause the API asked for is over, as long as the caller may wait that long.
+ */
+class RateLimitInterceptor implements InvocationInterceptor {
+  // A rate limited request was not processed by the API, so sending it again is safe.
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final RateLimiter rateLimiter;
+  private final long maxWaitNanos;
+
+  /**
+   * Creates a RateLimitInterceptor.
+   *
+   * @param rateLimiter  the shared rate limiter
+   * @param policy  the rate limit settings
+   */
+  RateLimitInterceptor(@NotNull final RateLimiter rateLimiter, @NotNull final RateLimitPolicy policy) {
+    this.rateLimiter = rateLimiter;
+    this.maxWaitNanos = policy.getMaxWait(TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    for (int attempt = 1; ; attempt++) {
+      awaitSlot(invocation.getOperation());
+      try {
+        return invocation.proceed();
+      } catch (RateLimitExceededException e) {
+        if (attempt >= MAX_ATTEMPTS || maxWaitNanos == 0) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private void awaitSlot(@NotNull final ApiOperation operation) {
+    long maxWait = maxWaitNanos;
+    Deadline deadline = Deadline.current();
+    if (deadline != null) {
+      maxWait = Math.min(maxWait, deadline.timeRemaining(TimeUnit.NANOSECONDS));
+    }
+
+    long waitNanos = rateLimiter.reserve(maxWait);
+    if (waitNanos > maxWait) {
+      throw new RateLimitExceededException(operation + " rejected by the client rate limit",
+                                           Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+    }
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting to send " + operation, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for the client side rate limit: a token bucket refilled at a steady rate, which also
+ * pauses when the API answers with HTTP 429 or reports that no calls remain.
+ */
+public final class RateLimitPolicy {
+  private final double permitsPerSecond;
+  private final int burst;
+  private final long maxWaitNanos;
+
+  private RateLimitPolicy(@NotNull final Builder builder) {
+    permitsPerSecond = builder.permitsPerSecond;
+    burst = builder.burst;
+    maxWaitNanos = builder.maxWaitNanos;
+  }
+
+  /**
+   * Gets the steady number of calls allowed per second.
+   *
+   * @return the rate
+   */
+  public double getPermitsPerSecond() {
+    return permitsPerSecond;
+  }
+
+  /**
+   * Gets the number of calls that may be made at once after a quiet period.
+   *
+   * @return the burst size
+   */
+  public int getBurst() {
+    return burst;
+  }
+
+  /**
+   * Gets the longest a call waits for the rate limit before it is rejected.
+   *
+   * @param unit  the unit of the result
+   * @return the maximum wait
+   */
+  public long getMaxWait(@NotNull final TimeUnit unit) {
+    return unit.convert(maxWaitNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * The builder used for constructing a {@link RateLimitPolicy}.
+   */
+  public static class Builder {
+    private final double permitsPerSecond;
+    private int burst = 1;
+    private long maxWaitNanos = Long.MAX_VALUE;
+
+    /**
+     * Creates a builder for the given rate.
+     *
+     * @param permitsPerSecond  the steady number of calls allowed per second
+     */
+    public Builder(final double permitsPerSecond) {
+      if (!(permitsPerSecond > 0)) {
+        throw new IllegalArgumentException("permitsPerSecond <= 0");
+      }
+      this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * Sets the number of calls that may be made at once after a quiet period. Defaults to 1.
+     *
+     * @param burst  the burst size
+     * @return this
+     */
+    @NotNull
+    public Builder setBurst(final int burst) {
+      if (burst < 1) {
+        throw new IllegalArgumentException("burst < 1");
+      }
+      this.burst = burst;
+      return this;
+    }
+
+    /**
+     * Sets the longest a call waits for the rate limit. Calls that would wait longer, or past their
+     * {@link Deadline}, fail with a {@link com.blockscore.exceptions.RateLimitExceededException}
+     * instead. Zero never waits, so callers can shed work rather than tie up threads. By default
+     * calls wait as long as needed.
+     *
+     * @param maxWait  the maximum wait
+     * @param unit  the unit of the maximum wait
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxWait(final long maxWait, @NotNull final TimeUnit unit) {
+      if (maxWait < 0) {
+        throw new IllegalArgumentException("maxWait < 0");
+      }
+      this.maxWaitNanos = unit.toNanos(maxWait);
+      return this;
+    }
+
+    /**
+     * Creates a new {@link RateLimitPolicy}.
+     *
+     * @return the new policy
+     */
+    @NotNull
+    public RateLimitPolicy build() {
+      return new RateLimitPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the calls held back by the client side rate limit of a client config.
+ */
+public final class RateLimitStats {
+  @Nullable
+  private final RateLimiter rateLimiter;
+
+  RateLimitStats(@Nullable final RateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  /**
+   * Gets the number of calls that waited for the rate limit before being sent.
+   *
+   * @return the number of throttled calls
+   */
+  public long getThrottledCalls() {
+    return rateLimiter == null ? 0 : rateLimiter.getThrottledCalls();
+  }
+
+  /**
+   * Gets the number of calls rejected because they could not wait long enough for the rate limit.
+   *
+   * @return the number of rejected calls
+   */
+  public long getRejectedCalls() {
+    return rateLimiter == null ? 0 : rateLimiter.getRejectedCalls();
+  }
+
+  /**
+   * Gets the number of HTTP 429 responses received from the API.
+   *
+   * @return the number of rate limited responses
+   */
+  public long getRateLimitedResponses() {
+    return rateLimiter == null ? 0 : rateLimiter.getRateLimitedResponses();
+  }
+
+  /**
+   * Gets how much longer calls are paused at the API's request.
+   *
+   * @param unit  the unit of the result
+   * @return the remaining pause, or 0 if calls are not paused
+   */
+  public long getPauseRemaining(@NotNull final TimeUnit unit) {
+    return rateLimiter == null ? 0 : unit.convert(rateLimiter.getPauseRemainingNanos(), TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,130 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import retrofit.client.Response;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket shared by every call on a client config, plus a pause requested by the API.
+ *
+ * <p>
+ * The bucket is tracked as the time at which it will be full again (the generic cell rate
+ * algorithm), so reserving a call is a few arithmetic operations and never needs a refill thread.
+ * Calls reserve their slot up front and sleep outside of the lock.
+ */
+class RateLimiter {
+  private static final long DEFAULT_PAUSE_MILLIS = 1000;
+
+  private final long intervalNanos;
+  private final long burstToleranceNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final AtomicLong throttledCalls = new AtomicLong();
+  private final AtomicLong rejectedCalls = new AtomicLong();
+  private final AtomicLong rateLimitedResponses = new AtomicLong();
+
+  private long theoreticalArrivalNanos;
+  private long pausedUntilNanos;
+
+  RateLimiter(@NotNull final RateLimitPolicy policy) {
+    intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / policy.getPermitsPerSecond());
+    burstToleranceNanos = intervalNanos * (policy.getBurst() - 1);
+    long now = System.nanoTime();
+    theoreticalArrivalNanos = now;
+    pausedUntilNanos = now;
+  }
+
+  /**
+   * Reserves the next free slot for a call.
+   *
+   * @param maxWaitNanos  the longest the call may wait for its slot
+   * @return how long to wait before making the call; if longer than the maximum wait, no slot was
+   *         reserved
+   */
+  long reserve(final long maxWaitNanos) {
+    lock.lock();
+    try {
+      long now = System.nanoTime();
+      long arrival = theoreticalArrivalNanos - now > 0 ? theoreticalArrivalNanos : now;
+      long allowedAt = arrival - burstToleranceNanos;
+      if (pausedUntilNanos - now > 0 && pausedUntilNanos - allowedAt > 0) {
+        // The bucket is empty once the pause is over, so calls resume at the steady rate.
+        allowedAt = pausedUntilNanos;
+        arrival = pausedUntilNanos + burstToleranceNanos;
+      }
+
+      long waitNanos = Math.max(0, allowedAt - now);
+      if (waitNanos > maxWaitNanos) {
+        rejectedCalls.incrementAndGet();
+        return waitNanos;
+      }
+      theoreticalArrivalNanos = arrival + intervalNanos;
+      if (waitNanos > 0) {
+        throttledCalls.incrementAndGet();
+      }
+      return waitNanos;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Pauses all calls if the response says the rate limit was hit or is about to be.
+   *
+   * @param response  the HTTP response
+   */
+  void onResponse(@NotNull final Response response) {
+    long nowMillis = System.currentTimeMillis();
+    long pauseMillis = RateLimitHeaders.parseReset(RateLimitHeaders.getHeader(response, RateLimitHeaders.REMAINING),
+                                                   RateLimitHeaders.getHeader(response, RateLimitHeaders.RESET),
+                                                   nowMillis);
+    if (response.getStatus() == RateLimitHeaders.TOO_MANY_REQUESTS) {
+      rateLimitedResponses.incrementAndGet();
+      String retryAfter = RateLimitHeaders.getHeader(response, RateLimitHeaders.RETRY_AFTER);
+      long retryAfterMillis = RateLimitHeaders.parseRetryAfter(retryAfter, nowMillis);
+      if (retryAfterMillis >= 0) {
+        pauseMillis = retryAfterMillis;
+      } else if (pauseMillis < 0) {
+        pauseMillis = DEFAULT_PAUSE_MILLIS;
+      }
+    }
+    if (pauseMillis > 0) {
+      pause(pauseMillis);
+    }
+  }
+
+  private void pause(final long pauseMillis) {
+    lock.lock();
+    try {
+      long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+      if (until - pausedUntilNanos > 0) {
+        pausedUntilNanos = until;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long getPauseRemainingNanos() {
+    lock.lock();
+    try {
+      return Math.max(0, pausedUntilNanos - System.nanoTime());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long getThrottledCalls() {
+    return throttledCalls.get();
+  }
+
+  long getRejectedCalls() {
+    return rejectedCalls.get();
+  }
+
+  long getRateLimitedResponses() {
+    return rateLimitedResponses.get();
+  }
+}
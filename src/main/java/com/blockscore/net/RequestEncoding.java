@@ -0,0 +1,11 @@
+package com.blockscore.net;
+
+/**
+ * How the fields of new people, companies, question sets and watchlist searches are sent to the API.
+ */
+public enum RequestEncoding {
+  /** Every field is URL-encoded into the query string of the request, as the client has always done. */
+  QUERY_PARAMETERS,
+  /** The fields are sent as a JSON body, like the fields of new candidates. Keeps them out of request lines. */
+  JSON
+}
@@ -0,0 +1,81 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Transfer and decode measurements for a single API response.
+ */
+public final class ResponseMetrics {
+  private final String url;
+  private final int status;
+  private final boolean compressed;
+  private final long wireBytes;
+  private final long bodyBytes;
+  private final long decodeNanos;
+
+  ResponseMetrics(@NotNull final String url, final int status, final boolean compressed,
+                  final long wireBytes, final long bodyBytes, final long decodeNanos) {
+    this.url = url;
+    this.status = status;
+    this.compressed = compressed;
+    this.wireBytes = wireBytes;
+    this.bodyBytes = bodyBytes;
+    this.decodeNanos = decodeNanos;
+  }
+
+  /**
+   * Gets the URL of the request.
+   *
+   * @return the request URL
+   */
+  @NotNull
+  public String getUrl() {
+    return url;
+  }
+
+  /**
+   * Gets the HTTP status code of the response.
+   *
+   * @return the status code
+   */
+  public int getStatus() {
+    return status;
+  }
+
+  /**
+   * Indicates whether the response body was gzip compressed on the wire.
+   *
+   * @return true if compressed
+   */
+  public boolean isCompressed() {
+    return compressed;
+  }
+
+  /**
+   * Gets the number of body bytes read from the network.
+   *
+   * @return the bytes read on the wire
+   */
+  public long getWireBytes() {
+    return wireBytes;
+  }
+
+  /**
+   * Gets the number of body bytes after decompression.
+   *
+   * @return the decoded body size
+   */
+  public long getBodyBytes() {
+    return bodyBytes;
+  }
+
+  /**
+   * Gets the time between the converter opening the body and closing it. Because the body is
+   * parsed as it streams in, this covers both the read and the decode.
+   *
+   * @return the decode time in nanoseconds
+   */
+  public long getDecodeNanos() {
+    return decodeNanos;
+  }
+}
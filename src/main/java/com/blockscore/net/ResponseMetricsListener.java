@@ -0,0 +1,13 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives {@link ResponseMetrics} once each response body has been consumed.
+ *
+ * <p>
+ * Listeners are called on the thread that executed the request and should return quickly.
+ */
+public interface ResponseMetricsListener {
+  void onResponseRead(@NotNull ResponseMetrics metrics);
+}
@@ -0,0 +1,90 @@
+package com.blockscore.net;
+
+import com.blockscore.exceptions.DeadlineExceededException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries calls that failed with a connection error or a transient server error, with decorrelated
+ * jitter between attempts and a {@link TokenBudget} bounding the extra load.
+ */
+class RetryInterceptor implements InvocationInterceptor {
+  private static final int MAX_BUDGET_RETRIES = 10;
+
+  private final int maxAttempts;
+  private final long baseDelayNanos;
+  private final long maxDelayNanos;
+  private final String idempotencyKeyHeader;
+  private final TokenBudget budget;
+  private final RetryStats stats;
+
+  /**
+   * Creates a RetryInterceptor.
+   *
+   * @param policy  the retry settings
+   * @param stats  the stats to record retries in
+   */
+  RetryInterceptor(@NotNull final RetryPolicy policy, @NotNull final RetryStats stats) {
+    this.maxAttempts = policy.getMaxAttempts();
+    this.baseDelayNanos = policy.getBaseDelay(TimeUnit.NANOSECONDS);
+    this.maxDelayNanos = policy.getMaxDelay(TimeUnit.NANOSECONDS);
+    this.idempotencyKeyHeader = policy.getIdempotencyKeyHeader();
+    this.budget = new TokenBudget(policy.getBudgetRatio(), MAX_BUDGET_RETRIES);
+    this.stats = stats;
+  }
+
+  @Override
+  public Object intercept(@NotNull final Invocation invocation) {
+    budget.deposit();
+    if (invocation.getOperation().isReadOnly()) {
+      return proceedWithRetries(invocation);
+    }
+    if (idempotencyKeyHeader == null) {
+      return invocation.proceed();
+    }
+
+    String previousKey = IdempotencyKey.set(UUID.randomUUID().toString());
+    try {
+      return proceedWithRetries(invocation);
+    } finally {
+      IdempotencyKey.set(previousKey);
+    }
+  }
+
+  private Object proceedWithRetries(@NotNull final Invocation invocation) {
+    long delayNanos = baseDelayNanos;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return invocation.proceed();
+      } catch (RuntimeException e) {
+        // A call that ran out of time has no time left for another attempt.
+        if (attempt >= maxAttempts || e instanceof DeadlineExceededException || !Failures.isTransient(e)) {
+          throw e;
+        }
+
+        delayNanos = Math.min(maxDelayNanos,
+                              ThreadLocalRandom.current().nextLong(baseDelayNanos, delayNanos * 3 + 1));
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.timeRemaining(TimeUnit.NANOSECONDS) <= delayNanos) {
+          throw e;
+        }
+        if (!budget.tryWithdraw()) {
+          stats.recordBudgetExhausted();
+          throw e;
+        }
+
+        try {
+          TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+        stats.recordRetry();
+      }
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings for retrying calls that fail with a connection error or a transient server error
+ * (HTTP 500, 502, 503 or 504).
+ *
+ * <p>
+ * Read-only calls are always retried. Calls that create or change data are only retried when an
+ * idempotency key header is configured: the client then sends a fresh key with every call and the
+ * same key with each of its retries, so the API can tell a retry from a new call.
+ */
+public final class RetryPolicy {
+  private final int maxAttempts;
+  private final long baseDelayNanos;
+  private final long maxDelayNanos;
+  private final double budgetRatio;
+
+  @Nullable
+  private final String idempotencyKeyHeader;
+
+  private RetryPolicy(@NotNull final Builder builder) {
+    maxAttempts = builder.maxAttempts;
+    baseDelayNanos = builder.baseDelayNanos;
+    maxDelayNanos = builder.maxDelayNanos;
+    budgetRatio = builder.budgetRatio;
+    idempotencyKeyHeader = builder.idempotencyKeyHeader;
+  }
+
+  /**
+   * Gets the maximum number of attempts per call, including the first one.
+   *
+   * @return the maximum number of attempts
+   */
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * Gets the delay the backoff between attempts starts from.
+   *
+   * @param unit  the unit of the result
+   * @return the base delay
+   */
+  public long getBaseDelay(@NotNull final TimeUnit unit) {
+    return unit.convert(baseDelayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gets the longest delay between attempts.
+   *
+   * @param unit  the unit of the result
+   * @return the maximum delay
+   */
+  public long getMaxDelay(@NotNull final TimeUnit unit) {
+    return unit.convert(maxDelayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Gets the maximum number of retries per call, over time.
+   *
+   * @return the retry budget ratio
+   */
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  /**
+   * Gets the name of the header carrying the idempotency key of calls that change data.
+   *
+   * @return the header name, or null if such calls are not retried
+   */
+  @Nullable
+  public String getIdempotencyKeyHeader() {
+    return idempotencyKeyHeader;
+  }
+
+  /**
+   * The builder used for constructing a {@link RetryPolicy}.
+   */
+  public static class Builder {
+    private int maxAttempts = 3;
+    private long baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(100);
+    private long maxDelayNanos = TimeUnit.SECONDS.toNanos(5);
+    private double budgetRatio = 0.1;
+
+    @Nullable
+    private String idempotencyKeyHeader;
+
+    /**
+     * Sets the maximum number of attempts per call, including the first one. Defaults to 3.
+     *
+     * @param maxAttempts  the maximum number of attempts
+     * @return this
+     */
+    @NotNull
+    public Builder setMaxAttempts(final int maxAttempts) {
+      if (maxAttempts < 1) {
+        throw new IllegalArgumentException("maxAttempts < 1");
+      }
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Sets the range of the delay between attempts. Each delay is drawn at random between the base
+     * delay and three times the previous delay, capped at the maximum ("decorrelated jitter"), so
+     * clients that failed together do not retry together. Defaults to 100 milliseconds and 5 seconds.
+     *
+     * @param baseDelay  the base delay
+     * @param maxDelay  the maximum delay
+     * @param unit  the unit of the delays
+     * @return this
+     */
+    @NotNull
+    public Builder setBackoff(final long baseDelay, final long maxDelay, @NotNull final TimeUnit unit) {
+      if (baseDelay <= 0) {
+        throw new IllegalArgumentException("baseDelay <= 0");
+      }
+      if (maxDelay < baseDelay) {
+        throw new IllegalArgumentException("maxDelay < baseDelay");
+      }
+      this.baseDelayNanos = unit.toNanos(baseDelay);
+      this.maxDelayNanos = unit.toNanos(maxDelay);
+      return this;
+    }
+
+    /**
+     * Sets the retry budget as a share of calls. At 0.1, retries add at most one request per ten
+     * calls over time, so an outage cannot multiply the load on the API. Defaults to 0.1.
+     *
+     * @param budgetRatio  the share of calls that may be retried, between 0 and 1
+     * @return this
+     */
+    @NotNull
+    public Builder setBudgetRatio(final double budgetRatio) {
+      if (!(budgetRatio >= 0 && budgetRatio <= 1)) {
+        throw new IllegalArgumentException("budgetRatio not in [0, 1]");
+      }
+      this.budgetRatio = budgetRatio;
+      return this;
+    }
+
+    /**
+     * Sets the header that carries an idempotency key (e.g. {@code "Idempotency-Key"}) and so allows
+     * retrying calls that create or change data. Not set by default.
+     *
+     * @param idempotencyKeyHeader  the header name, or null to only retry read-only calls
+     * @return this
+     */
+    @NotNull
+    public Builder setIdempotencyKeyHeader(@Nullable final String idempotencyKeyHeader) {
+      this.idempotencyKeyHeader = idempotencyKeyHeader;
+      return this;
+    }
+
+    /**
+     * Creates a new {@link RetryPolicy}.
+     *
+     * @return the new policy
+     */
+    @NotNull
+    public RetryPolicy build() {
+      return new RetryPolicy(this);
+    }
+  }
+}
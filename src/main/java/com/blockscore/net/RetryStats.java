@@ -0,0 +1,41 @@
+package com.blockscore.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the retries made by a client config.
+ */
+public final class RetryStats {
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong budgetExhausted = new AtomicLong();
+
+  RetryStats() {
+    // Only created by ClientConfig.
+  }
+
+  void recordRetry() {
+    retries.incrementAndGet();
+  }
+
+  void recordBudgetExhausted() {
+    budgetExhausted.incrementAndGet();
+  }
+
+  /**
+   * Gets the number of retries sent.
+   *
+   * @return the number of retries
+   */
+  public long getRetries() {
+    return retries.get();
+  }
+
+  /**
+   * Gets the number of failed calls that were not retried because the retry budget was used up.
+   *
+   * @return the number of calls not retried for lack of budget
+   */
+  public long getBudgetExhausted() {
+    return budgetExhausted.get();
+  }
+}
@@ -0,0 +1,61 @@
+package com.blockscore.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the TLS handshakes performed by a transport, split into full and resumed handshakes.
+ *
+ * <p>
+ * Up to TLS 1.2, a handshake is counted as resumed when it completed with a session an earlier
+ * handshake already completed with, i.e. one taken from the session cache. TLS 1.3 resumes with
+ * pre-shared keys under a new session, which the JDK gives no way of telling apart from a full
+ * handshake, so TLS 1.3 handshakes are counted as unclassified.
+ */
+public final class TlsHandshakeStats {
+  private final AtomicLong fullHandshakes = new AtomicLong();
+  private final AtomicLong resumedHandshakes = new AtomicLong();
+  private final AtomicLong unclassifiedHandshakes = new AtomicLong();
+
+  TlsHandshakeStats() {
+    // Only created by ClientConfig.
+  }
+
+  void recordHandshake(final boolean resumed) {
+    if (resumed) {
+      resumedHandshakes.incrementAndGet();
+    } else {
+      fullHandshakes.incrementAndGet();
+    }
+  }
+
+  void recordUnclassifiedHandshake() {
+    unclassifiedHandshakes.incrementAndGet();
+  }
+
+  /**
+   * Gets the number of full handshakes.
+   *
+   * @return the number of full handshakes
+   */
+  public long getFullHandshakes() {
+    return fullHandshakes.get();
+  }
+
+  /**
+   * Gets the number of handshakes that resumed a cached session.
+   *
+   * @return the number of resumed handshakes
+   */
+  public long getResumedHandshakes() {
+    return resumedHandshakes.get();
+  }
+
+  /**
+   * Gets the number of TLS 1.3 handshakes, which are not classified as full or resumed.
+   *
+   * @return the number of unclassified handshakes
+   */
+  public long getUnclassifiedHandshakes() {
+    return unclassifiedHandshakes.get();
+  }
+}
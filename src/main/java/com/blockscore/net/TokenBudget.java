@@ -0,0 +1,49 @@
+package com.blockscore.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free budget for extra requests, such as hedges or retries. Every call deposits a fraction
+ * of a token and every extra request withdraws a whole one, so over time extra requests never exceed
+ * that fraction of calls. The balance is capped, which also bounds bursts.
+ */
+class TokenBudget {
+  private static final long MICROS_PER_TOKEN = 1000000;
+
+  private final long depositMicros;
+  private final long maxMicros;
+  private final AtomicLong balanceMicros;
+
+  /**
+   * Creates a TokenBudget that starts full.
+   *
+   * @param ratio  the fraction of a token deposited per call, between 0 and 1
+   * @param maxTokens  the most tokens the budget holds
+   */
+  TokenBudget(final double ratio, final int maxTokens) {
+    this.depositMicros = (long) (ratio * MICROS_PER_TOKEN);
+    this.maxMicros = maxTokens * MICROS_PER_TOKEN;
+    this.balanceMicros = new AtomicLong(maxMicros);
+  }
+
+  void deposit() {
+    long current;
+    do {
+      current = balanceMicros.get();
+      if (current >= maxMicros) {
+        return;
+      }
+    } while (!balanceMicros.compareAndSet(current, Math.min(maxMicros, current + depositMicros)));
+  }
+
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = balanceMicros.get();
+      if (current < MICROS_PER_TOKEN) {
+        return false;
+      }
+    } while (!balanceMicros.compareAndSet(current, current - MICROS_PER_TOKEN));
+    return true;
+  }
+}
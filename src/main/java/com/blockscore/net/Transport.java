@@ -0,0 +1,39 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+
+/**
+ * Sends the HTTP requests of API calls.
+ *
+ * <p>
+ * Everything above the transport (interceptors, limits, retries, rate limit headers, deadlines and
+ * cancellation) works the same whichever transport is used. A transport only has to send the
+ * request within the exchange's timeout and abort it when the exchange is cancelled.
+ *
+ * <p>
+ * The transport is synchronous. Retrofit 1.9 sends each request from the calling thread, and the
+ * limits, retries and deadlines wrap that call, so a non-blocking transport would still leave a
+ * thread waiting for every response. For many calls in flight, use {@link BlockscoreAsyncClient}
+ * with {@link BlockscoreExecutors#newVirtualThreadPerTaskExecutor()} where the JVM has virtual
+ * threads, which makes a waiting call cheap.
+ *
+ * @see ClientConfig.Builder#setTransport(Transport)
+ */
+public interface Transport {
+  /**
+   * Sends a request and returns its response. The response body, if any, is read and closed by
+   * the caller.
+   *
+   * @param request  the request
+   * @param exchange  the timeout and cancellation of this request
+   * @return the response
+   * @throws IOException if the request could not be sent or the response could not be read, which
+   *                     includes the exchange being cancelled
+   */
+  @NotNull
+  Response execute(@NotNull Request request, @NotNull Exchange exchange) throws IOException;
+}
@@ -0,0 +1,219 @@
+package com.blockscore.net;
+
+import org.jetbrains.annotations.NotNull;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A {@link Transport} on the JDK's {@link HttpURLConnection}, for environments where OkHttp cannot be
+ * used or the JDK's own connection handling is preferred.
+ *
+ * <p>
+ * Connections are pooled by the JDK's keep-alive cache. Cancelling an exchange disconnects its
+ * connection. {@code HttpURLConnection} cannot send {@code PATCH}, so PATCH requests (e.g.
+ * {@link com.blockscore.models.Candidate#save()}) fail with a {@link ProtocolException} before
+ * anything is sent; use the default OkHttp transport for them.
+ *
+ * <p>
+ * Request bodies up to 64 KiB are buffered so that the JDK can still read the response when the
+ * server answers with an authentication challenge; larger ones are streamed.
+ */
+public final class UrlConnectionTransport implements Transport {
+  private static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+  private static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+  private static final String CONTENT_LENGTH_HEADER = "Content-Length";
+  private static final String GZIP = "gzip";
+  private static final String PATCH = "PATCH";
+  private static final long DEFAULT_TIMEOUT_MILLIS = 30 * 1000;
+  private static final int MAX_BUFFERED_BODY_BYTES = 64 * 1024;
+
+  private final long connectTimeoutMillis;
+  private final long readTimeoutMillis;
+
+  /**
+   * Creates an UrlConnectionTransport with 30 second connect and read timeouts.
+   */
+  public UrlConnectionTransport() {
+    this(DEFAULT_TIMEOUT_MILLIS, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates an UrlConnectionTransport.
+   *
+   * @param connectTimeout  the connect timeout, or 0 for none
+   * @param readTimeout  the read timeout, or 0 for none
+   * @param unit  the unit of the timeouts
+   */
+  public UrlConnectionTransport(final long connectTimeout, final long readTimeout, @NotNull final TimeUnit unit) {
+    if (connectTimeout < 0) {
+      throw new IllegalArgumentException("connectTimeout < 0");
+    }
+    if (readTimeout < 0) {
+      throw new IllegalArgumentException("readTimeout < 0");
+    }
+    this.connectTimeoutMillis = unit.toMillis(connectTimeout);
+    this.readTimeoutMillis = unit.toMillis(readTimeout);
+  }
+
+  @NotNull
+  @Override
+  public Response execute(@NotNull final Request request, @NotNull final Exchange exchange) throws IOException {
+    if (PATCH.equals(request.getMethod())) {
+      throw new ProtocolException("HttpURLConnection cannot send PATCH requests such as " + request.getUrl()
+                                  + "; use the OkHttp transport for them");
+    }
+
+    final HttpURLConnection connection = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+    exchange.onCancel(new Runnable() {
+      @Override
+      public void run() {
+        connection.disconnect();
+      }
+    });
+
+    long budgetMillis = 0;
+    long budgetNanos = exchange.getTimeout(TimeUnit.NANOSECONDS);
+    if (budgetNanos != 0) {
+      // Rounded up, so that a socket timeout never fires before the budget has run out.
+      budgetMillis = TimeUnit.NANOSECONDS.toMillis(budgetNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+    connection.setConnectTimeout((int) shorterTimeout(connectTimeoutMillis, budgetMillis));
+    connection.setReadTimeout((int) shorterTimeout(readTimeoutMillis, budgetMillis));
+
+    try {
+      writeRequest(connection, request);
+      return readResponse(connection, request.getUrl());
+    } catch (IOException e) {
+      connection.disconnect();
+      throw e;
+    }
+  }
+
+  private static long shorterTimeout(final long configuredMillis, final long budgetMillis) {
+    // A timeout of zero means no timeout.
+    if (budgetMillis == 0) {
+      return Math.min(configuredMillis, Integer.MAX_VALUE);
+    }
+    return configuredMillis == 0 ? budgetMillis : Math.min(configuredMillis, budgetMillis);
+  }
+
+  private static void writeRequest(@NotNull final HttpURLConnection connection, @NotNull final Request request)
+      throws IOException {
+    String method = request.getMethod();
+    connection.setRequestMethod(method);
+    connection.setDoInput(true);
+    connection.setRequestProperty(ACCEPT_ENCODING_HEADER, GZIP);
+
+    List<Header> headers = request.getHeaders();
+    for (int i = 0, size = headers.size(); i < size; i++) {
+      Header header = headers.get(i);
+      connection.addRequestProperty(header.getName(), header.getValue() == null ? "" : header.getValue());
+    }
+
+    TypedOutput body = request.getBody();
+    if (body == null) {
+      if ("POST".equals(method) || "PUT".equals(method)) {
+        // Query-only POSTs (e.g. createPerson) still need an empty body.
+        connection.setDoOutput(true);
+        connection.getOutputStream().close();
+      }
+      return;
+    }
+
+    connection.setDoOutput(true);
+    connection.setRequestProperty("Content-Type", body.mimeType());
+    // In streaming mode the JDK cannot replay the request, so it drops the response of a 401 and
+    // throws instead. API requests are small, so they are buffered and only large ones streamed.
+    long length = body.length();
+    if (length > MAX_BUFFERED_BODY_BYTES) {
+      connection.setFixedLengthStreamingMode(length);
+    } else if (length == -1) {
+      connection.setChunkedStreamingMode(4096);
+    }
+    OutputStream out = connection.getOutputStream();
+    try {
+      body.writeTo(out);
+    } finally {
+      out.close();
+    }
+  }
+
+  @NotNull
+  private static Response readResponse(@NotNull final HttpURLConnection connection, @NotNull final String url)
+      throws IOException {
+    int status = connection.getResponseCode();
+    String reason = connection.getResponseMessage();
+    boolean compressed = GZIP.equalsIgnoreCase(connection.getHeaderField(CONTENT_ENCODING_HEADER));
+
+    List<Header> headers = new ArrayList<Header>();
+    for (Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+      String name = field.getKey();
+      // The status line has no name, and the body is inflated before the converter sees it.
+      if (name == null || compressed && (CONTENT_ENCODING_HEADER.equalsIgnoreCase(name)
+                                         || CONTENT_LENGTH_HEADER.equalsIgnoreCase(name))) {
+        continue;
+      }
+      for (String value : field.getValue()) {
+        headers.add(new Header(name, value));
+      }
+    }
+
+    InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+    if (stream == null || connection.getContentLength() == 0) {
+      if (stream != null) {
+        stream.close();
+      }
+      return new Response(url, status, reason, headers, null);
+    }
+    if (compressed) {
+      stream = new GZIPInputStream(stream);
+    }
+    long length = compressed ? -1 : connection.getContentLength();
+    return new Response(url, status, reason, headers, new StreamBody(stream, connection.getContentType(), length));
+  }
+
+  /**
+   * The body of a response, read straight from the connection.
+   */
+  private static final class StreamBody implements TypedInput {
+    private final InputStream stream;
+    private final String mimeType;
+    private final long length;
+
+    StreamBody(@NotNull final InputStream stream, final String mimeType, final long length) {
+      this.stream = stream;
+      this.mimeType = mimeType;
+      this.length = length;
+    }
+
+    @Override
+    public String mimeType() {
+      return mimeType;
+    }
+
+    @Override
+    public long length() {
+      return length;
+    }
+
+    @Override
+    public InputStream in() {
+      return stream;
+    }
+  }
+}
@@ -1,28 +0,0 @@
-package com.blockscore.net;
-
-import com.squareup.okhttp.Interceptor.Chain;
-import com.squareup.okhttp.Interceptor;
-import com.squareup.okhttp.Request;
-import com.squareup.okhttp.Response;
-
-import java.io.IOException;
-
-class UserAgentInterceptor implements Interceptor {
-
-  private final String userAgent;
-
-  public UserAgentInterceptor(String userAgent) {
-    this.userAgent = userAgent;
-  }
-
-  @Override
-  public Response intercept(Chain chain) throws IOException {
-    Request originalRequest = chain.request();
-    Request requestWithUserAgent =
-                originalRequest.newBuilder()
-                               .removeHeader("User-Agent")
-                               .addHeader("User-Agent", userAgent)
-                               .build();
-    return chain.proceed(requestWithUserAgent);
-  }
-}
@@ -0,0 +1,42 @@
+package com.blockscore.net;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Heap allocation counters for the benchmarks. HotSpot only; other JVMs report zero.
+ */
+final class Allocations {
+  private Allocations() {}
+
+  /**
+   * Bytes allocated so far by the calling thread.
+   */
+  static long currentThread() {
+    com.sun.management.ThreadMXBean threads = hotSpotThreads();
+    return threads == null ? 0 : threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Bytes allocated so far by all live threads; threads that have exited are not counted.
+   */
+  static long allThreads() {
+    com.sun.management.ThreadMXBean threads = hotSpotThreads();
+    if (threads == null) {
+      return 0;
+    }
+    long total = 0;
+    for (long id : threads.getAllThreadIds()) {
+      long bytes = threads.getThreadAllocatedBytes(id);
+      if (bytes > 0) {
+        total += bytes;
+      }
+    }
+    return total;
+  }
+
+  private static com.sun.management.ThreadMXBean hotSpotThreads() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    return threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+  }
+}
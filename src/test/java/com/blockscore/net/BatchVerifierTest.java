@@ -0,0 +1,221 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.InvalidRequestException;
+import com.blockscore.models.Company;
+import com.blockscore.models.error.ValidationErrorType;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch verification tests, against a local stand-in for the API.
+ */
+public class BatchVerifierTest {
+  @Test
+  public void testItemsKeepTheirInputOrder() {
+    List<Callable<Integer>> calls = new ArrayList<Callable<Integer>>();
+    for (int i = 0; i < 8; i++) {
+      final int index = i;
+      calls.add(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          // The first items take the longest, so they complete last.
+          Thread.sleep((8 - index) * 10);
+          return index;
+        }
+      });
+    }
+
+    BatchResult<Integer> result = new BatchVerifier.Builder().setParallelism(8).build().run(calls.iterator());
+
+    assertEquals(8, result.getSuccessCount());
+    for (int i = 0; i < 8; i++) {
+      assertEquals(i, result.getItems().get(i).getIndex());
+      assertEquals(Integer.valueOf(i), result.getItems().get(i).getResult());
+    }
+  }
+
+  @Test
+  public void testParallelismBoundsTheItemsInFlight() {
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger peak = new AtomicInteger();
+    final AtomicInteger consumed = new AtomicInteger();
+    final AtomicInteger completed = new AtomicInteger();
+    final AtomicInteger mostAhead = new AtomicInteger();
+    Iterator<Callable<Void>> calls = new Iterator<Callable<Void>>() {
+      @Override
+      public boolean hasNext() {
+        return consumed.get() < 20;
+      }
+
+      @Override
+      public Callable<Void> next() {
+        // The input is read no further ahead than the parallelism allows.
+        mostAhead.set(Math.max(mostAhead.get(), consumed.incrementAndGet() - completed.get()));
+        return new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            peak.set(Math.max(peak.get(), inFlight.incrementAndGet()));
+            Thread.sleep(10);
+            inFlight.decrementAndGet();
+            completed.incrementAndGet();
+            return null;
+          }
+        };
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    BatchResult<Void> result = new BatchVerifier.Builder().setParallelism(3).build().run(calls);
+
+    assertEquals(20, result.getSuccessCount());
+    assertTrue(peak.get() <= 3);
+    assertTrue(mostAhead.get() <= 3);
+  }
+
+  @Test
+  public void testFailingInputCancelsTheItemsInFlight() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger consumed = new AtomicInteger();
+    Iterator<Callable<Void>> calls = new Iterator<Callable<Void>>() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public Callable<Void> next() {
+        if (consumed.incrementAndGet() > 2) {
+          // Fails once the first two items are running.
+          while (running.get() < 2) {
+            Thread.yield();
+          }
+          throw new IllegalStateException("Unreadable row");
+        }
+        return new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            running.incrementAndGet();
+            try {
+              Thread.sleep(10000);
+            } finally {
+              running.decrementAndGet();
+            }
+            return null;
+          }
+        };
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+
+    try {
+      new BatchVerifier.Builder().setParallelism(4).build().run(calls);
+      fail("Expected the input's failure to propagate");
+    } catch (IllegalStateException expected) {
+      assertEquals("Unreadable row", expected.getMessage());
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (running.get() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(0, running.get());
+  }
+
+  @Test
+  public void testFailedItemsReportTheirValidationError() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        String name = StubServer.query(exchange).get("entity_name");
+        if (name == null) {
+          StubServer.respond(exchange, 400, validationError("cant_be_blank"));
+        } else if (name.startsWith("bad")) {
+          StubServer.respond(exchange, 400, validationError("is_invalid"));
+        } else {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        }
+      }
+    })) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      List<Company.Builder> builders = new ArrayList<Company.Builder>();
+      builders.add(new Company.Builder(client).setEntityName("good"));
+      builders.add(new Company.Builder(client).setEntityName("bad"));
+      builders.add(new Company.Builder(client));
+      builders.add(new Company.Builder(client).setEntityName("good"));
+
+      BatchResult<Company> result = new BatchVerifier.Builder().setParallelism(2).build().verifyCompanies(builders);
+
+      assertEquals(2, result.getSuccessCount());
+      assertEquals(2, result.getFailureCount());
+      List<BatchItem<Company>> items = result.getItems();
+      assertTrue(items.get(0).isSuccess());
+      assertNull(items.get(0).getValidationErrorType());
+      assertFalse(items.get(1).isSuccess());
+      assertTrue(items.get(1).getFailure() instanceof InvalidRequestException);
+      assertEquals(ValidationErrorType.INVALID, items.get(1).getValidationErrorType());
+      assertEquals(ValidationErrorType.CANNOT_BE_BLANK, items.get(2).getValidationErrorType());
+      assertEquals(1, result.getFailures().get(0).getIndex());
+      assertEquals(2, result.getFailures().get(1).getIndex());
+    }
+  }
+
+  @Test
+  public void testLatencyPercentilesUseTheNearestRank() {
+    List<BatchItem<Void>> items = new ArrayList<BatchItem<Void>>();
+    for (int i = 1; i <= 100; i++) {
+      items.add(new BatchItem<Void>(i - 1, null, null, TimeUnit.MILLISECONDS.toNanos(i)));
+    }
+    // The percentiles do not depend on the order the items completed in.
+    Collections.shuffle(items);
+    BatchResult<Void> result = new BatchResult<Void>(items, TimeUnit.SECONDS.toNanos(2));
+
+    assertEquals(1, result.getLatencyPercentile(0, TimeUnit.MILLISECONDS));
+    assertEquals(50, result.getLatencyPercentile(50, TimeUnit.MILLISECONDS));
+    assertEquals(90, result.getLatencyPercentile(90, TimeUnit.MILLISECONDS));
+    assertEquals(100, result.getLatencyPercentile(99.5, TimeUnit.MILLISECONDS));
+    assertEquals(100, result.getLatencyPercentile(100, TimeUnit.MILLISECONDS));
+    assertEquals(50, result.getThroughput(), 1e-9);
+  }
+
+  @Test
+  public void testEmptyBatchHasNoLatency() {
+    BatchResult<Void> result = new BatchVerifier.Builder().build().run(Collections.<Callable<Void>>emptyIterator());
+
+    assertEquals(0, result.getItems().size());
+    assertEquals(0, result.getLatencyPercentile(99, TimeUnit.MILLISECONDS));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsPercentilesOutOfRange() {
+    new BatchResult<Void>(Collections.<BatchItem<Void>>emptyList(), 0).getLatencyPercentile(101, TimeUnit.MILLISECONDS);
+  }
+
+  private static String validationError(String code) {
+    return "{\"error\":{\"type\":\"invalid_request_error\",\"message\":\"Entity name " + code + "\","
+           + "\"param\":\"entity_name\",\"code\":\"" + code + "\"}}";
+  }
+}
@@ -0,0 +1,137 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.DeadlineExceededException;
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Async client behavior tests against a local stand-in for the API.
+ */
+public class BlockscoreFutureTest {
+  private static final HttpHandler SLOW_COMPANY = new HttpHandler() {
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      StubServer.sleep(300);
+      StubServer.respond(exchange, 200, StubServer.COMPANY);
+    }
+  };
+
+  @Test
+  public void testCallbackExceptionsDoNotReachExecutorThread() throws Exception {
+    final AtomicReference<Throwable> uncaught = new AtomicReference<Throwable>();
+    Executor executor = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        Thread thread = new Thread(command);
+        thread.setUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+          @Override
+          public void uncaughtException(Thread t, Throwable e) {
+            uncaught.set(e);
+          }
+        });
+        thread.start();
+      }
+    };
+
+    try (StubServer server = new StubServer(SLOW_COMPANY)) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      final CountDownLatch secondCallback = new CountDownLatch(1);
+      BlockscoreFuture<Company> future = new BlockscoreAsyncClient(client, executor).retrieveCompany("c");
+      future.addCallback(new RecordingCallback<Company>() {
+        @Override
+        public void onSuccess(Company result) {
+          throw new IllegalStateException("Broken callback");
+        }
+      });
+      future.addCallback(new RecordingCallback<Company>() {
+        @Override
+        public void onSuccess(Company result) {
+          secondCallback.countDown();
+        }
+      });
+
+      assertTrue(secondCallback.await(5, TimeUnit.SECONDS));
+      Thread.sleep(50);
+      assertNull(uncaught.get());
+    }
+  }
+
+  @Test
+  public void testCancelNotifiesCallbacks() throws Exception {
+    try (StubServer server = new StubServer(SLOW_COMPANY)) {
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", server.newConfig().build());
+      BlockscoreFuture<Company> future = client.retrieveCompany("c");
+      RecordingCallback<Company> callback = new RecordingCallback<Company>();
+      future.addCallback(callback);
+      while (server.getRequestCount() == 0) {
+        Thread.sleep(5);
+      }
+
+      assertTrue(future.cancel(false));
+      assertTrue(future.isCancelled());
+      assertTrue(callback.done.await(5, TimeUnit.SECONDS));
+      assertTrue(callback.failure.get() instanceof CancellationException);
+    }
+  }
+
+  @Test
+  public void testCallRunsWithCallersDeadline() throws Exception {
+    try (StubServer server = new StubServer(SLOW_COMPANY)) {
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", server.newConfig().build());
+      BlockscoreFuture<Company> future;
+      Deadline.Scope scope = Deadline.after(50, TimeUnit.MILLISECONDS).attach();
+      try {
+        future = client.retrieveCompany("c");
+      } finally {
+        scope.close();
+      }
+
+      try {
+        future.get();
+        fail("Expected the deadline to expire");
+      } catch (ExecutionException e) {
+        assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof DeadlineExceededException);
+      }
+    }
+  }
+
+  @Test
+  public void testResultIsDelivered() throws Exception {
+    try (StubServer server = new StubServer(SLOW_COMPANY)) {
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", server.newConfig().build());
+      assertEquals("536c1f7b6837390002000000", client.retrieveCompany("c").get().getId());
+    }
+  }
+
+  private static class RecordingCallback<T> implements BlockscoreCallback<T> {
+    final CountDownLatch done = new CountDownLatch(1);
+    final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+    @Override
+    public void onSuccess(T result) {
+      done.countDown();
+    }
+
+    @Override
+    public void onFailure(Throwable failure) {
+      this.failure.set(failure);
+      done.countDown();
+    }
+  }
+}
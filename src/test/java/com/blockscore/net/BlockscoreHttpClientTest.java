@@ -0,0 +1,128 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.DeadlineExceededException;
+import com.blockscore.models.Company;
+import com.blockscore.models.Person;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/2 mode and request limit tests against local stand-ins for the API.
+ */
+public class BlockscoreHttpClientTest {
+  private static final String PERSON = "{\"id\":\"p\",\"object\":\"person\"}";
+
+  @Test
+  public void testHttp2ModeFallsBackToHttp11() throws Exception {
+    try (StubServer server = StubServer.tls(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      // The stand-in only speaks HTTP/1.1, so ALPN, where available, settles on it.
+      ClientConfig config = server.newConfig().setHttp2Enabled(true).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      assertEquals("536c1f7b6837390002000000", client.retrieveCompany("c").getId());
+      assertEquals("536c1f7b6837390002000000", client.retrieveCompany("c").getId());
+      // Both calls went over one connection.
+      TlsHandshakeStats handshakes = TlsHandshakeStatsTest.awaitHandshakes(config, 1);
+      // Leaves time for a second handshake, if there was one, to be reported.
+      Thread.sleep(100);
+      assertEquals(1, handshakes.getFullHandshakes() + handshakes.getResumedHandshakes()
+                      + handshakes.getUnclassifiedHandshakes());
+    }
+  }
+
+  @Test
+  public void testCallSlotIsHeldUntilBodyIsRead() throws Exception {
+    try (StubServer server = StubServer.tls(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestURI().getPath().startsWith("/people")) {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+          return;
+        }
+        // The headers arrive straight away, and the body only after a while.
+        byte[] body = PERSON.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body, 0, 1);
+        out.flush();
+        StubServer.sleep(1000);
+        out.write(body, 1, body.length - 1);
+        out.close();
+      }
+    })) {
+      ClientConfig config = server.newConfig()
+                                  .setHttp2Enabled(true)
+                                  .setMaxConcurrentCalls(1)
+                                  .setOperationTimeout(ApiOperation.RETRIEVE_COMPANY, 300, TimeUnit.MILLISECONDS)
+                                  .build();
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", config);
+      BlockscoreFuture<Person> slow = client.retrievePerson("p");
+      while (server.getRequestCount() == 0) {
+        Thread.sleep(5);
+      }
+      // Leaves time for a second handshake, if there was one, to be reported.
+      Thread.sleep(100);
+
+      long startNanos = System.nanoTime();
+      try {
+        client.getClient().retrieveCompany("c");
+        fail("Expected the call to wait for the slot held by the slow body");
+      } catch (DeadlineExceededException expected) {
+        assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(250));
+        assertEquals(1, server.getRequestCount());
+      }
+      slow.cancel(false);
+    }
+  }
+
+  @Test
+  public void testRequestsPerHostAreBounded() throws Exception {
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        for (int max = maxInFlight.get(); current > max; max = maxInFlight.get()) {
+          maxInFlight.compareAndSet(max, current);
+        }
+        StubServer.sleep(100);
+        inFlight.decrementAndGet();
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", server.newConfig()
+                                                                                .setMaxRequestsPerHost(2)
+                                                                                .build());
+      List<BlockscoreFuture<Company>> futures = new ArrayList<BlockscoreFuture<Company>>();
+      for (int i = 0; i < 6; i++) {
+        futures.add(client.retrieveCompany("c"));
+      }
+      for (BlockscoreFuture<Company> future : futures) {
+        future.get();
+      }
+
+      assertEquals(2, maxInFlight.get());
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.BulkheadFullException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead behavior tests against a local stand-in for the API.
+ */
+public class BulkheadInterceptorTest {
+  @Test
+  public void testRejectsCallsBeyondTheBulkhead() throws Exception {
+    SlowHandler handler = new SlowHandler();
+    try (StubServer server = new StubServer(handler)) {
+      ClientConfig config = server.newConfig().addBulkhead(retrieval(0)).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      Thread first = retrieveInBackground(client);
+      handler.received.await(5, TimeUnit.SECONDS);
+      try {
+        client.retrieveCompany("second");
+        fail("The call beyond the bulkhead was sent");
+      } catch (BulkheadFullException expected) {
+        assertEquals(1, server.getRequestCount());
+      }
+      first.join();
+
+      BulkheadStats stats = config.getBulkheadStats().get("retrieval");
+      assertEquals(1, stats.getRejectedCalls());
+      assertEquals(0, stats.getInFlight());
+    }
+  }
+
+  @Test
+  public void testWaitingCallTakesTheFreedPermit() throws Exception {
+    SlowHandler handler = new SlowHandler();
+    try (StubServer server = new StubServer(handler)) {
+      ClientConfig config = server.newConfig().addBulkhead(retrieval(5)).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      Thread first = retrieveInBackground(client);
+      handler.received.await(5, TimeUnit.SECONDS);
+      client.retrieveCompany("second");
+      first.join();
+
+      BulkheadStats stats = config.getBulkheadStats().get("retrieval");
+      assertEquals(2, server.getRequestCount());
+      assertEquals(1, stats.getPeakInFlight());
+      assertEquals(1, stats.getSaturatedCalls());
+      assertEquals(0, stats.getRejectedCalls());
+    }
+  }
+
+  @Test
+  public void testFullBulkheadLeavesOtherOperationsAlone() throws Exception {
+    SlowHandler handler = new SlowHandler();
+    try (StubServer server = new StubServer(handler)) {
+      BulkheadPolicy listing = new BulkheadPolicy.Builder("listing").addGroup(OperationGroup.LISTING)
+                                                                   .setMaxConcurrentCalls(1)
+                                                                   .build();
+      ClientConfig config = server.newConfig().addBulkhead(retrieval(0)).addBulkhead(listing).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      Thread first = retrieveInBackground(client);
+      handler.received.await(5, TimeUnit.SECONDS);
+      client.listCompanies();
+      first.join();
+
+      assertEquals(0, config.getBulkheadStats().get("retrieval").getRejectedCalls());
+      assertEquals(0, config.getBulkheadStats().get("listing").getRejectedCalls());
+    }
+  }
+
+  @Test
+  public void testCallsGoOutOnTheBulkheadsConnectionPool() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      ClientConfig config = server.newConfig().addBulkhead(retrieval(0)).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      client.retrieveCompany("c");
+      assertEquals(0, config.getHttpClient().getConnectionPool().getConnectionCount());
+
+      // Listings have no bulkhead, so they use the config's pool.
+      client.listCompanies();
+      assertEquals(1, config.getHttpClient().getConnectionPool().getConnectionCount());
+    }
+  }
+
+  private static BulkheadPolicy retrieval(long maxWaitSeconds) {
+    return new BulkheadPolicy.Builder("retrieval").addGroup(OperationGroup.RETRIEVAL)
+                                                  .setMaxConcurrentCalls(1)
+                                                  .setMaxWait(maxWaitSeconds, TimeUnit.SECONDS)
+                                                  .build();
+  }
+
+  private static Thread retrieveInBackground(final BlockscoreApiClient client) {
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        client.retrieveCompany("first");
+      }
+    });
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Holds the first company retrieval for a while, and answers everything else straight away.
+   */
+  private static final class SlowHandler implements HttpHandler {
+    final CountDownLatch received = new CountDownLatch(1);
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      String path = exchange.getRequestURI().getPath();
+      if (path.endsWith("/first")) {
+        received.countDown();
+        StubServer.sleep(500);
+      }
+      StubServer.respond(exchange, 200, path.endsWith("/companies") ? StubServer.companies(0, 2, 2)
+                                                                     : StubServer.COMPANY);
+    }
+  }
+}
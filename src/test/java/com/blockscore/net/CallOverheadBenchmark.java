@@ -0,0 +1,81 @@
+package com.blockscore.net;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+
+/**
+ * Measures the client's own cost per call, sending requests as OkHttp calls and through
+ * HttpURLConnection against a local stand-in that answers at once: the time and the bytes the
+ * calling thread allocates per call, for the bare transport and for a whole API call. Not a unit
+ * test; run it with {@code java com.blockscore.net.CallOverheadBenchmark [calls]}.
+ */
+public class CallOverheadBenchmark {
+  public static void main(String[] args) throws Exception {
+    int calls = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      Transport okHttp = new OkHttpTransport(new OkHttpClient(), null);
+      Transport urlConnection = new UrlConnectionTransport();
+      Request request = new Request("GET", server.getEndpoint() + "/companies/536c1f7b6837390002000000",
+                                    Collections.<Header>emptyList(), null);
+      BlockscoreApiClient okHttpClient =
+          new BlockscoreApiClient("sk_test_benchmark", server.newConfig().setTransport(okHttp).build());
+      BlockscoreApiClient urlConnectionClient =
+          new BlockscoreApiClient("sk_test_benchmark", server.newConfig().setTransport(urlConnection).build());
+
+      System.out.println("calls=" + calls);
+      // One short round each first, so that neither is measured while the JIT warms up.
+      runTransport("warm-up", okHttp, request, calls / 4);
+      runTransport("warm-up", urlConnection, request, calls / 4);
+      runClient("warm-up", okHttpClient, calls / 4);
+      runClient("warm-up", urlConnectionClient, calls / 4);
+      runTransport("okhttp transport", okHttp, request, calls);
+      runTransport("urlconnection transport", urlConnection, request, calls);
+      runClient("okhttp client", okHttpClient, calls);
+      runClient("urlconnection client", urlConnectionClient, calls);
+    }
+  }
+
+  private static void runTransport(String name, Transport transport, Request request, int calls)
+      throws IOException {
+    byte[] buffer = new byte[4096];
+    long allocatedBefore = Allocations.currentThread();
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      Response response = transport.execute(request, new Exchange(0));
+      try (InputStream in = response.getBody().in()) {
+        while (in.read(buffer) != -1) {
+          // Drains the body so that the connection is reused.
+        }
+      }
+    }
+    report(name, calls, System.nanoTime() - startNanos, Allocations.currentThread() - allocatedBefore);
+  }
+
+  private static void runClient(String name, BlockscoreApiClient client, int calls) {
+    long allocatedBefore = Allocations.currentThread();
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      client.retrieveCompany("536c1f7b6837390002000000");
+    }
+    report(name, calls, System.nanoTime() - startNanos, Allocations.currentThread() - allocatedBefore);
+  }
+
+  private static void report(String name, int calls, long elapsedNanos, long allocated) {
+    System.out.printf("%-24s %7.1f us/call  allocated %6.1f KB/call%n",
+                      name, elapsedNanos / 1e3 / calls, allocated / 1024.0 / calls);
+  }
+}
@@ -0,0 +1,165 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.InvalidRequestException;
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Structured call scope behavior tests against a local stand-in for the API.
+ */
+public class CallScopeTest {
+  private static final String INVALID = "{\"error\":{\"type\":\"invalid_request_error\",\"message\":\"Not found\"}}";
+
+  @Test
+  public void testFirstFailureCancelsSiblings() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().endsWith("/missing")) {
+          StubServer.respond(exchange, 404, INVALID);
+        } else {
+          StubServer.sleep(2000);
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        }
+      }
+    })) {
+      final BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      long startNanos = System.nanoTime();
+      BlockscoreFuture<Company> slow;
+      try (CallScope scope = new CallScope(BlockscoreExecutors.DEFAULT_EXECUTOR)) {
+        slow = scope.fork(retrieveCompany(client, "slow"));
+        scope.fork(retrieveCompany(client, "missing"));
+        scope.join();
+        try {
+          scope.throwIfFailed();
+          fail("Expected the scope to fail");
+        } catch (ExecutionException e) {
+          assertTrue(e.getCause() instanceof InvalidRequestException);
+        }
+      }
+
+      assertTrue(slow.isCancelled());
+      assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(1500));
+    }
+  }
+
+  @Test
+  public void testStepsCutShortByShutdownAreNotFailures() throws Exception {
+    // The test closes the scope itself to shut it down while the first step is running.
+    CallScope scope = new CallScope(BlockscoreExecutors.DEFAULT_EXECUTOR);
+    try {
+      final CountDownLatch firstCancelled = new CountDownLatch(1);
+      final CountDownLatch secondStarted = new CountDownLatch(1);
+      BlockscoreFuture<Object> first = scope.fork(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          Thread.sleep(10000);
+          return null;
+        }
+      });
+      // Fails as a knock-on effect of the first step's cancellation, before the scope cancels it.
+      final BlockscoreFuture<Object> second = scope.fork(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          secondStarted.countDown();
+          firstCancelled.await();
+          throw new IllegalStateException("First step went away");
+        }
+      });
+      first.addCallback(new BlockscoreCallback<Object>() {
+        @Override
+        public void onSuccess(Object result) {
+        }
+
+        @Override
+        public void onFailure(Throwable failure) {
+          firstCancelled.countDown();
+          while (!second.isDone()) {
+            Thread.yield();
+          }
+        }
+      });
+      assertTrue(secondStarted.await(5, TimeUnit.SECONDS));
+
+      scope.close();
+      scope.join().throwIfFailed();
+      assertFalse(second.isCancelled());
+    } finally {
+      scope.close();
+    }
+  }
+
+  @Test
+  public void testJoinWaitsForEveryStep() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.sleep(100);
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      try (CallScope scope = new CallScope(BlockscoreExecutors.DEFAULT_EXECUTOR)) {
+        BlockscoreFuture<Company> first = scope.fork(retrieveCompany(client, "first"));
+        BlockscoreFuture<Company> second = scope.fork(retrieveCompany(client, "second"));
+        scope.join().throwIfFailed();
+
+        assertTrue(first.isDone() && second.isDone());
+        assertEquals("536c1f7b6837390002000000", first.get().getId());
+        assertEquals("536c1f7b6837390002000000", second.get().getId());
+        assertEquals(2, server.getRequestCount());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseWaitsForRunningStepsToReturn() throws Exception {
+    final CountDownLatch started = new CountDownLatch(1);
+    final AtomicBoolean returned = new AtomicBoolean();
+    BlockscoreFuture<Object> step;
+    try (CallScope scope = new CallScope(BlockscoreExecutors.DEFAULT_EXECUTOR)) {
+      step = scope.fork(new Callable<Object>() {
+        @Override
+        public Object call() throws Exception {
+          started.countDown();
+          try {
+            Thread.sleep(10000);
+          } finally {
+            // Takes a moment to unwind after the interrupt.
+            Thread.sleep(100);
+            returned.set(true);
+          }
+          return null;
+        }
+      });
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    assertTrue(step.isCancelled());
+    assertTrue(returned.get());
+  }
+
+  private static Callable<Company> retrieveCompany(final BlockscoreApiClient client, final String id) {
+    return new Callable<Company>() {
+      @Override
+      public Company call() {
+        return client.retrieveCompany(id);
+      }
+    };
+  }
+}
@@ -0,0 +1,260 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.ApiException;
+import com.blockscore.exceptions.BulkheadFullException;
+import com.blockscore.exceptions.CircuitBreakerOpenException;
+import com.blockscore.exceptions.DeadlineExceededException;
+import com.blockscore.models.Person;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker behavior tests against a local stand-in for the API.
+ */
+public class CircuitBreakerInterceptorTest {
+  private static final CircuitBreakerPolicy BREAKER_POLICY =
+      new CircuitBreakerPolicy.Builder().setWindow(2, 2)
+                                        .setFailureRateThreshold(50)
+                                        .setOpenDuration(100, TimeUnit.MILLISECONDS)
+                                        .setProbeCalls(1)
+                                        .build();
+
+  @Test
+  public void testBreakerOpensAndFailsFast() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 503, StubServer.API_ERROR);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(BREAKER_POLICY).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      openBreaker(client);
+
+      try {
+        client.retrieveCompany("c");
+        fail("Expected the open breaker to reject the call");
+      } catch (CircuitBreakerOpenException expected) {
+        assertEquals(2, server.getRequestCount());
+      }
+    }
+  }
+
+  @Test
+  public void testHalfOpenProbeSucceedsAndClosesBreaker() throws Exception {
+    final AtomicBoolean healthy = new AtomicBoolean();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (healthy.get()) {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        } else {
+          StubServer.respond(exchange, 503, StubServer.API_ERROR);
+        }
+      }
+    })) {
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(BREAKER_POLICY).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      openBreaker(client);
+      healthy.set(true);
+      Thread.sleep(150);
+
+      client.retrieveCompany("c");
+      assertEquals(CircuitState.CLOSED, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+    }
+  }
+
+  @Test
+  public void testBulkheadRejectionDoesNotUseUpProbe() throws Exception {
+    final AtomicBoolean healthy = new AtomicBoolean();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().startsWith("/people")) {
+          StubServer.sleep(500);
+          StubServer.respond(exchange, 200, "{\"id\":\"p\",\"object\":\"person\"}");
+        } else if (healthy.get()) {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        } else {
+          StubServer.respond(exchange, 503, StubServer.API_ERROR);
+        }
+      }
+    })) {
+      BulkheadPolicy bulkhead = new BulkheadPolicy.Builder("retrieval").addOperation(ApiOperation.RETRIEVE_PERSON)
+                                                                       .addOperation(ApiOperation.RETRIEVE_COMPANY)
+                                                                       .setMaxConcurrentCalls(1)
+                                                                       .build();
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(BREAKER_POLICY)
+                                              .addBulkhead(bulkhead)
+                                              .build();
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", config);
+      openBreaker(client.getClient());
+      Thread.sleep(150);
+
+      // The person call holds the bulkhead's only permit, so the probe is rejected before it is sent.
+      BlockscoreFuture<Person> person = client.retrievePerson("p");
+      while (server.getRequestCount() < 3) {
+        Thread.sleep(5);
+      }
+      try {
+        client.getClient().retrieveCompany("c");
+        fail("Expected the full bulkhead to reject the probe");
+      } catch (BulkheadFullException expected) {
+        assertEquals(CircuitState.HALF_OPEN,
+                     config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+      }
+
+      person.get();
+      healthy.set(true);
+      client.getClient().retrieveCompany("c");
+      assertEquals(CircuitState.CLOSED, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+    }
+  }
+
+  @Test
+  public void testFailedProbeReopensBreaker() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 503, StubServer.API_ERROR);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(BREAKER_POLICY).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      openBreaker(client);
+      Thread.sleep(150);
+
+      try {
+        client.retrieveCompany("c");
+        fail("Expected the stand-in to fail the probe");
+      } catch (ApiException expected) {
+        assertEquals(CircuitState.OPEN, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+      }
+      try {
+        client.retrieveCompany("c");
+        fail("Expected the reopened breaker to reject the call");
+      } catch (CircuitBreakerOpenException expected) {
+        assertEquals(3, server.getRequestCount());
+      }
+    }
+  }
+
+  @Test
+  public void testClientErrorsDoNotOpenBreaker() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 404, StubServer.API_ERROR);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(BREAKER_POLICY).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      for (int i = 0; i < 4; i++) {
+        try {
+          client.retrieveCompany("missing");
+          fail("Expected the stand-in to reject the call");
+        } catch (ApiException expected) {
+          // Says nothing about the API's health.
+        }
+      }
+      assertEquals(4, server.getRequestCount());
+      assertEquals(CircuitState.CLOSED, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+    }
+  }
+
+  @Test
+  public void testTimeQueuedInBulkheadIsNotSlow() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().startsWith("/people")) {
+          StubServer.sleep(300);
+          StubServer.respond(exchange, 200, "{\"id\":\"p\",\"object\":\"person\"}");
+        } else {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        }
+      }
+    })) {
+      CircuitBreakerPolicy policy = new CircuitBreakerPolicy.Builder().setWindow(2, 1)
+                                                                      .setSlowCalls(100, TimeUnit.MILLISECONDS, 50)
+                                                                      .build();
+      BulkheadPolicy bulkhead = new BulkheadPolicy.Builder("retrieval").addGroup(OperationGroup.RETRIEVAL)
+                                                                       .setMaxConcurrentCalls(1)
+                                                                       .setMaxWait(2, TimeUnit.SECONDS)
+                                                                       .build();
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(policy).addBulkhead(bulkhead).build();
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", config);
+
+      // The company call waits for the person call's permit, but its own exchange is fast.
+      BlockscoreFuture<Person> person = client.retrievePerson("p");
+      while (server.getRequestCount() < 1) {
+        Thread.sleep(5);
+      }
+      client.getClient().retrieveCompany("c");
+      person.get();
+
+      assertEquals(0, config.getCircuitBreakerStats().getSlowCallRate(ApiOperation.RETRIEVE_COMPANY), 0);
+      assertEquals(CircuitState.CLOSED, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+    }
+  }
+
+  @Test
+  public void testDeadlineExpiringBeforeSendIsNotAFailure() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.sleep(500);
+        StubServer.respond(exchange, 200, "{\"id\":\"p\",\"object\":\"person\"}");
+      }
+    })) {
+      ClientConfig config = server.newConfig().setCircuitBreakerPolicy(BREAKER_POLICY)
+                                              .setMaxRequestsPerHost(1)
+                                              .build();
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", config);
+
+      // The person call holds the host's only request slot, so the company calls run out of time
+      // before they are sent.
+      BlockscoreFuture<Person> person = client.retrievePerson("p");
+      while (server.getRequestCount() < 1) {
+        Thread.sleep(5);
+      }
+      for (int i = 0; i < 2; i++) {
+        Deadline.Scope scope = Deadline.after(50, TimeUnit.MILLISECONDS).attach();
+        try {
+          client.getClient().retrieveCompany("c");
+          fail("Expected the deadline to expire");
+        } catch (DeadlineExceededException expected) {
+          // Never reached the API.
+        } finally {
+          scope.close();
+        }
+      }
+      person.get();
+
+      assertEquals(1, server.getRequestCount());
+      assertEquals(0, config.getCircuitBreakerStats().getFailureRate(ApiOperation.RETRIEVE_COMPANY), 0);
+      assertEquals(CircuitState.CLOSED, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+    }
+  }
+
+  private static void openBreaker(BlockscoreApiClient client) {
+    for (int i = 0; i < 2; i++) {
+      try {
+        client.retrieveCompany("c");
+        fail("Expected the stand-in to fail the call");
+      } catch (ApiException expected) {
+        // Counted against the breaker.
+      }
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request coalescing tests against a local stand-in for the API.
+ */
+public class CoalescingInterceptorTest {
+  @Test
+  public void testConcurrentCallsShareOneRequest() throws Exception {
+    SlowHandler handler = new SlowHandler(500);
+    try (StubServer server = new StubServer(handler)) {
+      ClientConfig config = server.newConfig().setRequestCoalescingEnabled(true).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      Thread leader = retrieveInBackground(client, new AtomicLong());
+      handler.received.await(5, TimeUnit.SECONDS);
+      client.retrieveCompany("c");
+      leader.join();
+
+      assertEquals(1, server.getRequestCount());
+      assertEquals(1, config.getCoalescingStats().getLeaderCalls());
+      assertEquals(1, config.getCoalescingStats().getCoalescedCalls());
+    }
+  }
+
+  @Test
+  public void testFollowerReportsLeadersResponseBytes() throws Exception {
+    SlowHandler handler = new SlowHandler(500);
+    try (StubServer server = new StubServer(handler)) {
+      BlockscoreApiClient client =
+          new BlockscoreApiClient("sk_test", server.newConfig().setRequestCoalescingEnabled(true).build());
+
+      AtomicLong leaderBytes = new AtomicLong();
+      Thread leader = retrieveInBackground(client, leaderBytes);
+      handler.received.await(5, TimeUnit.SECONDS);
+      CallContext context = new CallContext();
+      CallContext previous = CallContext.attach(context);
+      try {
+        client.retrieveCompany("c");
+      } finally {
+        CallContext.attach(previous);
+      }
+      leader.join();
+
+      assertEquals(1, server.getRequestCount());
+      assertEquals(StubServer.COMPANY.length(), leaderBytes.get());
+      assertEquals(leaderBytes.get(), context.getResponseBytes());
+    }
+  }
+
+  @Test
+  public void testCancelledFollowerStopsWaiting() throws Exception {
+    SlowHandler handler = new SlowHandler(3000);
+    try (StubServer server = new StubServer(handler)) {
+      ClientConfig config = server.newConfig().setRequestCoalescingEnabled(true).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      Thread leader = retrieveInBackground(client, new AtomicLong());
+      handler.received.await(5, TimeUnit.SECONDS);
+
+      final CountDownLatch workerDone = new CountDownLatch(1);
+      Executor executor = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+          new Thread(new Runnable() {
+            @Override
+            public void run() {
+              command.run();
+              workerDone.countDown();
+            }
+          }).start();
+        }
+      };
+      BlockscoreFuture<Company> follower = new BlockscoreAsyncClient(client, executor).retrieveCompany("c");
+      Thread.sleep(100);
+
+      follower.cancel(false);
+      // The follower gives up on the flight while the leader is still waiting for its response.
+      assertTrue(workerDone.await(1, TimeUnit.SECONDS));
+      assertTrue(leader.isAlive());
+      leader.join();
+      assertEquals(1, server.getRequestCount());
+    }
+  }
+
+  /**
+   * Retrieves a company on a thread of its own, with a context recording the response's size.
+   */
+  private static Thread retrieveInBackground(final BlockscoreApiClient client, final AtomicLong responseBytes) {
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        CallContext context = new CallContext();
+        CallContext.attach(context);
+        try {
+          client.retrieveCompany("c");
+          responseBytes.set(context.getResponseBytes());
+        } finally {
+          CallContext.attach(null);
+        }
+      }
+    });
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Signals that a request has arrived, then answers it after a delay.
+   */
+  private static final class SlowHandler implements HttpHandler {
+    final CountDownLatch received = new CountDownLatch(1);
+    private final long delayMillis;
+
+    SlowHandler(long delayMillis) {
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      received.countDown();
+      StubServer.sleep(delayMillis);
+      StubServer.respond(exchange, 200, StubServer.COMPANY);
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.ConcurrencyLimitExceededException;
+import com.blockscore.exceptions.DeadlineExceededException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Adaptive concurrency limit tests, against the limiter itself and a local stand-in for the API.
+ */
+public class ConcurrencyLimitInterceptorTest {
+  private static final long RTT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  public void testRejectsCallsBeyondTheLimit() throws Exception {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(new ConcurrencyLimitPolicy.Builder().setLimits(2, 1, 10).build());
+
+    assertTrue(limiter.acquire(0));
+    assertTrue(limiter.acquire(0));
+    assertFalse(limiter.acquire(0));
+    assertEquals(1, limiter.getRejections());
+  }
+
+  @Test
+  public void testQueuedCallTakesTheFreedSlot() throws Exception {
+    final AdaptiveLimiter limiter = new AdaptiveLimiter(
+        new ConcurrencyLimitPolicy.Builder().setLimits(1, 1, 10).setQueue(1, 5, TimeUnit.SECONDS).build());
+    assertTrue(limiter.acquire(0));
+
+    final AtomicBoolean acquired = new AtomicBoolean();
+    Thread waiter = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          acquired.set(limiter.acquire(TimeUnit.SECONDS.toNanos(5)));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    waiter.start();
+    Thread.sleep(50);
+    // The queue is full, so a third call is turned away at once.
+    assertFalse(limiter.acquire(TimeUnit.SECONDS.toNanos(5)));
+
+    limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+    waiter.join(1000);
+    assertTrue(acquired.get());
+    assertEquals(1, limiter.getInFlight());
+  }
+
+  @Test
+  public void testDroppedCallsBackOffOncePerRoundTrip() throws Exception {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(
+        new ConcurrencyLimitPolicy.Builder().setLimits(10, 1, 10).setBackoffRatio(0.5).build());
+    assertTrue(limiter.acquire(0));
+    limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+    Thread.sleep(5);
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.acquire(0));
+    }
+    for (int i = 0; i < 3; i++) {
+      limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.DROPPED);
+    }
+    // The three calls were dropped within one round trip, so the limit is halved only once.
+    assertEquals(5, limiter.getLimit());
+  }
+
+  @Test
+  public void testSlowRoundTripsBackOff() throws Exception {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(
+        new ConcurrencyLimitPolicy.Builder().setLimits(10, 1, 10).setBackoffRatio(0.5).setRttTolerance(2).build());
+    assertTrue(limiter.acquire(0));
+    limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+
+    // Smoothing takes several slow round trips to go past the tolerance.
+    for (int i = 0; i < 20 && limiter.getLimit() == 10; i++) {
+      Thread.sleep(15);
+      assertTrue(limiter.acquire(0));
+      limiter.release(10 * RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+    }
+    assertEquals(5, limiter.getLimit());
+    assertEquals(1, limiter.getBaselineRtt(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testGrowsOnlyWhileTheLimitIsInUse() throws Exception {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(new ConcurrencyLimitPolicy.Builder().setLimits(4, 1, 10).build());
+
+    // One call in flight out of four leaves the limit alone.
+    for (int i = 0; i < 20; i++) {
+      assertTrue(limiter.acquire(0));
+      limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+    }
+    assertEquals(4, limiter.getLimit());
+
+    // With every slot taken, each success adds one over the limit, so it takes five to reach five.
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limiter.acquire(0));
+    }
+    for (int i = 0; i < 4; i++) {
+      limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+      assertTrue(limiter.acquire(0));
+    }
+    assertEquals(4, limiter.getLimit());
+    limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.SUCCESS);
+    assertEquals(5, limiter.getLimit());
+  }
+
+  @Test
+  public void testIgnoredFailuresLeaveTheLimitAlone() throws Exception {
+    AdaptiveLimiter limiter = new AdaptiveLimiter(new ConcurrencyLimitPolicy.Builder().setLimits(4, 1, 10).build());
+    Thread.sleep(5);
+
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limiter.acquire(0));
+      limiter.release(RTT_NANOS, AdaptiveLimiter.Sample.IGNORED);
+    }
+    assertEquals(4, limiter.getLimit());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  public void testClientRejectsCallsBeyondTheLimit() throws Exception {
+    final CountDownLatch received = new CountDownLatch(1);
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        received.countDown();
+        StubServer.sleep(500);
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setConcurrencyLimitPolicy(
+          new ConcurrencyLimitPolicy.Builder().setLimits(1, 1, 1).build()).build();
+      final BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      Thread first = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          client.retrieveCompany("first");
+        }
+      });
+      first.start();
+      received.await(5, TimeUnit.SECONDS);
+      try {
+        client.retrieveCompany("second");
+        fail("The call beyond the limit was sent");
+      } catch (ConcurrencyLimitExceededException e) {
+        assertEquals(1, config.getConcurrencyLimitStats().getRejections(ApiOperation.RETRIEVE_COMPANY));
+      }
+      first.join();
+      assertEquals(1, server.getRequestCount());
+      assertEquals(0, config.getConcurrencyLimitStats().getInFlight(ApiOperation.RETRIEVE_COMPANY));
+    }
+  }
+
+  @Test
+  public void testDeadlineExpiringBeforeSendLeavesTheLimitAlone() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.sleep(500);
+        StubServer.respond(exchange, 200, "{\"id\":\"p\",\"object\":\"person\"}");
+      }
+    })) {
+      ClientConfig config = server.newConfig().setMaxRequestsPerHost(1).setConcurrencyLimitPolicy(
+          new ConcurrencyLimitPolicy.Builder().setLimits(4, 1, 10).build()).build();
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", config);
+
+      // The person call holds the host's only request slot, so the company call runs out of time
+      // before it is sent.
+      BlockscoreFuture<?> person = client.retrievePerson("p");
+      while (server.getRequestCount() < 1) {
+        Thread.sleep(5);
+      }
+      Deadline.Scope scope = Deadline.after(50, TimeUnit.MILLISECONDS).attach();
+      try {
+        client.getClient().retrieveCompany("c");
+        fail("Expected the deadline to expire");
+      } catch (DeadlineExceededException expected) {
+        assertEquals(4, config.getConcurrencyLimitStats().getLimit(ApiOperation.RETRIEVE_COMPANY));
+      } finally {
+        scope.close();
+      }
+      person.get();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+
+import com.blockscore.common.Constants;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Connection warm-up tests against a local TLS stand-in for the API.
+ */
+public class ConnectionWarmerTest {
+  @Test
+  public void testPingsCarryTheClientHeaders() throws Exception {
+    final AtomicReference<String> authorization = new AtomicReference<String>();
+    final AtomicReference<String> userAgent = new AtomicReference<String>();
+    try (StubServer server = StubServer.tls(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        authorization.set(exchange.getRequestHeaders().getFirst(Constants.AUTHORIZATION_HEADER));
+        userAgent.set(exchange.getRequestHeaders().getFirst(Constants.USER_AGENT_HEADER));
+        exchange.sendResponseHeaders(200, -1);
+      }
+    })) {
+      new BlockscoreApiClient("sk_test", server.newConfig().build()).warmUp(1);
+
+      // "sk_test:" in Base 64.
+      assertEquals("Basic c2tfdGVzdDo=", authorization.get());
+      assertEquals(Constants.USER_AGENT, userAgent.get());
+    }
+  }
+
+  @Test
+  public void testReportsDistinctConnections() throws Exception {
+    final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+    try (StubServer server = StubServer.tls(new RecordingHandler(clientPorts))) {
+      ClientConfig config = server.newConfig().setMaxIdleConnections(4).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      // Each ping holds on to its connection until the others have one, so none is shared.
+      assertEquals(4, client.warmUp(4));
+      assertEquals(4, clientPorts.size());
+      assertEquals(4, config.getHttpClient().getConnectionPool().getConnectionCount());
+    }
+  }
+
+  @Test
+  public void testWarmsEachBulkheadPool() throws Exception {
+    final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+    try (StubServer server = StubServer.tls(new RecordingHandler(clientPorts))) {
+      BulkheadPolicy bulkhead = new BulkheadPolicy.Builder("listing").addGroup(OperationGroup.LISTING)
+                                                                     .setMaxConcurrentCalls(2)
+                                                                     .build();
+      ClientConfig config = server.newConfig().addBulkhead(bulkhead).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      // Three in the config's pool, and two, the bulkhead's size, in the bulkhead's pool.
+      assertEquals(5, client.warmUp(3));
+      assertEquals(5, clientPorts.size());
+    }
+  }
+
+  @Test
+  public void testAsyncWarmUpReportsConnections() throws Exception {
+    final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+    try (StubServer server = StubServer.tls(new RecordingHandler(clientPorts))) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+
+      assertEquals(Integer.valueOf(2), client.warmUpAsync(2).get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * Records the client port of each request, one per connection, and answers with no body.
+   */
+  private static final class RecordingHandler implements HttpHandler {
+    private final Set<Integer> clientPorts;
+
+    RecordingHandler(Set<Integer> clientPorts) {
+      this.clientPorts = clientPorts;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      exchange.sendResponseHeaders(200, -1);
+    }
+  }
+}
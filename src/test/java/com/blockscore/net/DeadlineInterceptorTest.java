@@ -0,0 +1,85 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.DeadlineExceededException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+import retrofit.RetrofitError;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline behavior tests against a local stand-in for the API.
+ */
+public class DeadlineInterceptorTest {
+  @Test
+  public void testDeadlineBoundsBodyDownload() throws Exception {
+    try (StubServer server = new StubServer(new TricklingBody(100))) {
+      ClientConfig config = server.newConfig()
+                                  .setOperationTimeout(ApiOperation.RETRIEVE_COMPANY, 300, TimeUnit.MILLISECONDS)
+                                  .build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      long startNanos = System.nanoTime();
+      try {
+        client.retrieveCompany("c");
+        fail("Expected the deadline to expire while the body was downloading");
+      } catch (DeadlineExceededException expected) {
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(1000));
+      }
+    }
+  }
+
+  @Test
+  public void testReadTimeoutWithinBudgetIsNotDeadline() throws Exception {
+    try (StubServer server = new StubServer(new TricklingBody(500))) {
+      ClientConfig config = server.newConfig()
+                                  .setReadTimeout(100, TimeUnit.MILLISECONDS)
+                                  .setOperationTimeout(ApiOperation.RETRIEVE_COMPANY, 5, TimeUnit.SECONDS)
+                                  .build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      try {
+        client.retrieveCompany("c");
+        fail("Expected the read to time out");
+      } catch (RetrofitError e) {
+        assertEquals(RetrofitError.Kind.NETWORK, e.getKind());
+      } catch (DeadlineExceededException e) {
+        fail("A read timeout well within the budget is not the deadline expiring");
+      }
+    }
+  }
+
+  /**
+   * Sends the headers straight away and then the company one byte at a time.
+   */
+  private static final class TricklingBody implements HttpHandler {
+    private final long pauseMillis;
+
+    TricklingBody(final long pauseMillis) {
+      this.pauseMillis = pauseMillis;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      byte[] body = StubServer.COMPANY.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      OutputStream out = exchange.getResponseBody();
+      for (byte b : body) {
+        out.write(b);
+        out.flush();
+        StubServer.sleep(pauseMillis);
+      }
+      out.close();
+    }
+  }
+}
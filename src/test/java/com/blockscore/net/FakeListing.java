@@ -0,0 +1,105 @@
+package com.blockscore.net;
+
+import com.blockscore.models.PaginatedResult;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory stand-in for a listing of the integers from 0, for the paginator tests.
+ */
+final class FakeListing implements PageFetcher<Integer> {
+  final AtomicInteger fetches = new AtomicInteger();
+  final AtomicInteger interrupted = new AtomicInteger();
+
+  private final int size;
+  private final int reportedCount;
+  private final Map<Integer, Integer> shortPages = new ConcurrentHashMap<Integer, Integer>();
+  private final Set<Integer> failOnce = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+  private volatile CountDownLatch blockPastFirstPage;
+
+  /**
+   * Creates a FakeListing.
+   *
+   * @param size  the number of items, past which has_more is false
+   * @param reportedCount  the total count each page reports
+   */
+  FakeListing(int size, int reportedCount) {
+    this.size = size;
+    this.reportedCount = reportedCount;
+  }
+
+  /**
+   * Returns no more than the given number of items for the page starting at the given offset.
+   */
+  FakeListing shortPage(int offset, int count) {
+    shortPages.put(offset, count);
+    return this;
+  }
+
+  /**
+   * Fails the first fetch of the page starting at the given offset.
+   */
+  FakeListing failOnce(int offset) {
+    failOnce.add(offset);
+    return this;
+  }
+
+  /**
+   * Holds every fetch but that of the first page until the latch is released.
+   */
+  FakeListing blockPastFirstPage(CountDownLatch latch) {
+    blockPastFirstPage = latch;
+    return this;
+  }
+
+  @NotNull
+  @Override
+  public PaginatedResult<Integer> fetchPage(int count, int offset) {
+    fetches.incrementAndGet();
+    CountDownLatch latch = blockPastFirstPage;
+    if (latch != null && offset > 0) {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        interrupted.incrementAndGet();
+        throw new IllegalStateException(e);
+      }
+    }
+    if (failOnce.remove(offset)) {
+      throw new IllegalStateException("Page at " + offset + " failed");
+    }
+
+    Integer cap = shortPages.get(offset);
+    int end = Math.min(size, offset + Math.min(count, cap == null ? count : cap));
+    List<Integer> data = new ArrayList<Integer>();
+    for (int i = offset; i < end; i++) {
+      data.add(i);
+    }
+    return new PaginatedResult<Integer>(data, reportedCount, end < size);
+  }
+
+  static List<Integer> drain(Iterable<Integer> listing) {
+    List<Integer> items = new ArrayList<Integer>();
+    for (Integer item : listing) {
+      items.add(item);
+    }
+    return items;
+  }
+
+  static List<Integer> range(int size) {
+    List<Integer> items = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(i);
+    }
+    return items;
+  }
+}
@@ -0,0 +1,145 @@
+package com.blockscore.net;
+
+import com.blockscore.common.Constants;
+
+import retrofit.RequestInterceptor;
+import retrofit.client.Header;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * Measures the time and the bytes allocated per request by the header interceptors. Compares the
+ * prepared header chain with computing the headers on every request, and shows what Retrofit's own
+ * {@link RequestInterceptor.RequestFacade#addHeader}, which allocates a {@link Header} per header,
+ * adds on top. Not a unit test; run it with {@code java com.blockscore.net.HeaderChainBenchmark
+ * [requests]}.
+ */
+public class HeaderChainBenchmark {
+  private static final String API_KEY = "sk_test_benchmark";
+
+  public static void main(String[] args) throws Exception {
+    int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+
+    String[] staticHeaders = {
+      Constants.AUTHORIZATION_HEADER, encodeAuthorization(),
+      Constants.ACCEPT_HEADER, Constants.getAcceptHeaders(),
+      Constants.USER_AGENT_HEADER, Constants.USER_AGENT
+    };
+    RequestInterceptor chain =
+        new RequestInterceptorChain(staticHeaders, Collections.<RequestInterceptor>emptyList(), "Idempotency-Key");
+    RequestInterceptor perRequest = new RequestInterceptor() {
+      @Override
+      public void intercept(RequestFacade request) {
+        try {
+          request.addHeader(Constants.AUTHORIZATION_HEADER, encodeAuthorization());
+        } catch (UnsupportedEncodingException e) {
+          throw new RuntimeException(e);
+        }
+        request.addHeader(Constants.ACCEPT_HEADER, String.format("application/vnd.blockscore+json;version=%s", "4"));
+        request.addHeader(Constants.USER_AGENT_HEADER, Constants.USER_AGENT);
+      }
+    };
+
+    System.out.println("requests=" + requests);
+    // One round each first, so that neither is measured while the JIT warms up.
+    for (String name : new String[] {"warm-up", null}) {
+      run(name == null ? "chain" : name, chain, new CountingFacade(), requests);
+      run(name == null ? "per-request headers" : name, perRequest, new CountingFacade(), requests);
+      run(name == null ? "chain + retrofit facade" : name, chain, new RetrofitFacade(), requests);
+    }
+  }
+
+  private static void run(String name, RequestInterceptor interceptor, Facade facade, int requests) {
+    long allocatedBefore = Allocations.currentThread();
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < requests; i++) {
+      facade.reset();
+      interceptor.intercept(facade);
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    long allocated = Allocations.currentThread() - allocatedBefore;
+
+    System.out.printf("%-24s %6.1f ns/request  allocated %6.1f B/request  (%d)%n",
+                      name, elapsedNanos / (double) requests, allocated / (double) requests, facade.checksum());
+  }
+
+  private static String encodeAuthorization() throws UnsupportedEncodingException {
+    return "Basic " + DatatypeConverter.printBase64Binary((API_KEY + ":").getBytes("UTF-8"));
+  }
+
+  /**
+   * A request facade that can be reused across requests.
+   */
+  private abstract static class Facade implements RequestInterceptor.RequestFacade {
+    abstract void reset();
+
+    abstract long checksum();
+
+    @Override
+    public void addPathParam(String name, String value) {
+    }
+
+    @Override
+    public void addEncodedPathParam(String name, String value) {
+    }
+
+    @Override
+    public void addQueryParam(String name, String value) {
+    }
+
+    @Override
+    public void addEncodedQueryParam(String name, String value) {
+    }
+  }
+
+  /**
+   * Only looks at the headers, so that the interceptors' own allocations are measured.
+   */
+  private static final class CountingFacade extends Facade {
+    private long checksum;
+
+    @Override
+    void reset() {
+    }
+
+    @Override
+    long checksum() {
+      return checksum;
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      // Keeps the JIT from discarding the header values.
+      checksum += value.length();
+    }
+  }
+
+  /**
+   * Collects the headers the way Retrofit's request builder does.
+   */
+  private static final class RetrofitFacade extends Facade {
+    private List<Header> headers = new ArrayList<Header>();
+    private long checksum;
+
+    @Override
+    void reset() {
+      checksum += headers.size();
+      headers = new ArrayList<Header>();
+    }
+
+    @Override
+    long checksum() {
+      return checksum;
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      headers.add(new Header(name, value));
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+import retrofit.RequestInterceptor;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedging behavior tests against a local stand-in for the API.
+ */
+public class HedgingInterceptorTest {
+  private static final HedgingPolicy POLICY = new HedgingPolicy.Builder().setDelayPercentile(90)
+                                                                         .setMinDelay(50, TimeUnit.MILLISECONDS)
+                                                                         .setMaxHedgeRatio(0.5)
+                                                                         .build();
+
+  @Test
+  public void testSlowRequestIsHedged() throws Exception {
+    try (StubServer server = new StubServer(new SlowFirstRequest())) {
+      ClientConfig config = server.newConfig().setHedgingPolicy(POLICY).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      warmUp(client);
+      StatsSnapshot before = new StatsSnapshot(config.getHedgingStats());
+
+      long startNanos = System.nanoTime();
+      client.retrieveCompany("slow");
+
+      assertTrue(System.nanoTime() - startNanos < TimeUnit.SECONDS.toNanos(2));
+      StatsSnapshot after = new StatsSnapshot(config.getHedgingStats());
+      assertEquals(1, after.hedgedCalls - before.hedgedCalls);
+      assertEquals(1, after.hedgeWins - before.hedgeWins);
+    }
+  }
+
+  @Test
+  public void testFirstRequestRunsOnCallersThread() throws Exception {
+    final AtomicReference<Thread> requestThread = new AtomicReference<Thread>();
+    try (StubServer server = new StubServer(new SlowFirstRequest())) {
+      ClientConfig config = server.newConfig().setHedgingPolicy(POLICY).addRequestInterceptor(new RequestInterceptor() {
+        @Override
+        public void intercept(RequestFacade request) {
+          requestThread.set(Thread.currentThread());
+        }
+      }).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      warmUp(client);
+
+      client.retrieveCompany("c");
+      assertSame(Thread.currentThread(), requestThread.get());
+    }
+  }
+
+  @Test
+  public void testCancellingCallerCancelsBothRequests() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getPath().endsWith("/slow")) {
+          StubServer.sleep(3000);
+        }
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setHedgingPolicy(POLICY).build();
+      warmUp(new BlockscoreApiClient("sk_test", config));
+
+      final CountDownLatch workerDone = new CountDownLatch(1);
+      Executor executor = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+          new Thread(new Runnable() {
+            @Override
+            public void run() {
+              command.run();
+              workerDone.countDown();
+            }
+          }).start();
+        }
+      };
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient(new BlockscoreApiClient("sk_test", config), executor);
+      BlockscoreFuture<Company> future = client.retrieveCompany("slow");
+      while (config.getHedgingStats().getHedgedCalls() == 0) {
+        Thread.sleep(5);
+      }
+
+      future.cancel(false);
+      // Both requests are cut short, so the worker does not wait for either response.
+      assertTrue(workerDone.await(1, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testHedgeTakesItsOwnBulkheadPermit() throws Exception {
+    try (StubServer server = new StubServer(new SlowFirstRequest())) {
+      BulkheadPolicy bulkhead = new BulkheadPolicy.Builder("retrieval").addGroup(OperationGroup.RETRIEVAL)
+                                                                       .setMaxConcurrentCalls(1)
+                                                                       .build();
+      ClientConfig config = server.newConfig().setHedgingPolicy(POLICY).addBulkhead(bulkhead).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      warmUp(client);
+      // A losing hedge from the warm-up may still hold the permit for a moment.
+      BulkheadStats bulkheadStats = config.getBulkheadStats().get("retrieval");
+      while (bulkheadStats.getInFlight() > 0) {
+        Thread.sleep(5);
+      }
+      StatsSnapshot stats = new StatsSnapshot(config.getHedgingStats());
+      int before = server.getRequestCount();
+
+      // The hedge finds the bulkhead full, so the first request completes the call on its own.
+      assertEquals("536c1f7b6837390002000000", client.retrieveCompany("slow").getId());
+      StatsSnapshot after = new StatsSnapshot(config.getHedgingStats());
+      assertEquals(1, after.hedgedCalls - stats.hedgedCalls);
+      assertEquals(0, after.hedgeWins - stats.hedgeWins);
+      assertEquals(before + 1, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void testBudgetBoundsTheHedges() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      private final Set<String> seen = Collections.synchronizedSet(new HashSet<String>());
+
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        // The first request for each slow company is held back, so its hedge wins.
+        String path = exchange.getRequestURI().getPath();
+        if (path.contains("/slow") && seen.add(path)) {
+          StubServer.sleep(500);
+        }
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      // Without deposits, only the ten hedges the budget starts with can be sent.
+      HedgingPolicy policy = new HedgingPolicy.Builder().setDelayPercentile(90)
+                                                        .setMinDelay(50, TimeUnit.MILLISECONDS)
+                                                        .setMaxHedgeRatio(0)
+                                                        .build();
+      ClientConfig config = server.newConfig().setHedgingPolicy(policy).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      warmUp(client);
+      StatsSnapshot before = new StatsSnapshot(config.getHedgingStats());
+
+      for (int i = 0; i < 12; i++) {
+        client.retrieveCompany("slow" + i);
+      }
+
+      // Hedges sent during the warm-up come out of the same ten tokens.
+      StatsSnapshot after = new StatsSnapshot(config.getHedgingStats());
+      assertEquals(10, after.hedgedCalls);
+      assertEquals(12, (after.hedgedCalls - before.hedgedCalls) + (after.budgetExhausted - before.budgetExhausted));
+      assertEquals(after.hedgedCalls - before.hedgedCalls, after.hedgeWins - before.hedgeWins);
+    }
+  }
+
+  @Test
+  public void testWritesAreNeverHedged() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod())) {
+          StubServer.sleep(300);
+        }
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setHedgingPolicy(POLICY).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      warmUp(client);
+      StatsSnapshot stats = new StatsSnapshot(config.getHedgingStats());
+      int before = server.getRequestCount();
+
+      new Company.Builder(client).setEntityName("BlockScore").create();
+
+      assertEquals(before + 1, server.getRequestCount());
+      assertEquals(stats.hedgedCalls, config.getHedgingStats().getHedgedCalls());
+    }
+  }
+
+  private static void warmUp(BlockscoreApiClient client) {
+    for (int i = 0; i < 32; i++) {
+      client.retrieveCompany("c");
+    }
+  }
+
+  /**
+   * The hedging counters at one point in time, so that hedges sent during the warm-up are left out.
+   */
+  private static final class StatsSnapshot {
+    final long hedgedCalls;
+    final long hedgeWins;
+    final long budgetExhausted;
+
+    StatsSnapshot(HedgingStats stats) {
+      this.hedgedCalls = stats.getHedgedCalls();
+      this.hedgeWins = stats.getHedgeWins();
+      this.budgetExhausted = stats.getBudgetExhausted();
+    }
+  }
+
+  /**
+   * Delays the first request for the "slow" company, and answers everything else straight away.
+   */
+  private static final class SlowFirstRequest implements HttpHandler {
+    private final AtomicInteger slowRequests = new AtomicInteger();
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      if (exchange.getRequestURI().getPath().endsWith("/slow") && slowRequests.getAndIncrement() == 0) {
+        StubServer.sleep(1500);
+      }
+      StubServer.respond(exchange, 200, StubServer.COMPANY);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Listing publisher behavior tests against a local stand-in for the API.
+ */
+public class ListingPublisherTest {
+  @Test
+  public void testPassesReactiveStreamsTck() {
+    TestListenerAdapter results = new TestListenerAdapter();
+    TestNG testng = new TestNG();
+    testng.setUseDefaultListeners(false);
+    testng.setVerbose(0);
+    testng.setTestClasses(new Class<?>[] {ListingPublisherVerification.class});
+    testng.addListener(results);
+    testng.run();
+
+    StringBuilder failures = new StringBuilder();
+    for (ITestResult result : results.getFailedTests()) {
+      failures.append('\n').append(result.getName()).append(": ").append(result.getThrowable());
+    }
+    assertEquals("TCK failures:" + failures, 0, results.getFailedTests().size());
+    assertFalse(results.getPassedTests().isEmpty());
+  }
+
+  @Test
+  public void testFetchesFullPagesWhateverTheDemand() throws Exception {
+    final AtomicInteger largestPage = new AtomicInteger();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        Map<String, String> query = StubServer.query(exchange);
+        int count = Integer.parseInt(query.get("count"));
+        largestPage.set(Math.max(largestPage.get(), count));
+        StubServer.respond(exchange, 200, StubServer.companies(Integer.parseInt(query.get("offset")), count, 150));
+      }
+    })) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      final CountDownLatch completed = new CountDownLatch(1);
+      final AtomicInteger received = new AtomicInteger();
+      client.publishCompanies().subscribe(new Subscriber<Company>() {
+        private Subscription subscription;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+          this.subscription = subscription;
+          subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Company company) {
+          received.incrementAndGet();
+          subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+        }
+
+        @Override
+        public void onComplete() {
+          completed.countDown();
+        }
+      });
+
+      assertTrue(completed.await(5, TimeUnit.SECONDS));
+      assertEquals(150, received.get());
+      assertEquals(2, server.getRequestCount());
+      assertEquals(PageFetcher.MAX_PAGE_SIZE, largestPage.get());
+    }
+  }
+
+  @Test
+  public void testNoItemIsSignalledBeforeOnSubscribeReturns() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 200, StubServer.companies(0, 100, 1));
+      }
+    })) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      final AtomicBoolean inOnSubscribe = new AtomicBoolean();
+      final AtomicBoolean overlapped = new AtomicBoolean();
+      final CountDownLatch completed = new CountDownLatch(1);
+      client.publishCompanies().subscribe(new Subscriber<Company>() {
+        @Override
+        public void onSubscribe(Subscription subscription) {
+          inOnSubscribe.set(true);
+          subscription.request(Long.MAX_VALUE);
+          // Gives a drain started by the request time to run into this method.
+          StubServer.sleep(300);
+          inOnSubscribe.set(false);
+        }
+
+        @Override
+        public void onNext(Company company) {
+          overlapped.compareAndSet(false, inOnSubscribe.get());
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+        }
+
+        @Override
+        public void onComplete() {
+          completed.countDown();
+        }
+      });
+
+      assertTrue(completed.await(5, TimeUnit.SECONDS));
+      assertFalse(overlapped.get());
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.blockscore.net;
+
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.tck.PublisherVerification;
+import org.reactivestreams.tck.TestEnvironment;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Runs the Reactive Streams TCK against {@link ListingPublisher}, listing companies from a local
+ * stand-in for the API. Each publisher lists as many companies as the first path segment of its
+ * endpoint says. Run through {@link ListingPublisherTest}.
+ */
+public class ListingPublisherVerification extends PublisherVerification<Company> {
+  private StubServer server;
+
+  public ListingPublisherVerification() {
+    super(new TestEnvironment(300), 1000);
+  }
+
+  @BeforeClass
+  public void startServer() throws IOException {
+    server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        String total = exchange.getRequestURI().getPath().split("/")[1];
+        Map<String, String> query = StubServer.query(exchange);
+        StubServer.respond(exchange, 200, StubServer.companies(Integer.parseInt(query.get("offset")),
+                                                               Integer.parseInt(query.get("count")),
+                                                               Integer.parseInt(total)));
+      }
+    });
+  }
+
+  @AfterClass
+  public void stopServer() {
+    server.close();
+  }
+
+  @Override
+  public Publisher<Company> createPublisher(long elements) {
+    ClientConfig config = new ClientConfig.Builder().setEndpoint(server.getEndpoint() + "/" + elements).build();
+    return new BlockscoreApiClient("sk_test", config).publishCompanies();
+  }
+
+  @Override
+  public Publisher<Company> createFailedPublisher() {
+    // A listing only fails once a page is fetched, which takes demand.
+    return null;
+  }
+
+  @Override
+  public long maxElementsFromPublisher() {
+    return 1000;
+  }
+}
@@ -0,0 +1,77 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+import retrofit.client.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OkHttp transport tests against a local stand-in for the API.
+ */
+public class OkHttpTransportTest {
+  @Test
+  public void testExecuteReturnsResponse() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      Response response = new OkHttpTransport(new OkHttpClient(), null)
+          .execute(UrlConnectionTransportTest.post(server, "/companies"), new Exchange(0));
+
+      assertEquals(StubServer.COMPANY, UrlConnectionTransportTest.read(response));
+    }
+  }
+
+  @Test
+  public void testSuppliedClientIsLeftAsItIs() {
+    OkHttpClient client = new OkHttpClient();
+    new OkHttpTransport(client, null);
+
+    assertTrue(client.networkInterceptors().isEmpty());
+  }
+
+  @Test
+  public void testCancelledRequestFails() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.sleep(2000);
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      final OkHttpTransport transport = new OkHttpTransport(new OkHttpClient(), null);
+      final Exchange exchange = new Exchange(0);
+      final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+      final CountDownLatch done = new CountDownLatch(1);
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            transport.execute(UrlConnectionTransportTest.post(server, "/companies"), exchange);
+          } catch (IOException e) {
+            failure.set(e);
+          }
+          done.countDown();
+        }
+      }).start();
+      while (server.getRequestCount() == 0) {
+        Thread.sleep(5);
+      }
+
+      exchange.cancel();
+      assertTrue(done.await(1, TimeUnit.SECONDS));
+      assertTrue(failure.get() instanceof IOException);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Paging iterator behavior tests against an in-memory stand-in for a listing.
+ */
+public class PagingIterableTest {
+  @Test
+  public void testWalksTheWholeListing() {
+    FakeListing listing = new FakeListing(250, 250);
+
+    assertEquals(FakeListing.range(250), FakeListing.drain(new PagingIterable<Integer>(listing, 50)));
+    assertEquals(FakeListing.range(250), FakeListing.drain(new PagingIterable<Integer>(listing, 50).withPrefetch(3)));
+  }
+
+  @Test
+  public void testShortPageRealignsThePagesFetchedAhead() {
+    // The pages fetched ahead of the short one start 30 items too far.
+    FakeListing listing = new FakeListing(250, 250).shortPage(50, 20);
+
+    assertEquals(FakeListing.range(250), FakeListing.drain(new PagingIterable<Integer>(listing, 50).withPrefetch(3)));
+  }
+
+  @Test
+  public void testStopsWhenThereIsNoMore() {
+    // The count overstates the listing; has_more is what ends it.
+    FakeListing listing = new FakeListing(120, 1000);
+
+    assertEquals(FakeListing.range(120), FakeListing.drain(new PagingIterable<Integer>(listing, 50).withPrefetch(3)));
+  }
+
+  @Test
+  public void testResumesFromAFailedPage() {
+    FakeListing listing = new FakeListing(250, 250).failOnce(100);
+    ListingIterator<Integer> iterator = new PagingIterable<Integer>(listing, 50).withPrefetch(2).iterator();
+
+    List<Integer> items = new ArrayList<Integer>();
+    try {
+      while (iterator.hasNext()) {
+        items.add(iterator.next());
+      }
+      fail("The failed page was not reported");
+    } catch (IllegalStateException e) {
+      assertEquals(100, items.size());
+    }
+    while (iterator.hasNext()) {
+      items.add(iterator.next());
+    }
+    assertEquals(FakeListing.range(250), items);
+  }
+
+  @Test
+  public void testCloseCancelsThePagesFetchedAhead() throws Exception {
+    CountDownLatch never = new CountDownLatch(1);
+    FakeListing listing = new FakeListing(250, 250).blockPastFirstPage(never);
+    ListingIterator<Integer> iterator = new PagingIterable<Integer>(listing, 50).withPrefetch(2).iterator();
+
+    assertTrue(iterator.hasNext());
+    while (listing.fetches.get() < 3) {
+      Thread.sleep(5);
+    }
+    iterator.close();
+
+    assertFalse(iterator.hasNext());
+    while (listing.interrupted.get() < 2) {
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Partitioned scan behavior tests against an in-memory stand-in for a listing.
+ */
+public class PartitionedListingTest {
+  @Test
+  public void testOrderedScanKeepsTheListingsOrder() {
+    FakeListing listing = new FakeListing(250, 250);
+
+    assertEquals(FakeListing.range(250), FakeListing.drain(new PartitionedListing<Integer>(listing, 50, 3)));
+  }
+
+  @Test
+  public void testUnorderedScanDeliversEveryItemOnce() {
+    FakeListing listing = new FakeListing(250, 250);
+
+    List<Integer> items = FakeListing.drain(new PartitionedListing<Integer>(listing, 50, 3).unordered());
+    Collections.sort(items);
+    assertEquals(FakeListing.range(250), items);
+  }
+
+  @Test
+  public void testShortPageFetchesTheRestOfItsRange() {
+    FakeListing listing = new FakeListing(250, 250).shortPage(50, 20);
+
+    assertEquals(FakeListing.range(250), FakeListing.drain(new PartitionedListing<Integer>(listing, 50, 3)));
+  }
+
+  @Test
+  public void testStopsWhenThereIsNoMore() {
+    FakeListing listing = new FakeListing(120, 1000);
+
+    assertEquals(FakeListing.range(120), FakeListing.drain(new PartitionedListing<Integer>(listing, 50, 3)));
+  }
+
+  @Test
+  public void testCarriesOnPastTheFirstCount() {
+    // The listing grew after the first page gave its count.
+    FakeListing listing = new FakeListing(250, 100);
+
+    assertEquals(FakeListing.range(250), FakeListing.drain(new PartitionedListing<Integer>(listing, 50, 3)));
+  }
+
+  @Test
+  public void testOrderedScanResumesFromAFailedPartition() {
+    FakeListing listing = new FakeListing(250, 250).failOnce(100);
+
+    assertEquals(FakeListing.range(250), drainResuming(new PartitionedListing<Integer>(listing, 50, 3)));
+  }
+
+  @Test
+  public void testUnorderedScanResumesFromAFailedPartition() {
+    FakeListing listing = new FakeListing(250, 250).failOnce(100);
+
+    List<Integer> items = drainResuming(new PartitionedListing<Integer>(listing, 50, 3).unordered());
+    Collections.sort(items);
+    assertEquals(FakeListing.range(250), items);
+  }
+
+  @Test
+  public void testResumesFromAFailedFirstPage() {
+    FakeListing listing = new FakeListing(250, 250).failOnce(0);
+
+    assertEquals(FakeListing.range(250), drainResuming(new PartitionedListing<Integer>(listing, 50, 3)));
+  }
+
+  @Test
+  public void testInterruptCancelsThePartitionsInFlight() throws Exception {
+    CountDownLatch never = new CountDownLatch(1);
+    FakeListing listing = new FakeListing(250, 250).blockPastFirstPage(never);
+    final ListingIterator<Integer> iterator = new PartitionedListing<Integer>(listing, 50, 3).iterator();
+
+    // The first page is delivered before any partition is started.
+    for (int i = 0; i < 50; i++) {
+      iterator.next();
+    }
+    Thread scanner = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          iterator.hasNext();
+        } catch (IllegalStateException e) {
+          // Interrupted below.
+        }
+      }
+    });
+    scanner.start();
+    while (listing.fetches.get() < 4) {
+      Thread.sleep(5);
+    }
+    // Interrupting the wait closes the iterator, which cancels the partitions in flight.
+    scanner.interrupt();
+    scanner.join();
+
+    assertFalse(iterator.hasNext());
+    while (listing.interrupted.get() < 3) {
+      Thread.sleep(5);
+    }
+  }
+
+  /**
+   * Drains a listing, calling hasNext() again after each failure, which must be one at most.
+   */
+  private static List<Integer> drainResuming(PartitionedListing<Integer> listing) {
+    ListingIterator<Integer> iterator = listing.iterator();
+    List<Integer> items = new ArrayList<Integer>();
+    boolean failed = false;
+    while (true) {
+      try {
+        if (!iterator.hasNext()) {
+          break;
+        }
+      } catch (IllegalStateException e) {
+        if (failed) {
+          throw e;
+        }
+        failed = true;
+        continue;
+      }
+      items.add(iterator.next());
+    }
+    if (!failed) {
+      fail("The failed partition was not reported");
+    }
+    return items;
+  }
+}
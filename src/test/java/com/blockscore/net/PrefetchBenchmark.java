@@ -0,0 +1,154 @@
+package com.blockscore.net;
+
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how long exporting a whole listing takes at different prefetch depths, against a local
+ * stand-in for the API that delays every page. Not a unit test; run it with
+ * {@code java com.blockscore.net.PrefetchBenchmark [items] [serverLatencyMillis] [processMicrosPerItem]}.
+ */
+public class PrefetchBenchmark {
+  private static final int[] DEPTHS = {0, 1, 2, 4, 8};
+
+  public static void main(String[] args) throws Exception {
+    int items = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+    int latencyMillis = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+    int processMicros = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+
+    AtomicInteger pages = new AtomicInteger();
+    HttpServer server = startServer(items, latencyMillis, pages);
+    try {
+      ClientConfig config = new ClientConfig.Builder().setEndpoint("http://localhost:" + server.getAddress().getPort())
+                                                      .build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test_benchmark", config);
+      System.out.println("items=" + items + " serverLatency=" + latencyMillis + "ms process=" + processMicros
+                         + "us/item");
+
+      // One export first, so that no depth is measured while the JIT warms up.
+      export(client.iterateCompanies().withPrefetch(2), processMicros);
+      long baselineNanos = 0;
+      for (int depth : DEPTHS) {
+        pages.set(0);
+        long nanos = export(client.iterateCompanies().withPrefetch(depth), processMicros);
+        if (depth == 0) {
+          baselineNanos = nanos;
+        }
+        report("depth " + depth, nanos, baselineNanos, pages.get());
+      }
+
+      // A byte bound of two pages' worth keeps depth 8 down to two pages ahead.
+      pages.set(0);
+      // The last page is the largest, its ids having the most digits.
+      long pageBytes = companies(items - PageFetcher.MAX_PAGE_SIZE, PageFetcher.MAX_PAGE_SIZE, items).length;
+      long nanos = export(client.iterateCompanies().withPrefetch(8, 2 * pageBytes), processMicros);
+      report("depth 8, 2 pages of bytes", nanos, baselineNanos, pages.get());
+
+      // Stopping early and closing the iterator leaves no fetches running.
+      pages.set(0);
+      ListingIterator<Company> iterator = client.iterateCompanies().withPrefetch(8).iterator();
+      for (int i = 0; i < PageFetcher.MAX_PAGE_SIZE * 3 / 2 && iterator.hasNext(); i++) {
+        iterator.next();
+      }
+      iterator.close();
+      int fetchedAtClose = pages.get();
+      Thread.sleep(latencyMillis * 3L);
+      System.out.printf("%-26s pages requested %d, after close %d%n", "early stop at depth 8", fetchedAtClose,
+                        pages.get() - fetchedAtClose);
+    } finally {
+      server.stop(0);
+      System.exit(0);
+    }
+  }
+
+  private static long export(PagingIterable<Company> companies, int processMicros) {
+    long startNanos = System.nanoTime();
+    int count = 0;
+    try (ListingIterator<Company> iterator = companies.iterator()) {
+      while (iterator.hasNext()) {
+        iterator.next();
+        count++;
+        busyWait(TimeUnit.MICROSECONDS.toNanos(processMicros));
+      }
+    }
+    if (count == 0) {
+      throw new IllegalStateException("Nothing exported");
+    }
+    return System.nanoTime() - startNanos;
+  }
+
+  private static void report(String name, long nanos, long baselineNanos, int pages) {
+    System.out.printf("%-26s %8.0f ms  %5.2fx  pages requested %d%n", name, nanos / 1e6,
+                      baselineNanos == 0 ? 1.0 : baselineNanos / (double) nanos, pages);
+  }
+
+  private static void busyWait(long nanos) {
+    // Sleeping is too coarse for per-item work; spinning stands in for CPU-bound processing.
+    long endNanos = System.nanoTime() + nanos;
+    while (System.nanoTime() < endNanos) {
+      Thread.yield();
+    }
+  }
+
+  private static byte[] companies(int offset, int count, int total) {
+    int end = Math.min(total, offset + count);
+    StringBuilder json = new StringBuilder("{\"total_count\":").append(total)
+        .append(",\"has_more\":").append(end < total).append(",\"data\":[");
+    for (int i = offset; i < end; i++) {
+      if (i > offset) {
+        json.append(',');
+      }
+      json.append("{\"id\":\"company-").append(i)
+          .append("\",\"object\":\"company\",\"entity_name\":\"BlockScore\",\"status\":\"valid\"}");
+    }
+    return json.append("]}").toString().getBytes();
+  }
+
+  private static HttpServer startServer(final int items, final int latencyMillis, final AtomicInteger pages)
+      throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        int count = PageFetcher.MAX_PAGE_SIZE;
+        int offset = 0;
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+          for (String parameter : query.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            if (pair[0].equals("count")) {
+              count = Integer.parseInt(pair[1]);
+            } else if (pair[0].equals("offset")) {
+              offset = Integer.parseInt(pair[1]);
+            }
+          }
+        }
+        pages.incrementAndGet();
+        try {
+          Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        byte[] body = companies(offset, count, items);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+      }
+    });
+    server.start();
+    return server;
+  }
+}
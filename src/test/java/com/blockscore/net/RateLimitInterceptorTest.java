@@ -0,0 +1,130 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.exceptions.RateLimitExceededException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rate limit tests, against the limiter itself and a local stand-in for the API.
+ */
+public class RateLimitInterceptorTest {
+  private static final String RATE_LIMITED = "{\"error\":{\"type\":\"rate_limit_error\",\"message\":\"Slow down\"}}";
+
+  @Test
+  public void testAllowsABurstThenRejects() {
+    RateLimiter limiter = new RateLimiter(new RateLimitPolicy.Builder(10).setBurst(3).build());
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, limiter.reserve(0));
+    }
+    assertTrue(limiter.reserve(0) > 0);
+    assertEquals(1, limiter.getRejectedCalls());
+    assertEquals(0, limiter.getThrottledCalls());
+  }
+
+  @Test
+  public void testSpacesCallsPastTheBurstAtTheSteadyRate() {
+    RateLimiter limiter = new RateLimiter(new RateLimitPolicy.Builder(10).setBurst(1).build());
+    long maxWait = TimeUnit.SECONDS.toNanos(10);
+
+    assertEquals(0, limiter.reserve(maxWait));
+    long second = limiter.reserve(maxWait);
+    long third = limiter.reserve(maxWait);
+
+    // A tenth of a second apart, less the time spent between the reservations.
+    assertTrue(second > TimeUnit.MILLISECONDS.toNanos(50) && second <= TimeUnit.MILLISECONDS.toNanos(100));
+    assertTrue(third > TimeUnit.MILLISECONDS.toNanos(150) && third <= TimeUnit.MILLISECONDS.toNanos(200));
+    assertEquals(2, limiter.getThrottledCalls());
+  }
+
+  @Test
+  public void testRateLimitedCallIsSentAgainAfterRetryAfter() throws Exception {
+    final AtomicInteger requests = new AtomicInteger();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (requests.getAndIncrement() == 0) {
+          exchange.getResponseHeaders().add(RateLimitHeaders.RETRY_AFTER, "1");
+          StubServer.respond(exchange, 429, RATE_LIMITED);
+        } else {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        }
+      }
+    })) {
+      RateLimitPolicy policy = new RateLimitPolicy.Builder(100).setMaxWait(5, TimeUnit.SECONDS).build();
+      ClientConfig config = server.newConfig().setRateLimitPolicy(policy).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      long startNanos = System.nanoTime();
+      assertEquals("536c1f7b6837390002000000", client.retrieveCompany("c").getId());
+
+      assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(900));
+      assertEquals(2, requests.get());
+      assertEquals(1, config.getRateLimitStats().getRateLimitedResponses());
+    }
+  }
+
+  @Test
+  public void testPauseRejectsCallsThatCannotWait() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add(RateLimitHeaders.RETRY_AFTER, "30");
+        StubServer.respond(exchange, 429, RATE_LIMITED);
+      }
+    })) {
+      RateLimitPolicy policy = new RateLimitPolicy.Builder(100).setMaxWait(0, TimeUnit.SECONDS).build();
+      ClientConfig config = server.newConfig().setRateLimitPolicy(policy).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      try {
+        client.retrieveCompany("c");
+        fail("The rate limited call succeeded");
+      } catch (RateLimitExceededException e) {
+        assertEquals(1, server.getRequestCount());
+      }
+      assertTrue(config.getRateLimitStats().getPauseRemaining(TimeUnit.SECONDS) > 25);
+
+      // The next call is turned away without reaching the API, and told how long to wait.
+      try {
+        client.retrieveCompany("c");
+        fail("The call was sent during the pause");
+      } catch (RateLimitExceededException e) {
+        assertTrue(e.getRetryAfterMillis() > TimeUnit.SECONDS.toMillis(25));
+      }
+      assertEquals(1, server.getRequestCount());
+      assertEquals(1, config.getRateLimitStats().getRejectedCalls());
+    }
+  }
+
+  @Test
+  public void testExhaustedRemainingCallsPause() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add(RateLimitHeaders.REMAINING, "0");
+        exchange.getResponseHeaders().add(RateLimitHeaders.RESET, "20");
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setRateLimitPolicy(new RateLimitPolicy.Builder(100).build()).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      client.retrieveCompany("c");
+
+      long pause = config.getRateLimitStats().getPauseRemaining(TimeUnit.SECONDS);
+      assertTrue(pause > 15 && pause <= 20);
+      assertEquals(0, config.getRateLimitStats().getRateLimitedResponses());
+    }
+  }
+}
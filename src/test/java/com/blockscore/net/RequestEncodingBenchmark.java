@@ -0,0 +1,75 @@
+package com.blockscore.net;
+
+import com.blockscore.models.Address;
+import com.blockscore.models.Person;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.GregorianCalendar;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the cost of creating people with their fields sent as query parameters and as a JSON
+ * body, against a local stand-in for the API: calls per second, bytes allocated by the calling
+ * thread and bytes of request line and body sent per call. Not a unit test; run it with
+ * {@code java com.blockscore.net.RequestEncodingBenchmark [calls]}.
+ */
+public class RequestEncodingBenchmark {
+  public static void main(String[] args) throws Exception {
+    int calls = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+
+    final AtomicLong requestBytes = new AtomicLong();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        long bytes = exchange.getRequestURI().toString().length();
+        try (InputStream in = exchange.getRequestBody()) {
+          byte[] buffer = new byte[4096];
+          for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+            bytes += read;
+          }
+        }
+        requestBytes.addAndGet(bytes);
+        StubServer.respond(exchange, 200, "{\"id\":\"p\",\"object\":\"person\"}");
+      }
+    })) {
+      BlockscoreApiClient query = new BlockscoreApiClient("sk_test_benchmark", server.newConfig().build());
+      BlockscoreApiClient json = new BlockscoreApiClient(
+          "sk_test_benchmark", server.newConfig().setRequestEncoding(RequestEncoding.JSON).build());
+      System.out.println("calls=" + calls);
+      // One short round each first, so that neither is measured while the JIT warms up.
+      run("warm-up", query, calls / 4, requestBytes);
+      run("warm-up", json, calls / 4, requestBytes);
+      run("query", query, calls, requestBytes);
+      run("json", json, calls, requestBytes);
+    }
+  }
+
+  private static void run(String name, BlockscoreApiClient client, int calls, AtomicLong requestBytes) {
+    Address address = new Address().setStreet1("1 Main St")
+                                   .setCity("Palo Alto")
+                                   .setSubdivision("CA")
+                                   .setPostalCode("94301")
+                                   .setCountryCode("US");
+    requestBytes.set(0);
+    long allocatedBefore = Allocations.currentThread();
+    long startNanos = System.nanoTime();
+    for (int i = 0; i < calls; i++) {
+      new Person.Builder(client).setFirstName("John")
+                                .setLastName("Doe")
+                                .setDocumentType("ssn")
+                                .setDocumentValue("0000")
+                                .setDateOfBirth(new GregorianCalendar(1980, 0, 2).getTime())
+                                .setAddress(address)
+                                .create();
+    }
+    long elapsedNanos = System.nanoTime() - startNanos;
+    long allocated = Allocations.currentThread() - allocatedBefore;
+
+    System.out.printf("%-8s %8.0f calls/s  allocated %6.1f KB/call  sent %5d B/call%n",
+                      name, calls / (elapsedNanos / 1e9), allocated / 1024.0 / calls, requestBytes.get() / calls);
+  }
+}
@@ -0,0 +1,127 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.blockscore.models.Address;
+import com.blockscore.models.Person;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Request encoding tests against a local stand-in for the API.
+ */
+public class RequestEncodingTest {
+  private static final String PERSON = "{\"id\":\"p\",\"object\":\"person\"}";
+
+  @Test
+  public void testFieldsAreSentAsQueryParametersByDefault() throws Exception {
+    final AtomicReference<String> query = new AtomicReference<String>();
+    final AtomicReference<String> body = new AtomicReference<String>();
+    try (StubServer server = new StubServer(new RecordingHandler(query, body))) {
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", server.newConfig().build());
+      Person person = createPerson(client);
+
+      assertEquals("p", person.getId());
+      Map<String, String> parameters = decode(query.get());
+      assertEquals("John", parameters.get("name_first"));
+      assertEquals("Doe", parameters.get("name_last"));
+      assertEquals("1980", parameters.get("birth_year"));
+      assertEquals("1 Main St", parameters.get("address_street1"));
+      assertEquals(10, parameters.size());
+      assertEquals("", body.get());
+    }
+  }
+
+  @Test
+  public void testFieldsAreSentAsJsonWhenConfigured() throws Exception {
+    final AtomicReference<String> query = new AtomicReference<String>();
+    final AtomicReference<String> body = new AtomicReference<String>();
+    try (StubServer server = new StubServer(new RecordingHandler(query, body))) {
+      ClientConfig config = server.newConfig().setRequestEncoding(RequestEncoding.JSON).build();
+      Person person = createPerson(new BlockscoreApiClient("sk_test", config));
+
+      assertEquals("p", person.getId());
+      assertNull(query.get());
+      assertTrue(body.get(), body.get().contains("\"name_first\":\"John\""));
+      assertTrue(body.get(), body.get().contains("\"birth_year\":1980"));
+      assertTrue(body.get(), body.get().contains("\"address_street1\":\"1 Main St\""));
+    }
+  }
+
+  @Test
+  public void testQueryMapOverloadSendsQueryParametersInEitherMode() throws Exception {
+    final AtomicReference<String> query = new AtomicReference<String>();
+    final AtomicReference<String> body = new AtomicReference<String>();
+    try (StubServer server = new StubServer(new RecordingHandler(query, body))) {
+      ClientConfig config = server.newConfig().setRequestEncoding(RequestEncoding.JSON).build();
+      Map<String, String> options = new HashMap<String, String>();
+      options.put("name_first", "John");
+      new BlockscoreApiClient("sk_test", config).getAdapter().createPerson(options);
+
+      assertEquals("name_first=John", query.get());
+    }
+  }
+
+  private static Person createPerson(BlockscoreApiClient client) {
+    Address address = new Address().setStreet1("1 Main St")
+                                   .setCity("Palo Alto")
+                                   .setSubdivision("CA")
+                                   .setPostalCode("94301")
+                                   .setCountryCode("US");
+    return new Person.Builder(client).setFirstName("John")
+                                     .setLastName("Doe")
+                                     .setDateOfBirth(new GregorianCalendar(1980, 0, 2).getTime())
+                                     .setAddress(address)
+                                     .create();
+  }
+
+  private static Map<String, String> decode(String query) throws IOException {
+    Map<String, String> parameters = new HashMap<String, String>();
+    for (String parameter : query.split("&")) {
+      String[] pair = parameter.split("=", 2);
+      parameters.put(pair[0], URLDecoder.decode(pair[1], "UTF-8"));
+    }
+    return parameters;
+  }
+
+  /**
+   * Records the query string and body of the request and answers with a person.
+   */
+  private static final class RecordingHandler implements HttpHandler {
+    private final AtomicReference<String> query;
+    private final AtomicReference<String> body;
+
+    RecordingHandler(AtomicReference<String> query, AtomicReference<String> body) {
+      this.query = query;
+      this.body = body;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      query.set(exchange.getRequestURI().getRawQuery());
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (InputStream in = exchange.getRequestBody()) {
+        byte[] buffer = new byte[4096];
+        for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+          bytes.write(buffer, 0, read);
+        }
+      }
+      body.set(new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+      StubServer.respond(exchange, 200, PERSON);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.blockscore.models.Company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retry behavior tests against a local stand-in for the API.
+ */
+public class RetryInterceptorTest {
+  private static final RetryPolicy RETRY_POLICY =
+      new RetryPolicy.Builder().setMaxAttempts(3).setBackoff(1, 5, TimeUnit.MILLISECONDS).build();
+
+  @Test
+  public void testTransientFailuresAreRetried() throws Exception {
+    final AtomicInteger calls = new AtomicInteger();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        if (calls.incrementAndGet() < 3) {
+          StubServer.respond(exchange, 503, StubServer.API_ERROR);
+        } else {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        }
+      }
+    })) {
+      ClientConfig config = server.newConfig().setRetryPolicy(RETRY_POLICY).build();
+      Company company = new BlockscoreApiClient("sk_test", config).retrieveCompany("c");
+
+      assertEquals("536c1f7b6837390002000000", company.getId());
+      assertEquals(3, server.getRequestCount());
+      assertEquals(2, config.getRetryStats().getRetries());
+    }
+  }
+
+  @Test
+  public void testCancelledCallIsNeitherRetriedNorCountedAsFailure() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.sleep(2000);
+        StubServer.respond(exchange, 200, StubServer.COMPANY);
+      }
+    })) {
+      CircuitBreakerPolicy breakerPolicy = new CircuitBreakerPolicy.Builder().setWindow(1, 1)
+                                                                             .setFailureRateThreshold(50)
+                                                                             .build();
+      ClientConfig config = server.newConfig().setRetryPolicy(RETRY_POLICY)
+                                              .setCircuitBreakerPolicy(breakerPolicy)
+                                              .build();
+      BlockscoreAsyncClient client = new BlockscoreAsyncClient("sk_test", config);
+
+      BlockscoreFuture<Company> future = client.retrieveCompany("c");
+      while (server.getRequestCount() == 0) {
+        Thread.sleep(5);
+      }
+      assertTrue(future.cancel(false));
+      try {
+        future.get();
+      } catch (CancellationException expected) {
+        // The future reports the cancel straight away; the call unwinds in the background.
+      }
+      Thread.sleep(200);
+
+      assertEquals(1, server.getRequestCount());
+      assertEquals(0, config.getRetryStats().getRetries());
+      assertEquals(CircuitState.CLOSED, config.getCircuitBreakerStats().getState(ApiOperation.RETRIEVE_COMPANY));
+      assertEquals(0, config.getCircuitBreakerStats().getFailureRate(ApiOperation.RETRIEVE_COMPANY), 0);
+    }
+  }
+
+  @Test
+  public void testBudgetBoundsTheRetries() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 503, StubServer.API_ERROR);
+      }
+    })) {
+      // Without deposits, only the ten tokens the budget starts with can be spent.
+      RetryPolicy policy = new RetryPolicy.Builder().setMaxAttempts(3)
+                                                    .setBackoff(1, 5, TimeUnit.MILLISECONDS)
+                                                    .setBudgetRatio(0)
+                                                    .build();
+      ClientConfig config = server.newConfig().setRetryPolicy(policy).build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+
+      for (int i = 0; i < 8; i++) {
+        try {
+          client.retrieveCompany("c");
+          fail("The failing call succeeded");
+        } catch (RuntimeException expected) {
+          // Every attempt fails.
+        }
+      }
+
+      assertEquals(10, config.getRetryStats().getRetries());
+      assertEquals(3, config.getRetryStats().getBudgetExhausted());
+      assertEquals(8 + 10, server.getRequestCount());
+    }
+  }
+
+  @Test
+  public void testClientErrorsAreNotRetried() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 404, StubServer.API_ERROR);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setRetryPolicy(RETRY_POLICY).build();
+      try {
+        new BlockscoreApiClient("sk_test", config).retrieveCompany("c");
+        fail("The missing company was found");
+      } catch (RuntimeException expected) {
+        assertEquals(1, server.getRequestCount());
+      }
+      assertEquals(0, config.getRetryStats().getRetries());
+    }
+  }
+
+  @Test
+  public void testWritesAreRetriedWithTheSameIdempotencyKey() throws Exception {
+    final List<String> keys = new CopyOnWriteArrayList<String>();
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        keys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+        if (keys.size() == 1) {
+          StubServer.respond(exchange, 503, StubServer.API_ERROR);
+        } else {
+          StubServer.respond(exchange, 200, StubServer.COMPANY);
+        }
+      }
+    })) {
+      RetryPolicy policy = new RetryPolicy.Builder().setMaxAttempts(3)
+                                                    .setBackoff(1, 5, TimeUnit.MILLISECONDS)
+                                                    .setIdempotencyKeyHeader("Idempotency-Key")
+                                                    .build();
+      ClientConfig config = server.newConfig().setRetryPolicy(policy).build();
+
+      new Company.Builder(new BlockscoreApiClient("sk_test", config)).setEntityName("BlockScore").create();
+
+      assertEquals(2, keys.size());
+      assertNotNull(keys.get(0));
+      assertEquals(keys.get(0), keys.get(1));
+    }
+  }
+
+  @Test
+  public void testWritesWithoutAnIdempotencyKeyAreNotRetried() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 503, StubServer.API_ERROR);
+      }
+    })) {
+      ClientConfig config = server.newConfig().setRetryPolicy(RETRY_POLICY).build();
+      try {
+        new Company.Builder(new BlockscoreApiClient("sk_test", config)).setEntityName("BlockScore").create();
+        fail("The failing call succeeded");
+      } catch (RuntimeException expected) {
+        assertEquals(1, server.getRequestCount());
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.blockscore.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+/**
+ * A local stand-in for the API, answering every request with the given handler.
+ */
+class StubServer implements AutoCloseable {
+  static final String COMPANY = "{\"id\":\"536c1f7b6837390002000000\",\"object\":\"company\","
+                                + "\"entity_name\":\"BlockScore\",\"status\":\"valid\"}";
+  static final String API_ERROR = "{\"error\":{\"type\":\"api_error\",\"message\":\"Try again later\"}}";
+
+  private static final String KEY_STORE = "stub-server.jks";
+  private static final String KEY_STORE_PASSWORD = "blockscore";
+  private static File trustStore;
+
+  private final HttpServer server;
+  private final String scheme;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final AtomicInteger requests = new AtomicInteger();
+
+  StubServer(final HttpHandler handler) throws IOException {
+    this(HttpServer.create(new InetSocketAddress("localhost", 0), 1024), "http", handler);
+  }
+
+  private StubServer(final HttpServer server, final String scheme, final HttpHandler handler) {
+    this.server = server;
+    this.scheme = scheme;
+    server.setExecutor(executor);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+          handler.handle(exchange);
+        } finally {
+          exchange.close();
+        }
+      }
+    });
+    server.start();
+  }
+
+  /**
+   * Creates a stand-in that only speaks HTTPS, with a self-signed certificate for localhost that
+   * this JVM is made to trust.
+   */
+  static StubServer tls(final HttpHandler handler) throws IOException {
+    HttpsServer server = HttpsServer.create(new InetSocketAddress("localhost", 0), 1024);
+    server.setHttpsConfigurator(new HttpsConfigurator(createServerContext()));
+    return new StubServer(server, "https", handler);
+  }
+
+  private static synchronized SSLContext createServerContext() throws IOException {
+    try {
+      KeyStore keyStore = KeyStore.getInstance("JKS");
+      try (InputStream in = StubServer.class.getResourceAsStream(KEY_STORE)) {
+        keyStore.load(in, KEY_STORE_PASSWORD.toCharArray());
+      }
+      KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+      keyManagers.init(keyStore, KEY_STORE_PASSWORD.toCharArray());
+      SSLContext context = SSLContext.getInstance("TLS");
+      context.init(keyManagers.getKeyManagers(), null, null);
+
+      // Clients build their contexts with the default trust managers, which read the trust store
+      // from these properties.
+      if (trustStore == null) {
+        trustStore = File.createTempFile("stub-server", ".jks");
+        trustStore.deleteOnExit();
+        try (InputStream in = StubServer.class.getResourceAsStream(KEY_STORE)) {
+          Files.copy(in, trustStore.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.setProperty("javax.net.ssl.trustStore", trustStore.getPath());
+        System.setProperty("javax.net.ssl.trustStorePassword", KEY_STORE_PASSWORD);
+      }
+      return context;
+    } catch (GeneralSecurityException e) {
+      throw new IOException("Unable to set up TLS", e);
+    }
+  }
+
+  String getEndpoint() {
+    return scheme + "://localhost:" + server.getAddress().getPort();
+  }
+
+  ClientConfig.Builder newConfig() {
+    return new ClientConfig.Builder().setEndpoint(getEndpoint());
+  }
+
+  int getRequestCount() {
+    return requests.get();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] body = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    OutputStream out = exchange.getResponseBody();
+    out.write(body);
+    out.close();
+  }
+
+  static Map<String, String> query(HttpExchange exchange) {
+    Map<String, String> parameters = new HashMap<String, String>();
+    String query = exchange.getRequestURI().getQuery();
+    if (query != null) {
+      for (String parameter : query.split("&")) {
+        String[] pair = parameter.split("=", 2);
+        parameters.put(pair[0], pair.length > 1 ? pair[1] : "");
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Answers listing requests with pages of {@code total} companies with ids "c0", "c1", ...
+   */
+  static String companies(int offset, int count, int total) {
+    int end = Math.min(total, offset + count);
+    StringBuilder json = new StringBuilder("{\"total_count\":").append(total)
+        .append(",\"has_more\":").append(end < total).append(",\"data\":[");
+    for (int i = offset; i < end; i++) {
+      if (i > offset) {
+        json.append(',');
+      }
+      json.append("{\"id\":\"c").append(i).append("\",\"object\":\"company\"}");
+    }
+    return json.append("]}").toString();
+  }
+
+  static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
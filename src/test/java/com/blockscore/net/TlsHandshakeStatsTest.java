@@ -0,0 +1,94 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLS handshake metric and session cache tests against a local TLS stand-in for the API.
+ */
+public class TlsHandshakeStatsTest {
+  @Test
+  public void testTls12ResumptionsAreCounted() throws Exception {
+    try (StubServer server = StubServer.tls(new ClosingHandler())) {
+      ClientConfig config = server.newConfig().setTlsVersions("TLSv1.2").build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      for (int i = 0; i < 3; i++) {
+        client.retrieveCompany("c");
+      }
+
+      TlsHandshakeStats handshakes = awaitHandshakes(config, 3);
+      assertEquals(1, handshakes.getFullHandshakes());
+      assertEquals(2, handshakes.getResumedHandshakes());
+      assertEquals(0, handshakes.getUnclassifiedHandshakes());
+    }
+  }
+
+  @Test
+  public void testTls13HandshakesAreNotClassified() throws Exception {
+    try (StubServer server = StubServer.tls(new ClosingHandler())) {
+      // OkHttp's default cipher suites predate TLS 1.3.
+      ClientConfig config = server.newConfig()
+                                  .setTlsVersions("TLSv1.3")
+                                  .setCipherSuites("TLS_AES_128_GCM_SHA256")
+                                  .build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      for (int i = 0; i < 3; i++) {
+        client.retrieveCompany("c");
+      }
+
+      TlsHandshakeStats handshakes = awaitHandshakes(config, 3);
+      assertEquals(0, handshakes.getFullHandshakes());
+      assertEquals(0, handshakes.getResumedHandshakes());
+      assertEquals(3, handshakes.getUnclassifiedHandshakes());
+    }
+  }
+
+  @Test
+  public void testSubSecondSessionTimeoutExpiresSessions() throws Exception {
+    try (StubServer server = StubServer.tls(new ClosingHandler())) {
+      ClientConfig config = server.newConfig()
+                                  .setTlsVersions("TLSv1.2")
+                                  .setTlsSessionTimeout(500, TimeUnit.MILLISECONDS)
+                                  .build();
+      BlockscoreApiClient client = new BlockscoreApiClient("sk_test", config);
+      client.retrieveCompany("c");
+      // Past the timeout, rounded up to a second, so the session may not be resumed.
+      Thread.sleep(1500);
+      client.retrieveCompany("c");
+
+      TlsHandshakeStats handshakes = awaitHandshakes(config, 2);
+      assertEquals(2, handshakes.getFullHandshakes());
+      assertEquals(0, handshakes.getResumedHandshakes());
+    }
+  }
+
+  /**
+   * Waits for the handshakes to be recorded, which the JDK reports on a thread of its own.
+   */
+  static TlsHandshakeStats awaitHandshakes(ClientConfig config, long count) throws InterruptedException {
+    TlsHandshakeStats handshakes = config.getTlsHandshakeStats();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (handshakes.getFullHandshakes() + handshakes.getResumedHandshakes()
+           + handshakes.getUnclassifiedHandshakes() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return handshakes;
+  }
+
+  /**
+   * Answers with a company and has the client open a new connection for the next request.
+   */
+  private static final class ClosingHandler implements HttpHandler {
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      exchange.getResponseHeaders().set("Connection", "close");
+      StubServer.respond(exchange, 200, StubServer.COMPANY);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.blockscore.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the throughput, latency and memory use of the transports against a local stand-in for
+ * the API. Not a unit test; run it with {@code java com.blockscore.net.TransportBenchmark
+ * [callers] [seconds] [serverLatencyMillis]}.
+ */
+public class TransportBenchmark {
+  private static final byte[] COMPANY = ("{\"id\":\"536c1f7b6837390002000000\",\"object\":\"company\","
+                                         + "\"entity_name\":\"BlockScore\",\"status\":\"valid\"}").getBytes();
+
+  public static void main(String[] args) throws Exception {
+    int callers = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int latencyMillis = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    HttpServer server = startServer(latencyMillis);
+    String endpoint = "http://localhost:" + server.getAddress().getPort();
+    try {
+      System.out.println("callers=" + callers + " seconds=" + seconds + " serverLatency=" + latencyMillis + "ms");
+      ClientConfig okHttp = new ClientConfig.Builder().setEndpoint(endpoint)
+                                                      .setMaxIdleConnections(callers)
+                                                      .build();
+      ClientConfig urlConnection = new ClientConfig.Builder().setEndpoint(endpoint)
+                                                             .setTransport(new UrlConnectionTransport())
+                                                             .build();
+      // One short round each first, so that neither is measured while the JIT warms up.
+      run("warm-up", okHttp, callers, 2);
+      run("warm-up", urlConnection, callers, 2);
+      run("okhttp", okHttp, callers, seconds);
+      run("urlconnection", urlConnection, callers, seconds);
+    } finally {
+      server.stop(0);
+      System.exit(0);
+    }
+  }
+
+  private static void run(String name, ClientConfig config, int callers, int seconds) throws InterruptedException {
+    final BlockscoreApiClient client = new BlockscoreApiClient("sk_test_benchmark", config);
+    final long endNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    final long[][] latencies = new long[callers][];
+    final int[] counts = new int[callers];
+    final AtomicInteger errors = new AtomicInteger();
+    final CountDownLatch done = new CountDownLatch(callers);
+
+    System.gc();
+    long heapBefore = usedHeap();
+    long allocatedBefore = Allocations.allThreads();
+    ExecutorService pool = Executors.newFixedThreadPool(callers);
+    for (int i = 0; i < callers; i++) {
+      final int caller = i;
+      pool.execute(new Runnable() {
+        @Override
+        public void run() {
+          long[] samples = new long[1024];
+          int count = 0;
+          while (System.nanoTime() < endNanos) {
+            long startNanos = System.nanoTime();
+            try {
+              client.retrieveCompany("536c1f7b6837390002000000");
+            } catch (RuntimeException e) {
+              errors.incrementAndGet();
+              continue;
+            }
+            if (count == samples.length) {
+              samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = System.nanoTime() - startNanos;
+          }
+          latencies[caller] = samples;
+          counts[caller] = count;
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    // Measured before the pool shuts down, since the allocations of finished threads are not reported.
+    long allocated = Allocations.allThreads() - allocatedBefore;
+    long heapAfter = usedHeap();
+    pool.shutdown();
+
+    int total = 0;
+    for (int count : counts) {
+      total += count;
+    }
+    long[] all = new long[total];
+    int offset = 0;
+    for (int i = 0; i < callers; i++) {
+      System.arraycopy(latencies[i], 0, all, offset, counts[i]);
+      offset += counts[i];
+    }
+    Arrays.sort(all);
+
+    System.out.printf("%-14s %8.0f calls/s  p50 %6.2f ms  p99 %6.2f ms  errors %d  "
+                      + "allocated %6.1f KB/call  retained %+6.1f MB  threads %d%n",
+                      name, total / (double) seconds, percentile(all, 0.50), percentile(all, 0.99), errors.get(),
+                      total == 0 ? 0 : allocated / 1024.0 / total, (heapAfter - heapBefore) / 1048576.0,
+                      ManagementFactory.getThreadMXBean().getThreadCount());
+  }
+
+  private static double percentile(long[] sorted, double quantile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    return sorted[(int) Math.min(sorted.length - 1, sorted.length * quantile)] / 1e6;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static HttpServer startServer(final int latencyMillis) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        try {
+          Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, COMPANY.length);
+        OutputStream body = exchange.getResponseBody();
+        body.write(COMPANY);
+        body.close();
+      }
+    });
+    server.start();
+    return server;
+  }
+}
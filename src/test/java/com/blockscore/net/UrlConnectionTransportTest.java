@@ -0,0 +1,82 @@
+package com.blockscore.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.Test;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * HttpURLConnection transport tests against a local stand-in for the API.
+ */
+public class UrlConnectionTransportTest {
+  private static final String UNAUTHORIZED =
+      "{\"error\":{\"type\":\"invalid_request_error\",\"message\":\"Invalid API key\"}}";
+
+  @Test
+  public void testUnauthorizedResponseBodyIsRead() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"BlockScore\"");
+        StubServer.respond(exchange, 401, UNAUTHORIZED);
+      }
+    })) {
+      Response response = new UrlConnectionTransport().execute(post(server, "/people"), new Exchange(0));
+
+      assertEquals(401, response.getStatus());
+      assertEquals(UNAUTHORIZED, read(response));
+    }
+  }
+
+  @Test
+  public void testPatchFailsBeforeAnythingIsSent() throws Exception {
+    try (StubServer server = new StubServer(new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        StubServer.respond(exchange, 200, "{\"id\":\"c\",\"object\":\"candidate\"}");
+      }
+    })) {
+      Request request = new Request("PATCH", server.getEndpoint() + "/candidates/c",
+                                    Collections.<Header>emptyList(), json("{\"note\":\"n\"}"));
+      try {
+        new UrlConnectionTransport().execute(request, new Exchange(0));
+        fail("Expected PATCH to be refused");
+      } catch (ProtocolException expected) {
+        assertEquals(0, server.getRequestCount());
+      }
+    }
+  }
+
+  static Request post(StubServer server, String path) {
+    return new Request("POST", server.getEndpoint() + path, Collections.<Header>emptyList(),
+                       json("{\"name_first\":\"John\"}"));
+  }
+
+  static String read(Response response) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (InputStream in = response.getBody().in()) {
+      byte[] buffer = new byte[4096];
+      for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+        bytes.write(buffer, 0, read);
+      }
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static TypedByteArray json(String json) {
+    return new TypedByteArray("application/json; charset=UTF-8", json.getBytes(StandardCharsets.UTF_8));
+  }
+}